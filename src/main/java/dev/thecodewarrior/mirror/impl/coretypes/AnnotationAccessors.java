@@ -0,0 +1,143 @@
+/*
+ * License: Apache License, Version 2.0
+ * See the NOTICE file in the root directory or at <a href="http://www.apache.org/licenses/LICENSE-2">apache.org</a>.
+ */
+
+package dev.thecodewarrior.mirror.impl.coretypes;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * The elements of an annotation type, along with a {@link MethodHandle} to read each of them from any instance of
+ * that type. These are computed once per annotation type and shared by every {@link AnnotationInvocationHandler} and
+ * {@link GeneratedAnnotation} of that type, so comparing annotations doesn't require any reflective lookups.
+ */
+final class AnnotationAccessors {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Annotation.class);
+
+    private static final ClassValue<AnnotationAccessors> cache = new ClassValue<AnnotationAccessors>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected AnnotationAccessors computeValue(Class<?> type) {
+            return new AnnotationAccessors((Class<? extends Annotation>) type);
+        }
+    };
+
+    final Class<? extends Annotation> type;
+    /**
+     * The element methods, in the order of {@link Class#getDeclaredMethods()}
+     */
+    final Method[] methods;
+    final String[] names;
+    /**
+     * The element indices, sorted by name for {@code toString()}
+     */
+    final int[] sortedIndices;
+    private final MethodHandle[] getters;
+
+    private AnnotationAccessors(Class<? extends Annotation> type) {
+        this.type = type;
+        this.methods = type.getDeclaredMethods();
+        this.names = new String[methods.length];
+        this.getters = new MethodHandle[methods.length];
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        for (int i = 0; i < methods.length; i++) {
+            Method method = methods[i];
+            names[i] = method.getName();
+            try {
+                method.setAccessible(true);
+            } catch (RuntimeException e) {
+                // the type may still be accessible without overriding access checks (e.g. a public type in another
+                // module's exported package)
+            }
+            try {
+                getters[i] = lookup.unreflect(method).asType(GETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        Integer[] sorted = new Integer[methods.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, Comparator.comparing(i -> names[i]));
+        this.sortedIndices = new int[methods.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sortedIndices[i] = sorted[i];
+        }
+    }
+
+    /**
+     * Gets the accessors for the passed annotation type.
+     */
+    static AnnotationAccessors of(Class<? extends Annotation> type) {
+        return cache.get(type);
+    }
+
+    /**
+     * Reads the value of the element at the passed index from the passed annotation, which must be an instance of
+     * {@link #type}.
+     */
+    Object get(int index, Annotation annotation) {
+        try {
+            return getters[index].invokeExact(annotation);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new UndeclaredThrowableException(e);
+        }
+    }
+
+    /**
+     * Compares the passed values, in the order of {@link #names}, with the element values of the passed annotation,
+     * which must be an instance of {@link #type}.
+     */
+    boolean valuesEqual(Object[] values, Annotation other) {
+        for (int i = 0; i < values.length; i++) {
+            if (!Objects.deepEquals(values[i], get(i, other))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates the hash code of an annotation with the passed values, in the order of {@link #names}, as described
+     * in {@link Annotation#hashCode()}.
+     */
+    int hashCode(Object[] values) {
+        int hashCode = 0;
+        for (int i = 0; i < values.length; i++) {
+            hashCode += (127 * names[i].hashCode()) ^ AnnotationInvocationHandler.valueHashCode(values[i]);
+        }
+        return hashCode;
+    }
+
+    /**
+     * Formats an annotation with the passed values, in the order of {@link #names}, the way the JDK does.
+     */
+    String toString(Object[] values) {
+        StringBuilder result = new StringBuilder();
+        result.append('@').append(type.getName()).append('(');
+        for (int i : sortedIndices) {
+            result.append(names[i]).append('=')
+                    .append(AnnotationInvocationHandler.valueToString(values[i])).append(", ");
+        }
+        // remove the trailing separator
+        if (values.length > 0) {
+            result.delete(result.length() - 2, result.length());
+        }
+        result.append(")");
+
+        return result.toString();
+    }
+}
@@ -5,12 +5,14 @@
 
 package dev.thecodewarrior.mirror.impl.coretypes;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.*;
-import java.util.Map.Entry;
 
 /**
  * An implementation of {@link Annotation} that mimics the behavior of normal annotations.
@@ -48,6 +50,11 @@ class AnnotationInvocationHandler implements Annotation, InvocationHandler, Seri
 
     private final Class<? extends Annotation> annotationType;
     private final Map<String, Object> values;
+    private final transient AnnotationAccessors accessors;
+    /**
+     * The element values, in the order of {@link AnnotationAccessors#names}
+     */
+    private final transient Object[] valueArray;
     private final int hashCode;
 
     AnnotationInvocationHandler(Class<? extends Annotation> annotationType, Map<String, Object> values) throws AnnotationFormatException {
@@ -55,7 +62,12 @@ class AnnotationInvocationHandler implements Annotation, InvocationHandler, Seri
         if (annotationType.isAnnotation() && interfaces.length == 1 && interfaces[0] == Annotation.class) {
             this.annotationType = annotationType;
             this.values = Collections.unmodifiableMap(normalize(annotationType, values));
-            this.hashCode = calculateHashCode();
+            this.accessors = AnnotationAccessors.of(annotationType);
+            this.valueArray = new Object[accessors.names.length];
+            for (int i = 0; i < valueArray.length; i++) {
+                valueArray[i] = this.values.get(accessors.names[i]);
+            }
+            this.hashCode = accessors.hashCode(valueArray);
         } else {
             throw new AnnotationFormatException(annotationType.getName() + " is not an annotation type");
         }
@@ -74,7 +86,7 @@ class AnnotationInvocationHandler implements Annotation, InvocationHandler, Seri
                 }
 
                 if (returnType.isInstance(values.get(elementName))) {
-                    valid.put(elementName, values.get(elementName));
+                    valid.put(elementName, cloneValue(values.get(elementName)));
                 } else {
                     invalid.add(elementName);
                 }
@@ -95,10 +107,21 @@ class AnnotationInvocationHandler implements Annotation, InvocationHandler, Seri
         return valid;
     }
 
+    /**
+     * Recreates the accessor table and value array, which aren't serialized.
+     */
+    private Object readResolve() throws ObjectStreamException {
+        try {
+            return new AnnotationInvocationHandler(annotationType, values);
+        } catch (AnnotationFormatException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+    }
+
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
         if (values.containsKey(method.getName())) {
-            return values.get(method.getName());
+            return cloneValue(values.get(method.getName()));
         }
         return method.invoke(this, args);
     }
@@ -127,26 +150,16 @@ class AnnotationInvocationHandler implements Annotation, InvocationHandler, Seri
             return false;
         }
 
-        Annotation that = annotationType.cast(other);
-
-        //compare annotation member values
-        for (Entry<String, Object> element : values.entrySet()) {
-            Object value = element.getValue();
-            Object otherValue;
-            try {
-                Method method = that.annotationType().getMethod(element.getKey());
-                method.setAccessible(true);
-                otherValue = method.invoke(that);
-            } catch (ReflectiveOperationException e) {
-                throw new RuntimeException(e);
-            }
-
-            if (!Objects.deepEquals(value, otherValue)) {
-                return false;
+        if (Proxy.isProxyClass(other.getClass())) {
+            InvocationHandler handler = Proxy.getInvocationHandler(other);
+            if (handler instanceof AnnotationInvocationHandler
+                    && ((AnnotationInvocationHandler) handler).accessors == accessors) {
+                return hashCode == ((AnnotationInvocationHandler) handler).hashCode
+                        && Arrays.deepEquals(valueArray, ((AnnotationInvocationHandler) handler).valueArray);
             }
         }
 
-        return true;
+        return accessors.valuesEqual(valueArray, (Annotation) other);
     }
 
     /**
@@ -162,41 +175,60 @@ class AnnotationInvocationHandler implements Annotation, InvocationHandler, Seri
 
     @Override
     public String toString() {
-        StringBuilder result = new StringBuilder();
-        result.append('@').append(annotationType.getName()).append('(');
-        Set<String> sorted = new TreeSet<>(values.keySet());
-        for (String elementName : sorted) {
-            String value;
-            if (values.get(elementName).getClass().isArray()) {
-                value = Arrays.deepToString(new Object[] {values.get(elementName)})
-                        .replaceAll("^\\[\\[", "[")
-                        .replaceAll("]]$", "]");
-            } else {
-                value = values.get(elementName).toString();
-            }
-            result.append(elementName).append('=').append(value).append(", ");
+        return accessors.toString(valueArray);
+    }
+
+    /**
+     * Returns a copy of the passed value if it's an array, so neither the caller that supplied it nor a caller that
+     * received it can modify an annotation's values. Other values are immutable and are returned as-is.
+     */
+    static Object cloneValue(Object value) {
+        if (value instanceof Object[]) {
+            return ((Object[]) value).clone();
         }
-        // remove the trailing separator
-        if (values.size() > 0) {
-            result.delete(result.length() - 2, result.length());
+        if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
         }
-        result.append(")");
-
-        return result.toString();
+        if (value instanceof short[]) {
+            return ((short[]) value).clone();
+        }
+        if (value instanceof int[]) {
+            return ((int[]) value).clone();
+        }
+        if (value instanceof long[]) {
+            return ((long[]) value).clone();
+        }
+        if (value instanceof char[]) {
+            return ((char[]) value).clone();
+        }
+        if (value instanceof float[]) {
+            return ((float[]) value).clone();
+        }
+        if (value instanceof double[]) {
+            return ((double[]) value).clone();
+        }
+        if (value instanceof boolean[]) {
+            return ((boolean[]) value).clone();
+        }
+        return value;
     }
 
-
-    private int calculateHashCode() {
-        int hashCode = 0;
-
-        for (Entry<String, Object> element : values.entrySet()) {
-            hashCode += (127 * element.getKey().hashCode()) ^ calculateHashCode(element.getValue());
+    /**
+     * Formats an annotation value the way {@link #toString()} does.
+     */
+    static String valueToString(Object value) {
+        if (value.getClass().isArray()) {
+            return Arrays.deepToString(new Object[] {value})
+                    .replaceAll("^\\[\\[", "[")
+                    .replaceAll("]]$", "]");
         }
-
-        return hashCode;
+        return value.toString();
     }
 
-    private int calculateHashCode(Object element) {
+    /**
+     * Calculates the hash code of an annotation value as described in {@link Annotation#hashCode()}.
+     */
+    static int valueHashCode(Object element) {
         if (!element.getClass().isArray()) {
             return element.hashCode();
         }
@@ -0,0 +1,137 @@
+/*
+ * License: Apache License, Version 2.0
+ * See the NOTICE file in the root directory or at <a href="http://www.apache.org/licenses/LICENSE-2">apache.org</a>.
+ */
+
+package dev.thecodewarrior.mirror.impl.coretypes;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The superclass of the annotation implementations generated by {@link AnnotationClassGenerator}. The generated
+ * subclasses store each element in a final field and implement the element methods by returning it directly, while
+ * this class implements {@link #equals(Object)}, {@link #hashCode()}, and {@link #toString()} the same way
+ * {@link AnnotationInvocationHandler} does.
+ * <p>
+ * This class and {@link Schema} have to be public, since the generated classes are defined in their own class loaders.
+ * They aren't part of the API.
+ * <p>
+ * Instances are serialized as their annotation type and element values, and are recreated using
+ * {@link CoreTypeUtils#createAnnotation(Class, Map)} when deserialized, since the generated classes can't be looked up
+ * by name.
+ */
+public abstract class GeneratedAnnotation implements Annotation, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Schema schema;
+    private final Object[] values;
+    private final int hashCode;
+
+    /**
+     * @param schema The schema of the annotation type
+     * @param values The normalized element values, in the order of {@link AnnotationAccessors#names}
+     */
+    protected GeneratedAnnotation(Schema schema, Object[] values) {
+        this.schema = schema;
+        this.values = values;
+        this.hashCode = schema.accessors.hashCode(values);
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return schema.accessors.type;
+    }
+
+    /**
+     * Performs an equality check as described in {@link Annotation#equals(Object)}.
+     *
+     * @param other The object to compare
+     * @return Whether the given object is equal to this annotation or not
+     * @see Annotation#equals(Object)
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other instanceof GeneratedAnnotation && ((GeneratedAnnotation) other).schema == schema) {
+            return hashCode == ((GeneratedAnnotation) other).hashCode
+                    && Arrays.deepEquals(values, ((GeneratedAnnotation) other).values);
+        }
+        if (!schema.accessors.type.isInstance(other)) {
+            return false;
+        }
+        return schema.accessors.valuesEqual(values, (Annotation) other);
+    }
+
+    /**
+     * Returns the hash code of this annotation as described in {@link Annotation#hashCode()}.
+     *
+     * @return The hash code of this annotation.
+     * @see Annotation#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return schema.accessors.toString(values);
+    }
+
+    /**
+     * Replaces this annotation with its {@link SerializedForm} when it's serialized.
+     */
+    protected final Object writeReplace() throws ObjectStreamException {
+        String[] names = schema.accessors.names;
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            map.put(names[i], values[i]);
+        }
+        return new SerializedForm(schema.accessors.type, map);
+    }
+
+    /**
+     * The serialized form of a generated annotation.
+     */
+    private static final class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final Class<? extends Annotation> annotationType;
+        private final Map<String, Object> values;
+
+        SerializedForm(Class<? extends Annotation> annotationType, Map<String, Object> values) {
+            this.annotationType = annotationType;
+            this.values = values;
+        }
+
+        /**
+         * Recreates the annotation, which goes through the same validation as any other created annotation.
+         */
+        private Object readResolve() throws ObjectStreamException {
+            try {
+                return CoreTypeUtils.INSTANCE.createAnnotation(annotationType, values);
+            } catch (AnnotationFormatException e) {
+                throw new InvalidObjectException(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The annotation type of a generated implementation, shared by all of its instances.
+     */
+    public static final class Schema {
+        final AnnotationAccessors accessors;
+
+        Schema(AnnotationAccessors accessors) {
+            this.accessors = accessors;
+        }
+    }
+}
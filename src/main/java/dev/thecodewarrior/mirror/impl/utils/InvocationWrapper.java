@@ -25,6 +25,38 @@ import java.lang.invoke.MethodHandle;
         return handle.invokeExact(obj, second);
     }
 
+    /*package-private*/ Object invoke(Object obj, Object second, Object third) throws Throwable {
+        return handle.invokeExact(obj, second, third);
+    }
+
+    /*package-private*/ Object invoke(Object obj, Object second, Object third, Object fourth) throws Throwable {
+        return handle.invokeExact(obj, second, third, fourth);
+    }
+
+    /*package-private*/ Object invoke(Object obj, Object second, Object third, Object fourth, Object fifth) throws Throwable {
+        return handle.invokeExact(obj, second, third, fourth, fifth);
+    }
+
+    /*package-private*/ Object invoke(Object obj, Object second, Object third, Object fourth, Object fifth,
+                                      Object sixth) throws Throwable {
+        return handle.invokeExact(obj, second, third, fourth, fifth, sixth);
+    }
+
+    /*package-private*/ Object invoke(Object obj, Object second, Object third, Object fourth, Object fifth,
+                                      Object sixth, Object seventh) throws Throwable {
+        return handle.invokeExact(obj, second, third, fourth, fifth, sixth, seventh);
+    }
+
+    /*package-private*/ Object invoke(Object obj, Object second, Object third, Object fourth, Object fifth,
+                                      Object sixth, Object seventh, Object eighth) throws Throwable {
+        return handle.invokeExact(obj, second, third, fourth, fifth, sixth, seventh, eighth);
+    }
+
+    /*package-private*/ Object invoke(Object obj, Object second, Object third, Object fourth, Object fifth,
+                                      Object sixth, Object seventh, Object eighth, Object ninth) throws Throwable {
+        return handle.invokeExact(obj, second, third, fourth, fifth, sixth, seventh, eighth, ninth);
+    }
+
     /*package-private*/ Object invokeArity(Object[] args) throws Throwable {
         return handle.invokeExact(args);
     }
@@ -0,0 +1,96 @@
+package dev.thecodewarrior.mirror.impl.utils;
+
+/**
+ * The fixed-arity functional interfaces used to invoke methods and constructors without spreading an argument array.
+ * These are implemented both by the wrappers created by {@link MethodHandleHelper} and by the classes generated by
+ * {@link LambdaMetafactoryHelper}. They have to be public because the generated classes are defined alongside the
+ * class declaring the target method, not in this package.
+ * <p>
+ * The arity includes the receiver for instance methods, so an instance method with two parameters is an
+ * {@link Invoker3}. The {@code Void} variants exist because {@code LambdaMetafactory} can't adapt a {@code void}
+ * return into an {@code Object}.
+ */
+public final class Invokers {
+    private Invokers() {
+    }
+
+    public interface Invoker0 {
+        Object invoke();
+    }
+
+    public interface Invoker1 {
+        Object invoke(Object arg0);
+    }
+
+    public interface Invoker2 {
+        Object invoke(Object arg0, Object arg1);
+    }
+
+    public interface Invoker3 {
+        Object invoke(Object arg0, Object arg1, Object arg2);
+    }
+
+    public interface Invoker4 {
+        Object invoke(Object arg0, Object arg1, Object arg2, Object arg3);
+    }
+
+    public interface Invoker5 {
+        Object invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4);
+    }
+
+    public interface Invoker6 {
+        Object invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5);
+    }
+
+    public interface Invoker7 {
+        Object invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5, Object arg6);
+    }
+
+    public interface Invoker8 {
+        Object invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5, Object arg6, Object arg7);
+    }
+
+    public interface Invoker9 {
+        Object invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5, Object arg6, Object arg7, Object arg8);
+    }
+
+    public interface VoidInvoker0 {
+        void invoke();
+    }
+
+    public interface VoidInvoker1 {
+        void invoke(Object arg0);
+    }
+
+    public interface VoidInvoker2 {
+        void invoke(Object arg0, Object arg1);
+    }
+
+    public interface VoidInvoker3 {
+        void invoke(Object arg0, Object arg1, Object arg2);
+    }
+
+    public interface VoidInvoker4 {
+        void invoke(Object arg0, Object arg1, Object arg2, Object arg3);
+    }
+
+    public interface VoidInvoker5 {
+        void invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4);
+    }
+
+    public interface VoidInvoker6 {
+        void invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5);
+    }
+
+    public interface VoidInvoker7 {
+        void invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5, Object arg6);
+    }
+
+    public interface VoidInvoker8 {
+        void invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5, Object arg6, Object arg7);
+    }
+
+    public interface VoidInvoker9 {
+        void invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4, Object arg5, Object arg6, Object arg7, Object arg8);
+    }
+}
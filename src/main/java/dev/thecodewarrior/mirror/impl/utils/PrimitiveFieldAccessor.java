@@ -0,0 +1,171 @@
+package dev.thecodewarrior.mirror.impl.utils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads and writes a field as a primitive without boxing. Each primitive kind gets its own exact-typed
+ * {@link MethodHandle}, which is created the first time that kind is used. Static fields are adapted to take a
+ * (ignored) receiver, so the same accessor methods work for both static and instance fields.
+ * <p>
+ * The legal conversions are the widening conversions documented on {@link dev.thecodewarrior.mirror.ArrayReflect}.
+ * For example, a {@code short} field can be read using {@link #getInt} and an {@code int} field can be written using
+ * {@link #setByte}, but not the other way around.
+ */
+@SuppressWarnings("Duplicates")
+public final class PrimitiveFieldAccessor {
+    private static final int BOOLEAN = 0;
+    private static final int BYTE = 1;
+    private static final int CHAR = 2;
+    private static final int SHORT = 3;
+    private static final int INT = 4;
+    private static final int LONG = 5;
+    private static final int FLOAT = 6;
+    private static final int DOUBLE = 7;
+
+    private final Field field;
+    private final boolean isStatic;
+    private final MethodHandle[] getters = new MethodHandle[8];
+    private final MethodHandle[] setters = new MethodHandle[8];
+
+    /**
+     * The field should already be accessible
+     */
+    public PrimitiveFieldAccessor(Field field) {
+        this.field = field;
+        this.isStatic = Modifier.isStatic(field.getModifiers());
+    }
+
+    //region getters
+
+    public boolean getBoolean(Object receiver) throws Throwable {
+        return (boolean) getter(BOOLEAN, boolean.class).invokeExact(receiver);
+    }
+
+    public byte getByte(Object receiver) throws Throwable {
+        return (byte) getter(BYTE, byte.class).invokeExact(receiver);
+    }
+
+    public char getChar(Object receiver) throws Throwable {
+        return (char) getter(CHAR, char.class).invokeExact(receiver);
+    }
+
+    public short getShort(Object receiver) throws Throwable {
+        return (short) getter(SHORT, short.class).invokeExact(receiver);
+    }
+
+    public int getInt(Object receiver) throws Throwable {
+        return (int) getter(INT, int.class).invokeExact(receiver);
+    }
+
+    public long getLong(Object receiver) throws Throwable {
+        return (long) getter(LONG, long.class).invokeExact(receiver);
+    }
+
+    public float getFloat(Object receiver) throws Throwable {
+        return (float) getter(FLOAT, float.class).invokeExact(receiver);
+    }
+
+    public double getDouble(Object receiver) throws Throwable {
+        return (double) getter(DOUBLE, double.class).invokeExact(receiver);
+    }
+
+    //endregion
+
+    //region setters
+
+    public void setBoolean(Object receiver, boolean value) throws Throwable {
+        setter(BOOLEAN, boolean.class).invokeExact(receiver, value);
+    }
+
+    public void setByte(Object receiver, byte value) throws Throwable {
+        setter(BYTE, byte.class).invokeExact(receiver, value);
+    }
+
+    public void setChar(Object receiver, char value) throws Throwable {
+        setter(CHAR, char.class).invokeExact(receiver, value);
+    }
+
+    public void setShort(Object receiver, short value) throws Throwable {
+        setter(SHORT, short.class).invokeExact(receiver, value);
+    }
+
+    public void setInt(Object receiver, int value) throws Throwable {
+        setter(INT, int.class).invokeExact(receiver, value);
+    }
+
+    public void setLong(Object receiver, long value) throws Throwable {
+        setter(LONG, long.class).invokeExact(receiver, value);
+    }
+
+    public void setFloat(Object receiver, float value) throws Throwable {
+        setter(FLOAT, float.class).invokeExact(receiver, value);
+    }
+
+    public void setDouble(Object receiver, double value) throws Throwable {
+        setter(DOUBLE, double.class).invokeExact(receiver, value);
+    }
+
+    //endregion
+
+    //region handles
+
+    // racing to create a handle is harmless, since method handles are immutable and any two are equivalent
+    private MethodHandle getter(int kind, Class<?> type) throws IllegalAccessException {
+        MethodHandle handle = getters[kind];
+        if (handle == null) {
+            if (!isWidening(field.getType(), type))
+                throw conversionError("get", "as", type);
+            handle = MethodHandles.publicLookup().unreflectGetter(field);
+            if (isStatic)
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            handle = handle.asType(MethodType.methodType(type, Object.class));
+            getters[kind] = handle;
+        }
+        return handle;
+    }
+
+    private MethodHandle setter(int kind, Class<?> type) throws IllegalAccessException {
+        MethodHandle handle = setters[kind];
+        if (handle == null) {
+            if (!isWidening(type, field.getType()))
+                throw conversionError("set", "from", type);
+            handle = MethodHandles.publicLookup().unreflectSetter(field);
+            if (isStatic)
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            handle = handle.asType(MethodType.methodType(void.class, Object.class, type));
+            setters[kind] = handle;
+        }
+        return handle;
+    }
+
+    private IllegalArgumentException conversionError(String operation, String preposition, Class<?> type) {
+        return new IllegalArgumentException("Can not " + operation + " " + field.getType().getName() + " field " +
+                field.getDeclaringClass().getName() + "." + field.getName() + " " + preposition + " " + type.getName());
+    }
+
+    //endregion
+
+    /**
+     * Returns true if the primitive type {@code from} is identical to or can be widened to the primitive type
+     * {@code to}. Non-primitive types are never legal.
+     */
+    private static boolean isWidening(Class<?> from, Class<?> to) {
+        if (from == to)
+            return from.isPrimitive();
+        if (from == byte.class)
+            return to == short.class || to == int.class || to == long.class || to == float.class || to == double.class;
+        if (from == char.class || from == short.class)
+            return to == int.class || to == long.class || to == float.class || to == double.class;
+        if (from == int.class)
+            return to == long.class || to == float.class || to == double.class;
+        if (from == long.class)
+            return to == float.class || to == double.class;
+        if (from == float.class)
+            return to == double.class;
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.member.ExecutableMirror
+import dev.thecodewarrior.mirror.member.FieldMirror
+import dev.thecodewarrior.mirror.member.ParameterMirror
+import dev.thecodewarrior.mirror.type.TypeMirror
+
+/**
+ * A snapshot of the statistics for each of Mirror's caches.
+ *
+ * @see Mirror.cacheStats
+ */
+public class MirrorCacheStats internal constructor(
+    /**
+     * Type mirrors and their specializations
+     */
+    public val types: CacheStats<TypeMirror>,
+    /**
+     * Method and constructor mirrors and their specializations
+     */
+    public val executables: CacheStats<ExecutableMirror>,
+    /**
+     * Field mirrors and their specializations
+     */
+    public val fields: CacheStats<FieldMirror>,
+    /**
+     * Parameter mirrors and their specializations
+     */
+    public val parameters: CacheStats<ParameterMirror>,
+    /**
+     * The helpers used to implement annotations' `toString` methods. These are never specialized.
+     */
+    public val annotationStrings: CacheStats<Nothing>
+) {
+    override fun toString(): String {
+        return "MirrorCacheStats(types=$types, executables=$executables, fields=$fields, parameters=$parameters, " +
+            "annotationStrings=$annotationStrings)"
+    }
+}
+
+/**
+ * A snapshot of the statistics for one of Mirror's caches. The counters include both the raw and specialized
+ * entries, and are cumulative since the cache was created.
+ *
+ * @param T The type of the cached raw mirrors
+ */
+public class CacheStats<T> internal constructor(
+    /**
+     * The number of lookups that found an existing mirror
+     */
+    public val hits: Long,
+    /**
+     * The number of lookups that had to build a new mirror
+     */
+    public val misses: Long,
+    /**
+     * The number of mirrors that were built and stored. This will be lower than [misses] when threads race to build
+     * the same mirror, since only one of them is kept.
+     */
+    public val creations: Long,
+    /**
+     * The total time spent building mirrors, in nanoseconds. Building a mirror may look up others, so this overlaps
+     * with the build time of other caches.
+     */
+    public val buildNanos: Long,
+    /**
+     * The current number of raw entries
+     */
+    public val rawSize: Int,
+    /**
+     * The current number of specialized entries
+     */
+    public val specializedSize: Int,
+    /**
+     * The raw mirrors that currently have specializations, along with the number of specializations, sorted from the
+     * most specialized to the least specialized.
+     */
+    public val mostSpecialized: List<SpecializationCount<T>>
+) {
+    /**
+     * The fraction of lookups that found an existing mirror, or NaN if there haven't been any lookups
+     */
+    public val hitRate: Double
+        get() = hits.toDouble() / (hits + misses)
+
+    override fun toString(): String {
+        return "CacheStats(hits=$hits, misses=$misses, creations=$creations, buildNanos=$buildNanos, " +
+            "rawSize=$rawSize, specializedSize=$specializedSize)"
+    }
+}
+
+/**
+ * The number of specializations of a raw mirror
+ */
+public class SpecializationCount<T> internal constructor(
+    public val raw: T,
+    public val count: Int
+) {
+    override fun toString(): String {
+        return "$count * $raw"
+    }
+}
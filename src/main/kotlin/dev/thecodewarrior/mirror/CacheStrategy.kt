@@ -0,0 +1,25 @@
+package dev.thecodewarrior.mirror
+
+/**
+ * The strategies Mirror can use to hold on to the mirrors it has created.
+ *
+ * @see Mirror.cacheStrategy
+ */
+public enum class CacheStrategy {
+    /**
+     * Hold every mirror strongly in global maps. Lookups are as cheap as possible, but any class that has been
+     * reflected will never be unloaded.
+     */
+    STRONG,
+
+    /**
+     * Store each mirror alongside a class it refers to using a [ClassValue], so mirrors of a class are collected along
+     * with it once its class loader becomes unreachable, without any explicit call.
+     *
+     * Mirrors that refer to classes from several class loaders (e.g. `List<PluginType>`) are stored alongside the
+     * class whose loader is furthest from the bootstrap loader, so they are collected with the most short-lived
+     * loader involved. If two unrelated loaders are involved, the mirror keeps the classes of one alive until the
+     * other is unloaded. Lookups are somewhat slower than with [STRONG], since the owning class has to be found first.
+     */
+    WEAK
+}
@@ -3,6 +3,10 @@
  */
 package dev.thecodewarrior.mirror
 
+import dev.thecodewarrior.mirror.member.FieldMirror
+import dev.thecodewarrior.mirror.member.MemberMirror
+import dev.thecodewarrior.mirror.member.MethodMirror
+import dev.thecodewarrior.mirror.member.ParameterMirror
 import dev.thecodewarrior.mirror.type.ClassMirror
 import dev.thecodewarrior.mirror.type.TypeMirror
 import dev.thecodewarrior.mirror.type.TypeSpecificityComparator
@@ -31,4 +35,40 @@ public inline fun <reified T> ClassMirror.findSuperclass(): ClassMirror? {
 public inline fun <reified T> ClassMirror.getSuperclass(): ClassMirror {
     return getSuperclass(T::class.java)
 }
+
+/**
+ * The methods, fields, and constructors of this class that have an annotation of type [T] present.
+ *
+ * @see ClassMirror.annotatedMembers
+ */
+public inline fun <reified T: Annotation> ClassMirror.annotatedMembers(includeInherited: Boolean = false): List<MemberMirror> {
+    return annotatedMembers(T::class.java, includeInherited)
+}
+
+/**
+ * The methods of this class that have an annotation of type [T] present.
+ *
+ * @see ClassMirror.annotatedMethods
+ */
+public inline fun <reified T: Annotation> ClassMirror.annotatedMethods(includeInherited: Boolean = false): List<MethodMirror> {
+    return annotatedMethods(T::class.java, includeInherited)
+}
+
+/**
+ * The fields of this class that have an annotation of type [T] present.
+ *
+ * @see ClassMirror.annotatedFields
+ */
+public inline fun <reified T: Annotation> ClassMirror.annotatedFields(includeInherited: Boolean = false): List<FieldMirror> {
+    return annotatedFields(T::class.java, includeInherited)
+}
+
+/**
+ * The parameters of this class's methods and constructors that have an annotation of type [T] present.
+ *
+ * @see ClassMirror.annotatedParameters
+ */
+public inline fun <reified T: Annotation> ClassMirror.annotatedParameters(includeInherited: Boolean = false): List<ParameterMirror> {
+    return annotatedParameters(T::class.java, includeInherited)
+}
 //endregion
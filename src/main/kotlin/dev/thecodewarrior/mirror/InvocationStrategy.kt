@@ -0,0 +1,25 @@
+package dev.thecodewarrior.mirror
+
+/**
+ * The strategies Mirror can use to invoke methods and constructors.
+ *
+ * @see Mirror.invocationStrategy
+ */
+public enum class InvocationStrategy {
+    /**
+     * Invoke members using a [MethodHandle][java.lang.invoke.MethodHandle] adapted to accept an array of arguments.
+     * This works for every member, but the JIT can't inline through the adapted handle.
+     */
+    METHOD_HANDLE,
+
+    /**
+     * Invoke members using a class generated for each member with
+     * [LambdaMetafactory][java.lang.invoke.LambdaMetafactory], which the JIT can inline like a direct call.
+     *
+     * A class can't be generated for every member (e.g. if the member's class loader can't see Mirror, if its
+     * package isn't open to Mirror, or if it has more than 8 parameters), in which case [METHOD_HANDLE] is used
+     * instead. Note that generated classes don't apply widening conversions to boxed primitive arguments, so a boxed
+     * primitive has to be the exact wrapper type of its parameter.
+     */
+    GENERATED
+}
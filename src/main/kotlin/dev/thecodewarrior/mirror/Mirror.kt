@@ -3,7 +3,9 @@ package dev.thecodewarrior.mirror
 import dev.thecodewarrior.mirror.impl.coretypes.AnnotationFormatException
 import dev.thecodewarrior.mirror.impl.coretypes.CoreTypeUtils
 import dev.thecodewarrior.mirror.impl.coretypes.TypeImplAccess
+import dev.thecodewarrior.mirror.impl.MetadataSnapshot
 import dev.thecodewarrior.mirror.impl.MirrorCache
+import dev.thecodewarrior.mirror.impl.Preloader
 import dev.thecodewarrior.mirror.member.ConstructorMirror
 import dev.thecodewarrior.mirror.member.ExecutableMirror
 import dev.thecodewarrior.mirror.member.FieldMirror
@@ -14,32 +16,213 @@ import dev.thecodewarrior.mirror.type.TypeMirror
 import dev.thecodewarrior.mirror.type.VoidMirror
 import dev.thecodewarrior.mirror.impl.utils.IndirectTests
 import dev.thecodewarrior.mirror.impl.utils.Untested
+import java.io.IOException
 import java.lang.reflect.AnnotatedType
 import java.lang.reflect.Constructor
 import java.lang.reflect.Executable
 import java.lang.reflect.Field
 import java.lang.reflect.Method
 import java.lang.reflect.Type
+import java.nio.file.Path
 
 /**
  * The central class used to retrieve mirrors of Core Reflection objects
  */
 public object Mirror {
-    // these instances are replaced by the unit tests using reflection. `types` isn't a `var` with a private setter
-    // because if it was IDEA would mark it as mutable with an underline, which is incorrect and gets irritating
-    private var cache = MirrorCache()
-    private var _types = createTypes()
-    private fun createTypes(): Types {
-        val c = Types::class.java.getDeclaredConstructor()
-        c.isAccessible = true
-        return c.newInstance()
+    /**
+     * The cache and the [Types] created from it. Replacing the cache replaces the whole state in a single volatile
+     * write, so other threads see the new cache and its types together.
+     */
+    private class State(val cache: MirrorCache) {
+        val types: Types = Types(cache)
     }
 
+    // this instance is replaced by the unit tests using reflection
+    @Volatile
+    private var state = State(MirrorCache())
+    private val cache: MirrorCache get() = state.cache
+
     /**
      * Easy access to core Java types (void + primitives + Object)
      */
     @JvmStatic
-    public val types: Types get() = _types
+    public val types: Types get() = state.types
+
+    /**
+     * The strategy used to invoke methods and constructors. This defaults to [InvocationStrategy.METHOD_HANDLE].
+     *
+     * The strategy is applied the first time a member is called, so changing it won't affect members that have
+     * already been called.
+     */
+    @JvmStatic
+    public var invocationStrategy: InvocationStrategy
+        get() = cache.invocationStrategy
+        set(value) {
+            cache.invocationStrategy = value
+        }
+
+    /**
+     * How Mirror holds on to the mirrors it has created. This defaults to [CacheStrategy.STRONG].
+     *
+     * Changing the strategy discards every cached mirror, so it should be set once during startup. Mirrors retrieved
+     * before the change must not be mixed with mirrors retrieved after it.
+     */
+    @JvmStatic
+    public var cacheStrategy: CacheStrategy
+        get() = cache.strategy
+        set(value) {
+            if(value == cache.strategy)
+                return
+            replaceCache(MirrorCache(cache.config.copy(cacheStrategy = value)))
+        }
+
+    /**
+     * The maximum number of specialized mirrors (e.g. `List<String>` or a method of `List<String>`) Mirror will keep
+     * in each of its specialization caches. This defaults to [Int.MAX_VALUE], which means there is no limit. Raw
+     * mirrors are never limited.
+     *
+     * Once the limit is reached the least recently used specializations stop being held by the cache. They are
+     * recreated when requested again, but only once they're no longer referenced anywhere else, so it's always safe to
+     * compare specializations by identity.
+     *
+     * With [CacheStrategy.WEAK] the limit applies separately to the specializations owned by each class (usually the
+     * class from the most specific class loader they refer to), so the cache never holds a class loader's
+     * specializations once nothing else references its classes.
+     *
+     * Changing the size discards every cached mirror, so it should be set once during startup. Mirrors retrieved
+     * before the change must not be mixed with mirrors retrieved after it.
+     */
+    @JvmStatic
+    public var specializationCacheSize: Int
+        get() = cache.specializationCacheSize
+        set(value) {
+            require(value > 0) { "The specialization cache size must be positive, not $value" }
+            if(value == cache.specializationCacheSize)
+                return
+            replaceCache(MirrorCache(cache.config.copy(specializationCacheSize = value)))
+        }
+
+    /**
+     * Whether Mirror interns the annotations created using [newAnnotation] and the type annotations of the mirrors it
+     * specializes, so equal annotations are the same instance. This defaults to false. See
+     * [MirrorConfig.internAnnotations] for details.
+     *
+     * Changing this discards every cached mirror, so it should be set once during startup. Mirrors retrieved before
+     * the change must not be mixed with mirrors retrieved after it.
+     */
+    @JvmStatic
+    public var internAnnotations: Boolean
+        get() = cache.internAnnotations
+        set(value) {
+            if(value == cache.internAnnotations)
+                return
+            replaceCache(MirrorCache(cache.config.copy(internAnnotations = value)))
+        }
+
+    private fun replaceCache(newCache: MirrorCache) {
+        val cache = this.cache
+        newCache.invocationStrategy = cache.invocationStrategy
+        newCache.snapshot = cache.snapshot
+        state = State(newCache)
+    }
+
+    /**
+     * Creates a new, isolated [MirrorContext] with its own caches and configuration. Mirrors from the new context are
+     * distinct from the mirrors returned by [Mirror] itself, and from every other context, and must not be mixed with
+     * them.
+     */
+    @JvmStatic
+    @JvmOverloads
+    public fun newContext(config: MirrorConfig = MirrorConfig()): MirrorContext {
+        return MirrorContext(MirrorCache(config))
+    }
+
+    /**
+     * Removes every cached mirror that refers to a class defined by the passed class loader. This includes raw mirrors
+     * of its classes and their members, as well as specializations that only refer to one of its classes in their type
+     * arguments, enclosing types, or type annotations.
+     *
+     * Evicted mirrors aren't invalidated, so any references to them will continue to work, however reflecting the
+     * same element again will create a new mirror, so evicted mirrors must not be mixed with new ones.
+     */
+    @JvmStatic
+    public fun evict(loader: ClassLoader) {
+        cache.evict(loader)
+    }
+
+    /**
+     * Removes every cached mirror that refers to the passed class. This includes the raw mirrors of the class and its
+     * members, as well as specializations that only refer to the class in their type arguments, enclosing types, or
+     * type annotations.
+     *
+     * Evicted mirrors aren't invalidated, so any references to them will continue to work, however reflecting the
+     * same element again will create a new mirror, so evicted mirrors must not be mixed with new ones.
+     */
+    @JvmStatic
+    public fun evict(clazz: Class<*>) {
+        cache.evict(clazz)
+    }
+
+    /**
+     * Takes a snapshot of the statistics for each of Mirror's caches. The counters are always enabled and are cheap
+     * to update, however taking a snapshot has to walk every cache entry, so it shouldn't be done frequently.
+     *
+     * Replacing the cache (e.g. by changing [cacheStrategy]) resets the statistics.
+     */
+    @JvmStatic
+    public fun cacheStats(): MirrorCacheStats {
+        return cache.stats()
+    }
+
+    /**
+     * Preloads the passed classes in parallel, resolving their lazily computed information ahead of time. Depending
+     * on the [options], this includes their supertypes, their method, field, constructor, and member class lists, and
+     * the parameter, return, and field types of their members.
+     *
+     * Classes that fail to load (e.g. because a referenced class is missing) are reported in
+     * [PreloadReport.failures] instead of stopping the preload.
+     *
+     * @return A report of the time spent on each class and any failures
+     */
+    @JvmStatic
+    @JvmOverloads
+    public fun preload(classes: Collection<Class<*>>, options: PreloadOptions = PreloadOptions()): PreloadReport {
+        return Preloader(cache, options).preload(classes)
+    }
+
+    /**
+     * Writes a snapshot of the method metadata of every raw class mirror currently cached, computing it if
+     * necessary. Loading the snapshot using [loadSnapshot] on a later run lets those classes skip the expensive
+     * inheritance and override calculations.
+     *
+     * @return The number of classes that were written
+     * @throws IOException if the file can't be written
+     */
+    @JvmStatic
+    @Throws(IOException::class)
+    public fun writeSnapshot(path: Path): Int {
+        return MetadataSnapshot.write(path, cache.types.rawClassMirrors())
+    }
+
+    /**
+     * Loads a metadata snapshot previously written by [writeSnapshot]. The file is memory-mapped, and raw class
+     * mirrors created afterward will rebuild their inherited methods, their method lists, and their methods'
+     * overrides from the snapshot instead of computing them, as long as neither the class nor any of its supertypes
+     * has changed since the snapshot was written.
+     *
+     * Specialized mirrors, and classes whose bytes aren't available (e.g. generated classes), always compute their
+     * methods normally.
+     *
+     * @return The number of classes in the snapshot
+     * @throws IOException if the file can't be read or isn't a metadata snapshot
+     */
+    @JvmStatic
+    @Throws(IOException::class)
+    public fun loadSnapshot(path: Path): Int {
+        val snapshot = MetadataSnapshot.load(path)
+        cache.snapshot = snapshot
+        return snapshot.size
+    }
 
     /**
      * Gets the type mirror representing the passed type
@@ -161,7 +344,8 @@ public object Mirror {
     }
 
     /**
-     * Dynamically creates a new annotation instance.
+     * Dynamically creates a new annotation instance. If [internAnnotations] is enabled, equal annotations will be the
+     * same instance.
      *
      * @throws AnnotationFormatException if the [clazz] isn't an annotation class
      * @throws AnnotationFormatException if any required annotation values are missing from the passed map
@@ -171,7 +355,7 @@ public object Mirror {
     @JvmOverloads
     @IndirectTests("via the <reified T> newAnnotation(pairs)")
     public fun <T: Annotation> newAnnotation(clazz: Class<T>, arguments: Map<String, Any> = emptyMap()): T {
-        return CoreTypeUtils.createAnnotation(clazz, arguments)
+        return cache.annotations.intern(CoreTypeUtils.createAnnotation(clazz, arguments))
     }
 
     /**
@@ -255,9 +439,9 @@ public object Mirror {
     /**
      * Easy access to core Java types (void + primitives + Object)
      */
-    public class Types private constructor() {
+    public class Types internal constructor(private val cache: MirrorCache) {
         /** The type mirror representing the `void` type */
-        public val void: VoidMirror = reflect(Void.TYPE) as VoidMirror
+        public val void: VoidMirror = cache.types.reflect(Void.TYPE) as VoidMirror
 
         /** The type mirror representing the primitive `boolean` type */
         public val boolean: ClassMirror = reflectClass(Boolean::class.javaPrimitiveType!!)
@@ -278,6 +462,8 @@ public object Mirror {
 
         /** The type mirror representing the `Object` type (`Any` in Kotlin) */
         @get:JvmName("getObject")
-        public val any: ClassMirror = reflectClass<Any>()
+        public val any: ClassMirror = reflectClass(Any::class.java)
+
+        private fun reflectClass(type: Class<*>): ClassMirror = cache.types.reflect(type) as ClassMirror
     }
 }
@@ -0,0 +1,79 @@
+package dev.thecodewarrior.mirror
+
+/**
+ * The configuration of a [MirrorContext]. Configurations are immutable, use [copy] to derive a new one.
+ *
+ * @see Mirror.newContext
+ */
+public class MirrorConfig @JvmOverloads constructor(
+    /**
+     * How the context holds on to the mirrors it has created
+     */
+    public val cacheStrategy: CacheStrategy = CacheStrategy.STRONG,
+    /**
+     * The initial strategy used to invoke methods and constructors. This can be changed later using
+     * [MirrorContext.invocationStrategy].
+     */
+    public val invocationStrategy: InvocationStrategy = InvocationStrategy.METHOD_HANDLE,
+    /**
+     * The maximum number of specialized mirrors the context will keep in each of its specialization caches, or
+     * [Int.MAX_VALUE] for no limit. See [Mirror.specializationCacheSize] for details.
+     */
+    public val specializationCacheSize: Int = Int.MAX_VALUE,
+    /**
+     * Whether the context counts cache hits, misses, and build times. When this is false, the counters in
+     * [MirrorContext.cacheStats] will always be zero, however the sizes will still be reported.
+     */
+    public val collectStats: Boolean = true,
+    /**
+     * Whether the context interns the annotations it creates using [MirrorContext.newAnnotation] and the type
+     * annotations of the mirrors it specializes, so equal annotations are the same instance. This saves memory and
+     * speeds up comparing specializations when the same annotations are used repeatedly, however the interned
+     * annotations are held for as long as the [cacheStrategy] allows.
+     */
+    public val internAnnotations: Boolean = false
+) {
+    init {
+        require(specializationCacheSize > 0) {
+            "The specialization cache size must be positive, not $specializationCacheSize"
+        }
+    }
+
+    /**
+     * Creates a copy of this configuration, replacing the passed values
+     */
+    @JvmSynthetic
+    public fun copy(
+        cacheStrategy: CacheStrategy = this.cacheStrategy,
+        invocationStrategy: InvocationStrategy = this.invocationStrategy,
+        specializationCacheSize: Int = this.specializationCacheSize,
+        collectStats: Boolean = this.collectStats,
+        internAnnotations: Boolean = this.internAnnotations
+    ): MirrorConfig {
+        return MirrorConfig(cacheStrategy, invocationStrategy, specializationCacheSize, collectStats, internAnnotations)
+    }
+
+    /** Creates a copy of this configuration with the passed cache strategy */
+    public fun withCacheStrategy(cacheStrategy: CacheStrategy): MirrorConfig = copy(cacheStrategy = cacheStrategy)
+
+    /** Creates a copy of this configuration with the passed invocation strategy */
+    public fun withInvocationStrategy(invocationStrategy: InvocationStrategy): MirrorConfig =
+        copy(invocationStrategy = invocationStrategy)
+
+    /** Creates a copy of this configuration with the passed specialization cache size */
+    public fun withSpecializationCacheSize(specializationCacheSize: Int): MirrorConfig =
+        copy(specializationCacheSize = specializationCacheSize)
+
+    /** Creates a copy of this configuration with stats collection enabled or disabled */
+    public fun withCollectStats(collectStats: Boolean): MirrorConfig = copy(collectStats = collectStats)
+
+    /** Creates a copy of this configuration with annotation interning enabled or disabled */
+    public fun withInternAnnotations(internAnnotations: Boolean): MirrorConfig =
+        copy(internAnnotations = internAnnotations)
+
+    override fun toString(): String {
+        return "MirrorConfig(cacheStrategy=$cacheStrategy, invocationStrategy=$invocationStrategy, " +
+            "specializationCacheSize=$specializationCacheSize, collectStats=$collectStats, " +
+            "internAnnotations=$internAnnotations)"
+    }
+}
@@ -0,0 +1,249 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.impl.MetadataSnapshot
+import dev.thecodewarrior.mirror.impl.MirrorCache
+import dev.thecodewarrior.mirror.impl.Preloader
+import dev.thecodewarrior.mirror.impl.coretypes.AnnotationFormatException
+import dev.thecodewarrior.mirror.impl.coretypes.CoreTypeUtils
+import dev.thecodewarrior.mirror.impl.coretypes.TypeImplAccess
+import dev.thecodewarrior.mirror.member.ConstructorMirror
+import dev.thecodewarrior.mirror.member.ExecutableMirror
+import dev.thecodewarrior.mirror.member.FieldMirror
+import dev.thecodewarrior.mirror.member.MethodMirror
+import dev.thecodewarrior.mirror.type.ArrayMirror
+import dev.thecodewarrior.mirror.type.ClassMirror
+import dev.thecodewarrior.mirror.type.TypeMirror
+import java.io.IOException
+import java.lang.reflect.AnnotatedType
+import java.lang.reflect.Constructor
+import java.lang.reflect.Executable
+import java.lang.reflect.Field
+import java.lang.reflect.Method
+import java.lang.reflect.Type
+import java.nio.file.Path
+
+/**
+ * An isolated set of mirror caches with its own configuration and lifetime. This has the same reflection methods as
+ * [Mirror], but every mirror it returns is distinct from the mirrors of [Mirror] and of every other context.
+ *
+ * Mirrors from different contexts must not be mixed. Specializing a mirror using one from another context (e.g.
+ * passing it to [ClassMirror.withTypeArguments]) will throw an [IllegalArgumentException].
+ *
+ * Once a context is no longer referenced it can be collected along with all of its mirrors.
+ *
+ * @see Mirror.newContext
+ */
+public class MirrorContext internal constructor(private val cache: MirrorCache) {
+    /**
+     * The configuration this context was created with
+     */
+    public val config: MirrorConfig get() = cache.config
+
+    /**
+     * Easy access to core Java types (void + primitives + Object)
+     */
+    public val types: Mirror.Types = Mirror.Types(cache)
+
+    /**
+     * The strategy used to invoke methods and constructors. This defaults to [MirrorConfig.invocationStrategy].
+     *
+     * The strategy is applied the first time a member is called, so changing it won't affect members that have
+     * already been called.
+     */
+    public var invocationStrategy: InvocationStrategy
+        get() = cache.invocationStrategy
+        set(value) {
+            cache.invocationStrategy = value
+        }
+
+    /**
+     * Takes a snapshot of the statistics for each of this context's caches.
+     *
+     * @see Mirror.cacheStats
+     */
+    public fun cacheStats(): MirrorCacheStats {
+        return cache.stats()
+    }
+
+    /**
+     * Removes every mirror in this context that refers to a class defined by the passed class loader.
+     *
+     * @see Mirror.evict
+     */
+    public fun evict(loader: ClassLoader) {
+        cache.evict(loader)
+    }
+
+    /**
+     * Removes every mirror in this context that refers to the passed class.
+     *
+     * @see Mirror.evict
+     */
+    public fun evict(clazz: Class<*>) {
+        cache.evict(clazz)
+    }
+
+    /**
+     * Preloads the passed classes in parallel.
+     *
+     * @see Mirror.preload
+     */
+    @JvmOverloads
+    public fun preload(classes: Collection<Class<*>>, options: PreloadOptions = PreloadOptions()): PreloadReport {
+        return Preloader(cache, options).preload(classes)
+    }
+
+    /**
+     * Writes a snapshot of the method metadata of every raw class mirror currently cached in this context.
+     *
+     * @see Mirror.writeSnapshot
+     */
+    @Throws(IOException::class)
+    public fun writeSnapshot(path: Path): Int {
+        return MetadataSnapshot.write(path, cache.types.rawClassMirrors())
+    }
+
+    /**
+     * Loads a metadata snapshot into this context.
+     *
+     * @see Mirror.loadSnapshot
+     */
+    @Throws(IOException::class)
+    public fun loadSnapshot(path: Path): Int {
+        val snapshot = MetadataSnapshot.load(path)
+        cache.snapshot = snapshot
+        return snapshot.size
+    }
+
+    /**
+     * Gets the type mirror representing the passed type
+     */
+    public fun reflect(type: Type): TypeMirror {
+        return cache.types.reflect(type)
+    }
+
+    /**
+     * Gets the type mirror representing the passed type
+     */
+    public fun reflect(type: TypeToken<*>): TypeMirror {
+        return cache.types.reflect(type.getAnnotated())
+    }
+
+    /**
+     * Gets the type mirror representing the passed annotated type
+     */
+    public fun reflect(type: AnnotatedType): TypeMirror {
+        return cache.types.reflect(type)
+    }
+
+    /**
+     * Gets the type mirror representing the specified type
+     */
+    public inline fun <reified T> reflect(): TypeMirror {
+        return reflect(typeToken<T>())
+    }
+
+    /**
+     * Gets the [ClassMirror] representing the passed annotated type. This is a convenience method for when the type
+     * is known to be a class, rather than an array, void, type variable, or wildcard.
+     *
+     * @throws IllegalArgumentException if the input type is an array, void, type variable, or wildcard
+     */
+    public fun reflectClass(token: TypeToken<*>): ClassMirror {
+        return reflectClass(token.getAnnotated())
+    }
+
+    /**
+     * Gets the [ClassMirror] representing the passed annotated type. This is a convenience method for when the type
+     * is known to be a class, rather than an array, void, type variable, or wildcard.
+     *
+     * @throws IllegalArgumentException if the input type is an array, void, type variable, or wildcard
+     */
+    public fun reflectClass(type: AnnotatedType): ClassMirror {
+        val reflected = reflect(type)
+        if(reflected is ClassMirror) {
+            return reflected
+        } else {
+            throw IllegalArgumentException("Passed type $reflected is not a class")
+        }
+    }
+
+    /**
+     * Gets the [ClassMirror] representing the passed type. This is a convenience method for when the type is known
+     * to be a class, rather than an array, void, type variable, or wildcard.
+     *
+     * @throws IllegalArgumentException if the input type is an array, void, type variable, or wildcard
+     */
+    public fun reflectClass(type: Type): ClassMirror {
+        val reflected = reflect(type)
+        if(reflected is ClassMirror) {
+            return reflected
+        } else {
+            throw IllegalArgumentException("Passed type $reflected is not a class")
+        }
+    }
+
+    /**
+     * Gets the [ClassMirror] representing the specified type. This is a convenience method for when the type is known
+     * to be a class, rather than an array or void.
+     *
+     * @throws IllegalArgumentException if the input type is an array or void
+     */
+    public inline fun <reified T> reflectClass(): ClassMirror {
+        if(T::class.java.isArray) throw IllegalArgumentException("reflectClass cannot reflect an array type")
+        if(T::class.java == Void.TYPE) throw IllegalArgumentException("reflectClass cannot reflect the void type")
+        return reflect<T>() as ClassMirror
+    }
+
+    /**
+     * Gets the field mirror representing the passed field
+     */
+    public fun reflect(field: Field): FieldMirror {
+        return cache.fields.reflect(field)
+    }
+
+    /**
+     * Gets the method mirror representing the passed method
+     */
+    public fun reflect(method: Method): MethodMirror {
+        return cache.executables.reflect(method) as MethodMirror
+    }
+
+    /**
+     * Gets the constructor mirror representing the passed constructor
+     */
+    public fun reflect(constructor: Constructor<*>): ConstructorMirror {
+        return cache.executables.reflect(constructor) as ConstructorMirror
+    }
+
+    /**
+     * Gets the method or constructor mirror representing the passed method or constructor
+     */
+    public fun reflect(executable: Executable): ExecutableMirror {
+        return cache.executables.reflect(executable)
+    }
+
+    /**
+     * Dynamically creates a new annotation instance. If [MirrorConfig.internAnnotations] is enabled, equal annotations
+     * will be the same instance.
+     *
+     * @throws AnnotationFormatException if the [clazz] isn't an annotation class
+     * @throws AnnotationFormatException if any required annotation values are missing from the passed map
+     * @throws AnnotationFormatException if any values in the map have incompatible types with the attributes of the annotation
+     * @see Mirror.newAnnotation
+     */
+    @JvmOverloads
+    public fun <T: Annotation> newAnnotation(clazz: Class<T>, arguments: Map<String, Any> = emptyMap()): T {
+        return cache.annotations.intern(CoreTypeUtils.createAnnotation(clazz, arguments))
+    }
+
+    /**
+     * Create an array whose component type is the passed mirror
+     *
+     * @throws IllegalArgumentException if the passed mirror is from a different context
+     */
+    public fun createArrayType(type: TypeMirror): ArrayMirror {
+        cache.requireOwned(type)
+        return reflect(TypeImplAccess.createArrayType(type.coreAnnotatedType, emptyArray())) as ArrayMirror
+    }
+}
@@ -0,0 +1,80 @@
+package dev.thecodewarrior.mirror
+
+/**
+ * The options for [Mirror.preload]. Options are immutable, use [copy] to derive new ones.
+ */
+public class PreloadOptions @JvmOverloads constructor(
+    /**
+     * The number of threads to preload classes on
+     */
+    public val parallelism: Int = Runtime.getRuntime().availableProcessors(),
+    /**
+     * Whether to also preload the superclasses and interfaces of the passed classes. Supertypes shared by multiple
+     * classes are only preloaded once.
+     */
+    public val supertypes: Boolean = true,
+    /**
+     * Whether to preload the members of each class, including their parameter, return, and field types. When this
+     * is false only the class's own type information (e.g. its supertypes and type parameters) is resolved.
+     */
+    public val members: Boolean = true
+) {
+    init {
+        require(parallelism > 0) { "The parallelism must be positive, not $parallelism" }
+    }
+
+    /**
+     * Creates a copy of these options, replacing the passed values
+     */
+    @JvmSynthetic
+    public fun copy(
+        parallelism: Int = this.parallelism,
+        supertypes: Boolean = this.supertypes,
+        members: Boolean = this.members
+    ): PreloadOptions {
+        return PreloadOptions(parallelism, supertypes, members)
+    }
+
+    /** Creates a copy of these options with the passed parallelism */
+    public fun withParallelism(parallelism: Int): PreloadOptions = copy(parallelism = parallelism)
+
+    /** Creates a copy of these options with supertype preloading enabled or disabled */
+    public fun withSupertypes(supertypes: Boolean): PreloadOptions = copy(supertypes = supertypes)
+
+    /** Creates a copy of these options with member preloading enabled or disabled */
+    public fun withMembers(members: Boolean): PreloadOptions = copy(members = members)
+
+    override fun toString(): String {
+        return "PreloadOptions(parallelism=$parallelism, supertypes=$supertypes, members=$members)"
+    }
+}
+
+/**
+ * The result of [Mirror.preload]
+ */
+public class PreloadReport internal constructor(
+    /**
+     * The time spent preloading each class, in nanoseconds. This includes supertypes that were preloaded, but not
+     * classes that failed. A class's time doesn't include the time spent on its supertypes, unless they were
+     * being preloaded on another thread at the same time.
+     */
+    public val times: Map<Class<*>, Long>,
+    /**
+     * The classes that couldn't be preloaded, along with the exception that was thrown. A class that fails may still
+     * have been partially loaded.
+     */
+    public val failures: Map<Class<*>, Throwable>,
+    /**
+     * The total time the preload took, in nanoseconds
+     */
+    public val totalNanos: Long
+) {
+    /**
+     * The classes that were preloaded successfully, including supertypes
+     */
+    public val loaded: Set<Class<*>> get() = times.keys
+
+    override fun toString(): String {
+        return "PreloadReport(loaded=${times.size}, failed=${failures.size}, totalNanos=$totalNanos)"
+    }
+}
@@ -0,0 +1,42 @@
+package dev.thecodewarrior.mirror.impl
+
+/**
+ * Interns annotations when [MirrorConfig.internAnnotations][dev.thecodewarrior.mirror.MirrorConfig.internAnnotations]
+ * is enabled. Annotations are keyed by value (their annotation type and element values), so the first instance of each
+ * distinct annotation is returned for every equal annotation after it. Interned annotations are evicted along with
+ * their annotation type.
+ */
+internal class AnnotationInterner(private val mirrorCache: MirrorCache) {
+    private val cache = CacheTable.create<Annotation, Annotation>(mirrorCache) { key, visitor ->
+        visitor.visit(key.annotationClass.java)
+    }
+
+    /**
+     * Returns the interned instance equal to the passed annotation, or the passed annotation itself if interning is
+     * disabled.
+     */
+    fun <A: Annotation> intern(annotation: A): A {
+        if(!mirrorCache.internAnnotations)
+            return annotation
+        @Suppress("UNCHECKED_CAST")
+        return cache.getOrPut(annotation) { annotation } as A
+    }
+
+    /**
+     * Interns each annotation in the passed list, returning the passed list itself if interning is disabled or it
+     * only contains interned instances.
+     */
+    fun intern(annotations: List<Annotation>): List<Annotation> {
+        if(!mirrorCache.internAnnotations)
+            return annotations
+        var result: Array<Annotation>? = null
+        annotations.forEachIndexed { i, annotation ->
+            val interned = intern(annotation)
+            if(interned !== annotation && result == null) {
+                result = annotations.toTypedArray()
+            }
+            result?.set(i, interned)
+        }
+        return result?.asList() ?: annotations
+    }
+}
@@ -1,10 +1,12 @@
 package dev.thecodewarrior.mirror.impl
 
+import dev.thecodewarrior.mirror.CacheStats
 import dev.thecodewarrior.mirror.MirrorException
-import java.util.concurrent.ConcurrentHashMap
 
-internal class AnnotationStringsCache {
-    private val cache = ConcurrentHashMap<Class<*>, AnnotationStringsImpl>()
+internal class AnnotationStringsCache(mirrorCache: MirrorCache) {
+    private val cache = CacheTable.create<Class<*>, AnnotationStringsImpl>(mirrorCache) { key, visitor ->
+        visitor.visit(key)
+    }
 
     fun getStringConverter(type: Class<out Annotation>): AnnotationStringsImpl {
         @Suppress("UNCHECKED_CAST")
@@ -16,4 +18,6 @@ internal class AnnotationStringsCache {
         }
         return cache.getOrPut(annotationType) { AnnotationStringsImpl(annotationType, this) }
     }
-}
\ No newline at end of file
+
+    fun stats(): CacheStats<Nothing> = SpecializationTable.stats(cache, null)
+}
@@ -1,17 +1,18 @@
 package dev.thecodewarrior.mirror.impl
 
 import dev.thecodewarrior.mirror.impl.utils.MethodHandleHelper
+import dev.thecodewarrior.mirror.impl.utils.lockFreeLazy
 import java.lang.StringBuilder
 import java.lang.reflect.Method
 
 internal class AnnotationStringsImpl(val type: Class<out Annotation>, val cache: AnnotationStringsCache) {
-    private val parameters: List<ParameterStringConverter> by lazy {
+    private val parameters: List<ParameterStringConverter> by lockFreeLazy {
         type.declaredMethods.sortedBy { it.name }.map {
             ParameterStringConverter(it, cache)
         }
     }
 
-    private val isValueOnly: Boolean by lazy {
+    private val isValueOnly: Boolean by lockFreeLazy {
         parameters.size == 1 && parameters[0].name == "value"
     }
 
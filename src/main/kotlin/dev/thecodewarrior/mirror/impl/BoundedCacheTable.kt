@@ -0,0 +1,204 @@
+package dev.thecodewarrior.mirror.impl
+
+import dev.thecodewarrior.mirror.CacheStrategy
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+
+/**
+ * A cache table whose values are only held strongly while they're in a [Clock], which evicts the least recently used
+ * values once it's full. Each value's clock is chosen by [Clocks] when it's added, and may be shared between multiple
+ * tables, in which case the limit applies to all of them together.
+ *
+ * Values that have been evicted are still held weakly, so as long as some other object references them the same
+ * instance will be returned. This is important because mirrors are compared by identity, so a specialization may only
+ * be recreated once nothing can observe the old instance. Values are only held weakly by this table, so evicted values
+ * may also be kept alive by [CacheStrategy.WEAK][dev.thecodewarrior.mirror.CacheStrategy.WEAK] ownership rules, just
+ * not by the table itself.
+ *
+ * Lookups never lock. Adding a value, or re-adding a value that had been evicted but was still reachable, locks the
+ * clock.
+ */
+internal class BoundedCacheTable<K: Any, V: Any>(
+    cache: MirrorCache,
+    visitKey: (K, CacheKeys.ClassVisitor) -> Unit,
+    counters: Counters,
+    private val clocks: Clocks
+): CacheTable<K, V>(cache, visitKey, counters) {
+    private val refs = create<K, ValueRef<K, V>>(cache, visitKey = visitKey)
+    private val queue = ReferenceQueue<V>()
+
+    override fun get(key: K): V? {
+        val ref = refs.get(key) ?: return null
+        val value = ref.get() ?: return null
+        ref.clock.retain(ref, value)
+        return value
+    }
+
+    override fun getByProbe(probe: CacheKeys.Probe): V? {
+        val ref = refs.find(probe) ?: return null
+        val value = ref.get() ?: return null
+        ref.clock.retain(ref, value)
+        return value
+    }
+
+    override fun putIfAbsent(key: K, value: V): V? {
+        expungeStaleEntries()
+        val ref = ValueRef(key, value, queue, clocks.clockFor(key, visitKey))
+        while(true) {
+            val existing = refs.putIfAbsent(key, ref)
+            if(existing == null) {
+                ref.clock.retain(ref, value)
+                return null
+            }
+            val existingValue = existing.get()
+            if(existingValue != null) {
+                existing.clock.retain(existing, existingValue)
+                return existingValue
+            }
+            // the existing value was collected but hasn't been expunged yet
+            if(refs.replace(key, existing, ref)) {
+                ref.clock.retain(ref, value)
+                return null
+            }
+        }
+    }
+
+    override fun remove(key: K) {
+        val ref = refs.get(key) ?: return
+        refs.remove(key, ref)
+        ref.clock.release(ref)
+    }
+
+    override fun remove(key: K, value: V) {
+        val ref = refs.get(key) ?: return
+        if(ref.get() !== value)
+            return
+        refs.remove(key, ref)
+        ref.clock.release(ref)
+    }
+
+    override fun replace(key: K, oldValue: V, newValue: V): Boolean {
+        val ref = refs.get(key) ?: return false
+        if(ref.get() !== oldValue)
+            return false
+        val newRef = ValueRef(key, newValue, queue, ref.clock)
+        if(!refs.replace(key, ref, newRef))
+            return false
+        ref.clock.release(ref)
+        newRef.clock.retain(newRef, newValue)
+        return true
+    }
+
+    override fun keys(): List<K> {
+        return refs.keys().filter { refs.get(it)?.get() != null }
+    }
+
+    private fun expungeStaleEntries() {
+        while(true) {
+            @Suppress("UNCHECKED_CAST")
+            val ref = queue.poll() as ValueRef<K, V>? ?: break
+            refs.remove(ref.key, ref)
+        }
+    }
+
+    /**
+     * Chooses the [Clock] that retains each value, based on the cache's [CacheStrategy].
+     *
+     * With the strong strategy every value shares a single clock. With the weak strategy each owner class (see
+     * [CacheKeys.ownerOf]) gets its own clock, attached to it using a [ClassValue]. A shared clock would strongly hold
+     * specializations owned by any class loader, which would keep those loaders alive, so instead the clock is only
+     * reachable through the owner class and can be collected along with it. This means the limit applies to each
+     * owner class separately.
+     */
+    class Clocks(strategy: CacheStrategy, private val maxSize: Int) {
+        private val shared: Clock? = if(strategy == CacheStrategy.STRONG) Clock(maxSize) else null
+        private val owned = object: ClassValue<Clock>() {
+            override fun computeValue(type: Class<*>): Clock = Clock(maxSize)
+        }
+
+        init {
+            require(maxSize > 0) { "The maximum size must be positive, not $maxSize" }
+        }
+
+        fun <K: Any> clockFor(key: K, visitKey: (K, CacheKeys.ClassVisitor) -> Unit): Clock {
+            return shared ?: owned.get(CacheKeys.ownerOf { visitKey(key, it) })
+        }
+    }
+
+    /**
+     * Strongly holds at most [maxSize] values, evicting the least recently used ones using the CLOCK approximation of
+     * LRU.
+     */
+    class Clock(private val maxSize: Int) {
+        /**
+         * The retained values. A slot whose [ValueRef.retained] is null is free and will be reused.
+         */
+        private val slots = ArrayList<ValueRef<*, *>>()
+        private var hand = 0
+
+        init {
+            require(maxSize > 0) { "The maximum size must be positive, not $maxSize" }
+        }
+
+        /**
+         * Marks the value as recently used, adding it to the clock if it isn't already retained.
+         */
+        fun <V: Any> retain(ref: ValueRef<*, V>, value: V) {
+            if(ref.retained != null) {
+                // a benign race. at worst an entry misses one trip around the clock
+                if(!ref.used)
+                    ref.used = true
+                return
+            }
+            synchronized(slots) {
+                if(ref.retained != null)
+                    return
+                ref.retained = value
+                if(slots.size < maxSize) {
+                    slots.add(ref)
+                    return
+                }
+                while(true) {
+                    val current = slots[hand]
+                    if(current.retained == null || !current.used)
+                        break
+                    current.used = false
+                    hand = (hand + 1) % slots.size
+                }
+                slots[hand].retained = null
+                slots[hand] = ref
+                hand = (hand + 1) % slots.size
+            }
+        }
+
+        /**
+         * Stops retaining the passed value. Its slot in the clock will be reused.
+         */
+        fun release(ref: ValueRef<*, *>) {
+            synchronized(slots) {
+                ref.retained = null
+            }
+        }
+    }
+
+    class ValueRef<K: Any, V: Any>(
+        val key: K,
+        value: V,
+        queue: ReferenceQueue<V>,
+        /**
+         * The clock that retains the value
+         */
+        val clock: Clock
+    ): WeakReference<V>(value, queue) {
+        /**
+         * The strong reference to the value, which is non-null while the value is in the clock
+         */
+        @Volatile
+        var retained: V? = null
+
+        /**
+         * Whether the value has been used since the clock hand last passed it
+         */
+        var used: Boolean = false
+    }
+}
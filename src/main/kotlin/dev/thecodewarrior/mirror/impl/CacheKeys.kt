@@ -0,0 +1,219 @@
+package dev.thecodewarrior.mirror.impl
+
+import dev.thecodewarrior.mirror.impl.member.ExecutableSpecialization
+import dev.thecodewarrior.mirror.impl.type.TypeSpecialization
+import dev.thecodewarrior.mirror.member.ExecutableMirror
+import dev.thecodewarrior.mirror.member.FieldMirror
+import dev.thecodewarrior.mirror.member.ParameterMirror
+import dev.thecodewarrior.mirror.type.TypeMirror
+import java.lang.reflect.AnnotatedArrayType
+import java.lang.reflect.AnnotatedParameterizedType
+import java.lang.reflect.AnnotatedType
+import java.lang.reflect.AnnotatedWildcardType
+import java.lang.reflect.Executable
+import java.lang.reflect.GenericArrayType
+import java.lang.reflect.Member
+import java.lang.reflect.Parameter
+import java.lang.reflect.ParameterizedType
+import java.lang.reflect.Type
+import java.lang.reflect.TypeVariable
+import java.lang.reflect.WildcardType
+
+/**
+ * Finds the classes referenced by the keys of the [MirrorCache] tables. These are used to find the class an entry
+ * should be stored alongside when using [CacheStrategy.WEAK][dev.thecodewarrior.mirror.CacheStrategy.WEAK], and to
+ * find the entries that should be removed when a class or class loader is evicted.
+ *
+ * The classes are found by walking the key's structure, including type arguments, enclosing types, type variable
+ * declarations, and the types of any type annotations. A class may be visited more than once.
+ */
+internal object CacheKeys {
+    fun interface ClassVisitor {
+        fun visit(clazz: Class<*>)
+    }
+
+    /**
+     * A lookup key whose `hashCode` and `equals` are compatible with the keys of a table (see [CacheTable.find]). It
+     * visits the same classes as the equal key, so tables that store their entries by owner can find the right map.
+     */
+    interface Probe {
+        fun visit(visitor: ClassVisitor)
+    }
+
+    //region keys
+
+    /**
+     * Visits a raw type cache key, which is either a [Type] or a canonical [AnnotatedType]
+     */
+    fun visitTypeKey(key: Any, visitor: ClassVisitor) {
+        when(key) {
+            is AnnotatedType -> visit(key, visitor)
+            is Type -> visit(key, visitor)
+            else -> throw IllegalArgumentException("Unknown type key $key")
+        }
+    }
+
+    fun visitMember(member: Member, visitor: ClassVisitor) {
+        visitor.visit(member.declaringClass)
+    }
+
+    fun visitParameter(parameter: Parameter, visitor: ClassVisitor) {
+        visitor.visit(parameter.declaringExecutable.declaringClass)
+    }
+
+    fun visitSpecialization(raw: TypeMirror, specialization: TypeSpecialization, visitor: ClassVisitor) {
+        visit(raw.coreType, visitor)
+        visit(specialization.annotations, visitor)
+        when(specialization) {
+            is TypeSpecialization.Class -> {
+                specialization.arguments?.forEach { visit(it, visitor) }
+                specialization.enclosingClass?.also { visit(it, visitor) }
+                specialization.enclosingExecutable?.also { visit(it, visitor) }
+            }
+            is TypeSpecialization.Array -> {
+                specialization.component?.also { visit(it, visitor) }
+            }
+            is TypeSpecialization.Wildcard -> {
+                specialization.upperBounds?.forEach { visit(it, visitor) }
+                specialization.lowerBounds?.forEach { visit(it, visitor) }
+            }
+        }
+    }
+
+    /**
+     * Visits the same classes, in the same order, as [visitSpecialization] would for a copy of [base] with the passed
+     * arguments
+     */
+    fun visitSpecialization(
+        raw: TypeMirror,
+        base: TypeSpecialization.Class,
+        arguments: Array<out TypeMirror>,
+        visitor: ClassVisitor
+    ) {
+        visit(raw.coreType, visitor)
+        visit(base.annotations, visitor)
+        arguments.forEach { visit(it, visitor) }
+        base.enclosingClass?.also { visit(it, visitor) }
+        base.enclosingExecutable?.also { visit(it, visitor) }
+    }
+
+    fun visitSpecialization(raw: ExecutableMirror, specialization: ExecutableSpecialization, visitor: ClassVisitor) {
+        visitor.visit(raw.java.declaringClass)
+        specialization.enclosing?.also { visit(it, visitor) }
+        specialization.arguments?.forEach { visit(it, visitor) }
+    }
+
+    fun visitSpecialization(raw: FieldMirror, enclosing: TypeMirror, visitor: ClassVisitor) {
+        visitor.visit(raw.java.declaringClass)
+        visit(enclosing, visitor)
+    }
+
+    fun visitSpecialization(raw: ParameterMirror, executable: ExecutableMirror, visitor: ClassVisitor) {
+        visitor.visit(raw.java.declaringExecutable.declaringClass)
+        visit(executable, visitor)
+    }
+
+    //endregion
+
+    //region owners
+
+    /**
+     * Finds the class visited by [visit] whose class loader is the furthest from the bootstrap loader, since that
+     * loader is the most likely to be unloaded first. Every other loader the key refers to should be one of its
+     * ancestors, which will live at least as long. When multiple classes have the same depth the first one found wins,
+     * which for specializations is always the raw type's class.
+     */
+    fun ownerOf(visit: (ClassVisitor) -> Unit): Class<*> {
+        val finder = OwnerFinder()
+        visit(finder)
+        return finder.owner ?: Any::class.java
+    }
+
+    class OwnerFinder: ClassVisitor {
+        var owner: Class<*>? = null
+        private var ownerDepth: Int = 0
+
+        override fun visit(clazz: Class<*>) {
+            val owner = owner
+            if(owner == null) {
+                this.owner = clazz
+                ownerDepth = depth(clazz.classLoader)
+            } else if(owner.classLoader !== clazz.classLoader) {
+                val depth = depth(clazz.classLoader)
+                if(depth > ownerDepth) {
+                    this.owner = clazz
+                    ownerDepth = depth
+                }
+            }
+        }
+
+        private fun depth(loader: ClassLoader?): Int {
+            var depth = 0
+            var current = loader
+            while(current != null) {
+                depth++
+                current = current.parent
+            }
+            return depth
+        }
+    }
+
+    //endregion
+
+    //region visitors
+
+    private fun visit(mirror: TypeMirror, visitor: ClassVisitor) {
+        visit(mirror.coreAnnotatedType, visitor)
+    }
+
+    private fun visit(executable: ExecutableMirror, visitor: ClassVisitor) {
+        visitor.visit(executable.java.declaringClass)
+        visit(executable.declaringClass, visitor)
+        executable.typeParameters.forEach { visit(it, visitor) }
+    }
+
+    private fun visit(annotations: List<Annotation>, visitor: ClassVisitor) {
+        annotations.forEach { visitor.visit(it.annotationClass.java) }
+    }
+
+    private fun visit(type: AnnotatedType, visitor: ClassVisitor) {
+        type.annotations.forEach { visitor.visit(it.annotationClass.java) }
+        when(type) {
+            is AnnotatedParameterizedType -> {
+                visit((type.type as ParameterizedType).rawType, visitor)
+                (type.type as ParameterizedType).ownerType?.also { visit(it, visitor) }
+                type.annotatedActualTypeArguments.forEach { visit(it, visitor) }
+            }
+            is AnnotatedArrayType -> visit(type.annotatedGenericComponentType, visitor)
+            is AnnotatedWildcardType -> {
+                type.annotatedUpperBounds.forEach { visit(it, visitor) }
+                type.annotatedLowerBounds.forEach { visit(it, visitor) }
+            }
+            else -> visit(type.type, visitor)
+        }
+    }
+
+    private fun visit(type: Type, visitor: ClassVisitor) {
+        when(type) {
+            is Class<*> -> visitor.visit(type)
+            is ParameterizedType -> {
+                visit(type.rawType, visitor)
+                type.ownerType?.also { visit(it, visitor) }
+                type.actualTypeArguments.forEach { visit(it, visitor) }
+            }
+            is GenericArrayType -> visit(type.genericComponentType, visitor)
+            is WildcardType -> {
+                type.upperBounds.forEach { visit(it, visitor) }
+                type.lowerBounds.forEach { visit(it, visitor) }
+            }
+            is TypeVariable<*> -> {
+                when(val declaration = type.genericDeclaration) {
+                    is Class<*> -> visitor.visit(declaration)
+                    is Executable -> visitor.visit(declaration.declaringClass)
+                }
+            }
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,226 @@
+package dev.thecodewarrior.mirror.impl
+
+import dev.thecodewarrior.mirror.CacheStrategy
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.util.Collections
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+/**
+ * A single key-value table in a [MirrorCache]. How the entries are held depends on the cache's [CacheStrategy].
+ *
+ * @param visitKey Visits the classes referenced by a key (see [CacheKeys])
+ * @param counters The counters to update, which may be shared between tables
+ */
+internal abstract class CacheTable<K: Any, V: Any>(
+    protected val cache: MirrorCache,
+    val visitKey: (K, CacheKeys.ClassVisitor) -> Unit,
+    val counters: Counters
+) {
+    /**
+     * Gets the value for the passed key, creating and storing it using [create] if it's missing. As with
+     * [ConcurrentHashMap.getOrPut], [create] may be called multiple times when racing, but only one value will be
+     * stored and returned.
+     */
+    fun getOrPut(key: K, create: () -> V): V {
+        val collectStats = cache.collectStats
+        get(key)?.also {
+            if(collectStats)
+                counters.hits.increment()
+            return it
+        }
+        if(!collectStats) {
+            val value = create()
+            // index the key before it's visible, so an eviction can never miss it
+            val ref = cache.evictionIndex.register(this, key)
+            val existing = putIfAbsent(key, value)
+            ref.checkEvicted()
+            return existing ?: value
+        }
+        counters.misses.increment()
+        val start = System.nanoTime()
+        val value = create()
+        counters.buildNanos.add(System.nanoTime() - start)
+        val ref = cache.evictionIndex.register(this, key)
+        val existing = putIfAbsent(key, value)
+        ref.checkEvicted()
+        existing?.also { return it }
+        counters.creations.increment()
+        return value
+    }
+
+    /**
+     * Looks up a value using a probe instead of a real key, which lets callers avoid building a key just to find an
+     * existing value. If this returns null the caller should fall back to [getOrPut].
+     */
+    fun find(probe: CacheKeys.Probe): V? {
+        val value = getByProbe(probe) ?: return null
+        if(cache.collectStats)
+            counters.hits.increment()
+        return value
+    }
+
+    protected abstract fun getByProbe(probe: CacheKeys.Probe): V?
+
+    /**
+     * Returns a snapshot of the keys currently in this table
+     */
+    abstract fun keys(): List<K>
+
+    abstract fun get(key: K): V?
+    abstract fun putIfAbsent(key: K, value: V): V?
+
+    /**
+     * Removes the entry for the passed key, if it exists
+     */
+    abstract fun remove(key: K)
+
+    /**
+     * Removes the entry for the passed key only if it's currently mapped to [value]
+     */
+    abstract fun remove(key: K, value: V)
+
+    /**
+     * Replaces the entry for the passed key only if it's currently mapped to [oldValue]
+     */
+    abstract fun replace(key: K, oldValue: V, newValue: V): Boolean
+
+    companion object {
+        /**
+         * Creates a table for entries that should be kept for as long as the cache's [CacheStrategy] allows
+         */
+        fun <K: Any, V: Any> create(
+            cache: MirrorCache,
+            counters: Counters = Counters(),
+            visitKey: (K, CacheKeys.ClassVisitor) -> Unit
+        ): CacheTable<K, V> {
+            return when(cache.strategy) {
+                CacheStrategy.STRONG -> Strong(cache, visitKey, counters)
+                CacheStrategy.WEAK -> Weak(cache, visitKey, counters)
+            }
+        }
+    }
+
+    /**
+     * The statistics counters of one or more tables
+     */
+    class Counters {
+        /**
+         * The number of lookups that found an existing value
+         */
+        val hits = LongAdder()
+
+        /**
+         * The number of [getOrPut] calls that had to create a value
+         */
+        val misses = LongAdder()
+
+        /**
+         * The number of values created by [getOrPut] that were actually stored. This will be lower than [misses] when
+         * threads race to create the same value.
+         */
+        val creations = LongAdder()
+
+        /**
+         * The total time spent creating values in [getOrPut], including any nested lookups
+         */
+        val buildNanos = LongAdder()
+    }
+
+    /**
+     * Holds entries strongly in a single global map
+     */
+    private class Strong<K: Any, V: Any>(
+        cache: MirrorCache,
+        visitKey: (K, CacheKeys.ClassVisitor) -> Unit,
+        counters: Counters
+    ): CacheTable<K, V>(cache, visitKey, counters) {
+        private val map = ConcurrentHashMap<K, V>()
+
+        override fun get(key: K): V? = map[key]
+        @Suppress("UNCHECKED_CAST")
+        override fun getByProbe(probe: CacheKeys.Probe): V? = (map as Map<Any, V>)[probe]
+        override fun putIfAbsent(key: K, value: V): V? = map.putIfAbsent(key, value)
+
+        override fun remove(key: K) {
+            map.remove(key)
+        }
+
+        override fun remove(key: K, value: V) {
+            map.remove(key, value)
+        }
+
+        override fun replace(key: K, oldValue: V, newValue: V): Boolean = map.replace(key, oldValue, newValue)
+
+        override fun keys(): List<K> = map.keys.toList()
+    }
+
+    /**
+     * Holds entries in a map attached to their owner class using a [ClassValue]. The map is only reachable through
+     * the owner class, so it can be collected once the owner's class loader is unreachable.
+     */
+    private class Weak<K: Any, V: Any>(
+        cache: MirrorCache,
+        visitKey: (K, CacheKeys.ClassVisitor) -> Unit,
+        counters: Counters
+    ): CacheTable<K, V>(cache, visitKey, counters) {
+        private val maps = object: ClassValue<ConcurrentHashMap<K, V>>() {
+            override fun computeValue(type: Class<*>): ConcurrentHashMap<K, V> {
+                expungeStaleMaps()
+                val map = ConcurrentHashMap<K, V>()
+                allMaps.add(WeakReference(map, queue))
+                return map
+            }
+        }
+
+        /**
+         * Every map in [maps], which is only used to list the keys. These are weak so they don't keep the maps alive
+         * once their owner classes are unloaded, and references to collected maps are removed as new maps are created.
+         */
+        private val allMaps: MutableSet<WeakReference<ConcurrentHashMap<K, V>>> =
+            Collections.newSetFromMap(ConcurrentHashMap())
+        private val queue = ReferenceQueue<ConcurrentHashMap<K, V>>()
+
+        private fun expungeStaleMaps() {
+            while(true) {
+                val ref = queue.poll() ?: break
+                allMaps.remove(ref)
+            }
+        }
+
+        private fun mapFor(key: K): ConcurrentHashMap<K, V> {
+            return maps.get(CacheKeys.ownerOf { visitKey(key, it) })
+        }
+
+        override fun get(key: K): V? = mapFor(key)[key]
+        @Suppress("UNCHECKED_CAST")
+        override fun getByProbe(probe: CacheKeys.Probe): V? {
+            return (maps.get(CacheKeys.ownerOf { probe.visit(it) }) as Map<Any, V>)[probe]
+        }
+        override fun putIfAbsent(key: K, value: V): V? = mapFor(key).putIfAbsent(key, value)
+
+        override fun remove(key: K) {
+            mapFor(key).remove(key)
+        }
+
+        override fun remove(key: K, value: V) {
+            mapFor(key).remove(key, value)
+        }
+
+        override fun replace(key: K, oldValue: V, newValue: V): Boolean = mapFor(key).replace(key, oldValue, newValue)
+
+        override fun keys(): List<K> {
+            val keys = mutableListOf<K>()
+            val iter = allMaps.iterator()
+            for(ref in iter) {
+                val map = ref.get()
+                if(map == null)
+                    iter.remove()
+                else
+                    keys.addAll(map.keys)
+            }
+            return keys
+        }
+    }
+}
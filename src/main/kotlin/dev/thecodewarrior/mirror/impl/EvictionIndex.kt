@@ -0,0 +1,129 @@
+package dev.thecodewarrior.mirror.impl
+
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.util.Collections
+import java.util.WeakHashMap
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A reverse index from classes and class loaders to the [CacheTable] entries that refer to them, which lets an
+ * eviction remove exactly the affected entries instead of scanning every table.
+ *
+ * Every class referenced by a key (see [CacheKeys]) gets a reference to the entry, so an entry like `List<Foo>` is
+ * found when evicting either `List` or `Foo`. The index never holds keys or classes strongly, so it doesn't interfere
+ * with [CacheStrategy.WEAK][dev.thecodewarrior.mirror.CacheStrategy.WEAK]. Entries whose keys have been collected are
+ * cleaned out of the index as new entries are registered.
+ */
+internal class EvictionIndex {
+    private val queue = ReferenceQueue<Any>()
+
+    /**
+     * The classes with an entry set in [entries], grouped by their class loader. Both the loaders and the classes are
+     * held weakly.
+     */
+    private val classes = WeakHashMap<ClassLoader?, MutableSet<Class<*>>>()
+
+    private val entries = object: ClassValue<EntrySet>() {
+        override fun computeValue(type: Class<*>): EntrySet {
+            synchronized(classes) {
+                classes.getOrPut(type.classLoader) { Collections.newSetFromMap(WeakHashMap()) }.add(type)
+            }
+            return EntrySet()
+        }
+    }
+
+    /**
+     * Adds the passed key to the index of every class it refers to. The returned reference has to be
+     * [checked][EntryRef.checkEvicted] once the entry has been added to the table, in case one of its classes was
+     * evicted in the meantime.
+     */
+    fun <K: Any> register(table: CacheTable<K, *>, key: K): EntryRef {
+        expungeStaleEntries()
+        val sets = mutableListOf<EntrySet>()
+        table.visitKey(key) { clazz ->
+            val set = entries.get(clazz)
+            if(sets.none { it === set })
+                sets.add(set)
+        }
+        val ref = EntryRef(table, key, sets, queue)
+        sets.forEach { it.refs.add(ref) }
+        return ref
+    }
+
+    /**
+     * Removes every entry that refers to the passed class
+     */
+    fun evict(clazz: Class<*>) {
+        val indexed = synchronized(classes) {
+            classes[clazz.classLoader]?.remove(clazz) ?: false
+        }
+        // only classes that have been registered have a set, and looking one up would create it
+        if(indexed)
+            evictEntries(clazz)
+    }
+
+    /**
+     * Removes every entry that refers to a class defined by the passed loader
+     */
+    fun evict(loader: ClassLoader?) {
+        val loaderClasses = synchronized(classes) {
+            classes.remove(loader)?.toList()
+        } ?: return
+        loaderClasses.forEach { evictEntries(it) }
+    }
+
+    private fun evictEntries(clazz: Class<*>) {
+        val set = entries.get(clazz)
+        entries.remove(clazz)
+        set.evicted = true
+        set.refs.forEach { it.evict() }
+    }
+
+    private fun expungeStaleEntries() {
+        while(true) {
+            val ref = queue.poll() as EntryRef? ?: break
+            ref.unlink()
+        }
+    }
+
+    /**
+     * The entries referring to a single class. Once the class has been evicted the set is replaced in [entries], so
+     * [EntryRef.checkEvicted] uses [evicted] to detect registrations that raced with the eviction and added themselves
+     * to the old set after it was drained.
+     */
+    class EntrySet {
+        val refs: MutableSet<EntryRef> = Collections.newSetFromMap(ConcurrentHashMap())
+        @Volatile
+        var evicted: Boolean = false
+    }
+
+    /**
+     * A weak reference to a key, along with the table it's in and the index sets it was added to
+     */
+    class EntryRef(
+        private val table: CacheTable<*, *>,
+        key: Any,
+        private val sets: List<EntrySet>,
+        queue: ReferenceQueue<Any>
+    ): WeakReference<Any>(key, queue) {
+        fun unlink() {
+            sets.forEach { it.refs.remove(this) }
+        }
+
+        @Suppress("UNCHECKED_CAST")
+        fun evict() {
+            unlink()
+            get()?.also { (table as CacheTable<Any, *>).remove(it) }
+        }
+
+        /**
+         * Evicts the entry if any of the classes it refers to were evicted since it was registered. Either this sees
+         * the eviction, or the eviction sees this reference in its set, so the entry can't survive either way.
+         */
+        fun checkEvicted() {
+            if(sets.any { it.evicted })
+                evict()
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package dev.thecodewarrior.mirror.impl
 
+import dev.thecodewarrior.mirror.CacheStats
 import dev.thecodewarrior.mirror.impl.member.ConstructorMirrorImpl
 import dev.thecodewarrior.mirror.member.ConstructorMirror
 import dev.thecodewarrior.mirror.member.ExecutableMirror
@@ -9,11 +10,16 @@ import dev.thecodewarrior.mirror.member.MethodMirror
 import java.lang.reflect.Constructor
 import java.lang.reflect.Executable
 import java.lang.reflect.Method
-import java.util.concurrent.ConcurrentHashMap
 
 internal class ExecutableMirrorCache(private val cache: MirrorCache) {
-    private val rawCache = ConcurrentHashMap<Executable, ExecutableMirror>()
-    private val specializedCache = ConcurrentHashMap<Pair<ExecutableMirror, ExecutableSpecialization>, ExecutableMirror>()
+    private val rawCache = CacheTable.create<Executable, ExecutableMirror>(cache) { key, visitor ->
+        CacheKeys.visitMember(key, visitor)
+    }
+    private val specializedCache = SpecializationTable<ExecutableMirror, ExecutableSpecialization, ExecutableMirror>(
+        cache
+    ) { raw, specialization, visitor ->
+        CacheKeys.visitSpecialization(raw, specialization, visitor)
+    }
 
     fun reflect(executable: Executable): ExecutableMirror {
         return rawCache.getOrPut(executable) {
@@ -27,7 +33,9 @@ internal class ExecutableMirrorCache(private val cache: MirrorCache) {
 
     fun specialize(executable: ExecutableMirror, specialization: ExecutableSpecialization): ExecutableMirror {
         val raw = executable.raw
-        return specializedCache.getOrPut(raw to specialization) {
+        return specializedCache.getOrPut(raw, specialization) {
+            specialization.enclosing?.also { cache.requireOwned(it) }
+            specialization.arguments?.forEach { cache.requireOwned(it) }
             when (raw) {
                 is ConstructorMirror -> ConstructorMirrorImpl(cache, raw.java, raw as ConstructorMirrorImpl, specialization)
                 is MethodMirror -> MethodMirrorImpl(cache, raw.java, raw as MethodMirrorImpl, specialization)
@@ -35,4 +43,6 @@ internal class ExecutableMirrorCache(private val cache: MirrorCache) {
             }
         }
     }
+
+    fun stats(): CacheStats<ExecutableMirror> = SpecializationTable.stats(rawCache, specializedCache)
 }
@@ -1,15 +1,19 @@
 package dev.thecodewarrior.mirror.impl
 
+import dev.thecodewarrior.mirror.CacheStats
 import dev.thecodewarrior.mirror.impl.member.FieldMirrorImpl
 import dev.thecodewarrior.mirror.member.FieldMirror
 import dev.thecodewarrior.mirror.type.ClassMirror
 import dev.thecodewarrior.mirror.type.TypeMirror
 import java.lang.reflect.Field
-import java.util.concurrent.ConcurrentHashMap
 
 internal class FieldMirrorCache(private val cache: MirrorCache) {
-    private val rawCache = ConcurrentHashMap<Field, FieldMirror>()
-    private val specializedCache = ConcurrentHashMap<Pair<FieldMirror, TypeMirror>, FieldMirror>()
+    private val rawCache = CacheTable.create<Field, FieldMirror>(cache) { key, visitor ->
+        CacheKeys.visitMember(key, visitor)
+    }
+    private val specializedCache = SpecializationTable<FieldMirror, TypeMirror, FieldMirror>(cache) { raw, enclosing, visitor ->
+        CacheKeys.visitSpecialization(raw, enclosing, visitor)
+    }
 
     fun reflect(field: Field): FieldMirror {
         return rawCache.getOrPut(field) {
@@ -21,8 +25,11 @@ internal class FieldMirrorCache(private val cache: MirrorCache) {
         val raw = field.raw
         if(enclosing == null)
             return raw
-        return specializedCache.getOrPut(raw to enclosing) {
+        return specializedCache.getOrPut(raw, enclosing) {
+            cache.requireOwned(enclosing)
             FieldMirrorImpl(cache, raw as FieldMirrorImpl, raw.java, enclosing)
         }
     }
-}
\ No newline at end of file
+
+    fun stats(): CacheStats<FieldMirror> = SpecializationTable.stats(rawCache, specializedCache)
+}
@@ -0,0 +1,368 @@
+package dev.thecodewarrior.mirror.impl
+
+import dev.thecodewarrior.mirror.impl.type.ClassMirrorImpl
+import dev.thecodewarrior.mirror.impl.utils.unique
+import dev.thecodewarrior.mirror.member.MethodMirror
+import dev.thecodewarrior.mirror.type.ClassMirror
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.channels.FileChannel
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.StandardCopyOption
+import java.nio.file.StandardOpenOption
+import java.util.Collections
+import java.util.IdentityHashMap
+
+/**
+ * A memory-mapped snapshot of the method metadata computed by raw [ClassMirrorImpl]s, which lets them skip the
+ * expensive inheritance and override filters on later runs.
+ *
+ * The results of the filters are stored as the [signature hashes][signatureHash] of the methods they selected from
+ * the candidate lists they filter (see [ClassMirrorImpl.inheritedMethodCandidates] and
+ * [ClassMirrorImpl.methodCandidates]), and of the superclass methods the [declaredMethods][ClassMirror.declaredMethods]
+ * override. Methods are matched by signature rather than by position, so the snapshot doesn't depend on the order of
+ * the candidate lists. The candidate lists are always built live, so the mirrors in the rebuilt lists are exactly the
+ * ones the filters would have returned, in the order the filters would have returned them.
+ *
+ * Each entry is keyed by the class name and a hash of the bytes of the class and all its supertypes (see
+ * [classHash]), since a change in any supertype can change the results. Entries that don't match, or whose
+ * signatures don't each match exactly one candidate, are ignored.
+ *
+ * ## Format
+ * All values are big-endian.
+ * ```
+ * int magic, int version, int entryCount
+ * entry {
+ *     int nameLength, byte[nameLength] name (UTF-8), long hash
+ *     selection inherited, selection methods
+ *     int declaredCount, ints overriding, ints overridden
+ * }
+ * selection { int candidateCount, ints signatures }
+ * ints { int count, int[count] values }
+ * ```
+ * `overriding` holds the signatures of the declared methods that override a superclass method, and `overridden` holds
+ * the signatures of the methods they override, in the same order. Declared methods that aren't listed don't override
+ * anything.
+ */
+internal class MetadataSnapshot private constructor(private val buffer: ByteBuffer, private val offsets: Map<String, Int>) {
+    /**
+     * The number of classes in this snapshot
+     */
+    val size: Int get() = offsets.size
+
+    /**
+     * Gets the entry for the passed class, or null if this snapshot has no entry for it or the class has changed
+     */
+    fun find(clazz: Class<*>): Entry? {
+        var offset = offsets[clazz.name] ?: return null
+        try {
+            offset += 4 + buffer.getInt(offset)
+            val hash = buffer.getLong(offset)
+            if(hash != classHash(clazz))
+                return null
+            offset += 8
+            val inherited = readSelection(offset)
+            offset += 8 + 4 * inherited.signatures.size
+            val methods = readSelection(offset)
+            offset += 8 + 4 * methods.signatures.size
+            val declaredCount = buffer.getInt(offset)
+            val overriding = readInts(offset + 4)
+            val overridden = readInts(offset + 8 + 4 * overriding.size)
+            if(overridden.size != overriding.size)
+                return null
+            return Entry(inherited, methods, declaredCount, overriding, overridden)
+        } catch(e: IndexOutOfBoundsException) {
+            return null
+        }
+    }
+
+    private fun readSelection(offset: Int): Selection {
+        return Selection(buffer.getInt(offset), readInts(offset + 4))
+    }
+
+    private fun readInts(offset: Int): IntArray {
+        val ints = IntArray(buffer.getInt(offset))
+        for(i in ints.indices) {
+            ints[i] = buffer.getInt(offset + 4 + 4 * i)
+        }
+        return ints
+    }
+
+    class Entry(
+        /**
+         * The inherited methods, selected from [ClassMirrorImpl.inheritedMethodCandidates]
+         */
+        val inherited: Selection,
+        /**
+         * The methods, selected from [ClassMirrorImpl.methodCandidates]
+         */
+        val methods: Selection,
+        /**
+         * The number of declared methods
+         */
+        val declaredCount: Int,
+        /**
+         * The signatures of the declared methods that override a superclass method
+         */
+        val overriding: IntArray,
+        /**
+         * The signatures of the superclass methods overridden by the methods in [overriding]
+         */
+        val overridden: IntArray
+    )
+
+    /**
+     * The signatures of the selected elements of a list of candidates, sorted
+     */
+    class Selection(val candidateCount: Int, val signatures: IntArray) {
+        /**
+         * Selects the methods from the passed candidates, keeping the order of the candidates, or returns null if the
+         * candidates don't match the snapshot
+         */
+        fun select(candidates: List<MethodMirror>): List<MethodMirror>? {
+            if(candidates.size != candidateCount)
+                return null
+            val index = indexBySignature(candidates) ?: return null
+            val selected = Collections.newSetFromMap(IdentityHashMap<MethodMirror, Boolean>())
+            for(signature in signatures) {
+                selected.add(index[signature] ?: return null)
+            }
+            return candidates.filter { it in selected }.unique()
+        }
+
+        companion object {
+            /**
+             * Finds the signatures of the selected methods, or returns null if they can't be told apart from the
+             * other candidates by signature
+             */
+            fun of(candidates: List<MethodMirror>, selected: List<MethodMirror>): Selection? {
+                val index = indexBySignature(candidates) ?: return null
+                val signatures = IntArray(selected.size) { signatureHash(selected[it]) }
+                for(i in selected.indices) {
+                    if(index[signatures[i]] !== selected[i])
+                        return null
+                }
+                signatures.sort()
+                return Selection(candidates.size, signatures)
+            }
+        }
+    }
+
+    companion object {
+        private const val MAGIC = 0x4D495253 // "MIRS"
+        private const val VERSION = 3
+
+        /**
+         * The hash of each class's own bytes. Classes from the bootstrap loader can only change along with the
+         * runtime, so they're hashed by name and runtime version instead of reading their bytes.
+         */
+        private val bytesHashes = object: ClassValue<Long?>() {
+            override fun computeValue(type: Class<*>): Long? {
+                if(type.classLoader == null)
+                    return fnv1a(FNV_OFFSET, (type.name + "@" + runtimeVersion).toByteArray(Charsets.UTF_8))
+                val bytes = type.getResourceAsStream("/" + type.name.replace('.', '/') + ".class")
+                    ?.use { it.readBytes() } ?: return null
+                return fnv1a(FNV_OFFSET, bytes)
+            }
+        }
+
+        private val runtimeVersion: String = System.getProperty("java.vm.name") + " " +
+            System.getProperty("java.runtime.version")
+
+        /**
+         * The hash of each class's supertype closure. Each supertype's hash is only computed once, no matter how many
+         * subclasses include it in their closure.
+         */
+        private val classHashes = object: ClassValue<Long?>() {
+            override fun computeValue(type: Class<*>): Long? {
+                var hash = bytesHashes.get(type) ?: return null
+                type.superclass?.also { hash = mix(hash, classHash(it) ?: return null) }
+                for(it in type.interfaces) {
+                    hash = mix(hash, classHash(it) ?: return null)
+                }
+                return hash
+            }
+        }
+
+        /**
+         * Hashes the bytes of the passed class and all its supertypes, or returns null if the bytes of any of them
+         * aren't available (e.g. for generated classes).
+         */
+        fun classHash(clazz: Class<*>): Long? = classHashes.get(clazz)
+
+        /**
+         * Hashes the declaring class, name, and raw parameter and return types of the passed method. Unlike an index,
+         * this doesn't depend on the order of the list the method is in.
+         */
+        fun signatureHash(method: MethodMirror): Int {
+            val java = method.java
+            var hash = java.declaringClass.name.hashCode()
+            hash = 31 * hash + java.name.hashCode()
+            for(parameter in java.parameterTypes) {
+                hash = 31 * hash + parameter.name.hashCode()
+            }
+            return 31 * hash + java.returnType.name.hashCode()
+        }
+
+        /**
+         * Indexes the passed methods by their [signature hashes][signatureHash], or returns null if two different
+         * methods have the same hash. The same mirror may be in the list more than once.
+         */
+        fun indexBySignature(methods: List<MethodMirror>): Map<Int, MethodMirror>? {
+            val index = HashMap<Int, MethodMirror>(methods.size * 2)
+            for(method in methods) {
+                val existing = index.put(signatureHash(method), method)
+                if(existing != null && existing !== method)
+                    return null
+            }
+            return index
+        }
+
+        private const val FNV_OFFSET = -0x340d631b7bdddcdbL
+        private const val FNV_PRIME = 0x100000001b3L
+
+        private fun fnv1a(initial: Long, bytes: ByteArray): Long {
+            var hash = initial
+            for(byte in bytes) {
+                hash = (hash xor (byte.toLong() and 0xFF)) * FNV_PRIME
+            }
+            return hash
+        }
+
+        private fun mix(hash: Long, other: Long): Long {
+            return (hash xor other) * FNV_PRIME
+        }
+
+        /**
+         * Maps the passed snapshot file
+         *
+         * @throws IOException if the file can't be read or isn't a snapshot
+         */
+        fun load(path: Path): MetadataSnapshot {
+            val buffer = FileChannel.open(path, StandardOpenOption.READ).use {
+                it.map(FileChannel.MapMode.READ_ONLY, 0, it.size())
+            }
+            try {
+                if(buffer.getInt(0) != MAGIC)
+                    throw IOException("$path is not a Mirror metadata snapshot")
+                if(buffer.getInt(4) != VERSION)
+                    throw IOException("$path has an unsupported snapshot version ${buffer.getInt(4)}")
+                val count = buffer.getInt(8)
+                val offsets = HashMap<String, Int>(count * 2)
+                var offset = 12
+                repeat(count) {
+                    val entryOffset = offset
+                    val nameBytes = ByteArray(buffer.getInt(offset))
+                    for(i in nameBytes.indices) {
+                        nameBytes[i] = buffer.get(offset + 4 + i)
+                    }
+                    offset += 4 + nameBytes.size + 8
+                    offset += 8 + 4 * buffer.getInt(offset + 4) // inherited
+                    offset += 8 + 4 * buffer.getInt(offset + 4) // methods
+                    offset += 4 // declared count
+                    offset += 4 + 4 * buffer.getInt(offset) // overriding
+                    offset += 4 + 4 * buffer.getInt(offset) // overridden
+                    offsets[String(nameBytes, Charsets.UTF_8)] = entryOffset
+                }
+                return MetadataSnapshot(buffer, offsets)
+            } catch(e: IndexOutOfBoundsException) {
+                throw IOException("$path is a truncated Mirror metadata snapshot", e)
+            }
+        }
+
+        /**
+         * Writes a snapshot of the passed raw class mirrors. Classes whose bytes aren't available or whose methods
+         * can't be resolved are skipped.
+         *
+         * The snapshot is written to a new temporary file in the same directory and then atomically moved into place,
+         * so a concurrent load never sees a partial snapshot and concurrent writers never share a temporary file.
+         *
+         * @return The number of classes that were written
+         */
+        fun write(path: Path, mirrors: List<ClassMirrorImpl>): Int {
+            val entries = ByteArrayOutputStream()
+            val out = DataOutputStream(entries)
+            var count = 0
+            for(mirror in mirrors.sortedBy { it.java.name }) {
+                val entry = try {
+                    createEntry(mirror)
+                } catch(e: Exception) {
+                    null
+                } catch(e: LinkageError) {
+                    null
+                } ?: continue
+                val hash = classHash(mirror.java) ?: continue
+
+                val name = mirror.java.name.toByteArray(Charsets.UTF_8)
+                out.writeInt(name.size)
+                out.write(name)
+                out.writeLong(hash)
+                writeSelection(out, entry.inherited)
+                writeSelection(out, entry.methods)
+                out.writeInt(entry.declaredCount)
+                writeInts(out, entry.overriding)
+                writeInts(out, entry.overridden)
+                count++
+            }
+            out.flush()
+
+            val buffer = ByteBuffer.allocate(12 + entries.size())
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(count).put(entries.toByteArray())
+            buffer.flip()
+
+            val absolute = path.toAbsolutePath()
+            val temp = Files.createTempFile(absolute.parent, absolute.fileName.toString(), ".tmp")
+            try {
+                FileChannel.open(temp, StandardOpenOption.WRITE).use {
+                    while(buffer.hasRemaining())
+                        it.write(buffer)
+                }
+                try {
+                    Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING)
+                } catch(e: AtomicMoveNotSupportedException) {
+                    Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING)
+                }
+            } finally {
+                Files.deleteIfExists(temp)
+            }
+            return count
+        }
+
+        private fun createEntry(mirror: ClassMirrorImpl): Entry? {
+            val inherited = Selection.of(mirror.inheritedMethodCandidates(), mirror.inheritedMethods) ?: return null
+            val methods = Selection.of(mirror.methodCandidates(), mirror.methods) ?: return null
+
+            val declared = mirror.declaredMethods
+            if(indexBySignature(declared) == null)
+                return null
+            val superclassMethods = generateSequence(mirror.superclass) { it.superclass }
+                .flatMap { it.declaredMethods }.toList()
+            val superclassIndex = indexBySignature(superclassMethods) ?: return null
+            val overriding = mutableListOf<Int>()
+            val overridden = mutableListOf<Int>()
+            for(method in declared) {
+                val override = method.overrides ?: continue
+                val signature = signatureHash(override)
+                if(superclassIndex[signature] !== override)
+                    return null
+                overriding.add(signatureHash(method))
+                overridden.add(signature)
+            }
+            return Entry(inherited, methods, declared.size, overriding.toIntArray(), overridden.toIntArray())
+        }
+
+        private fun writeSelection(out: DataOutputStream, selection: Selection) {
+            out.writeInt(selection.candidateCount)
+            writeInts(out, selection.signatures)
+        }
+
+        private fun writeInts(out: DataOutputStream, ints: IntArray) {
+            out.writeInt(ints.size)
+            ints.forEach { out.writeInt(it) }
+        }
+    }
+}
@@ -1,10 +1,92 @@
 package dev.thecodewarrior.mirror.impl
 
-internal class MirrorCache {
+import dev.thecodewarrior.mirror.CacheStrategy
+import dev.thecodewarrior.mirror.InvocationStrategy
+import dev.thecodewarrior.mirror.MirrorCacheStats
+import dev.thecodewarrior.mirror.MirrorConfig
+import dev.thecodewarrior.mirror.impl.member.MemberMirrorImpl
+import dev.thecodewarrior.mirror.impl.member.ParameterMirrorImpl
+import dev.thecodewarrior.mirror.impl.type.TypeMirrorImpl
+
+/**
+ * @param config The configuration of this cache. Everything but the invocation strategy is fixed once the cache is
+ * created.
+ */
+internal class MirrorCache(val config: MirrorConfig = MirrorConfig()) {
+    /**
+     * How the mirrors in this cache are held
+     */
+    val strategy: CacheStrategy get() = config.cacheStrategy
+
+    /**
+     * The maximum number of specializations each specialization table will strongly hold, or [Int.MAX_VALUE] for no
+     * limit. Raw mirrors are never limited.
+     */
+    val specializationCacheSize: Int get() = config.specializationCacheSize
+
+    /**
+     * Whether the cache tables should count hits, misses, and build times
+     */
+    val collectStats: Boolean get() = config.collectStats
+
+    /**
+     * Whether created annotations and type annotations should be interned
+     */
+    val internAnnotations: Boolean get() = config.internAnnotations
+
+    val evictionIndex = EvictionIndex()
+
     val types = TypeMirrorCache(this)
     val fields = FieldMirrorCache(this)
     val executables = ExecutableMirrorCache(this)
     val parameters = ParameterMirrorCache(this)
-    val annotationStrings = AnnotationStringsCache()
-}
+    val annotationStrings = AnnotationStringsCache(this)
+    val annotations = AnnotationInterner(this)
 
+    /**
+     * The strategy used when a method or constructor from this cache is first called. Changing this won't affect
+     * members that have already been called.
+     */
+    @Volatile
+    var invocationStrategy: InvocationStrategy = config.invocationStrategy
+
+    /**
+     * The metadata snapshot raw class mirrors use to skip computing their method lists. Changing this won't affect
+     * mirrors that have already computed them.
+     */
+    @Volatile
+    var snapshot: MetadataSnapshot? = null
+
+    /**
+     * Ensures the passed mirror was created by this cache, since mixing mirrors from different caches would break
+     * identity comparisons.
+     */
+    fun requireOwned(mirror: Any) {
+        val owner = when(mirror) {
+            is TypeMirrorImpl -> mirror.cache
+            is MemberMirrorImpl -> mirror.cache
+            is ParameterMirrorImpl -> mirror.cache
+            else -> return
+        }
+        if(owner !== this)
+            throw IllegalArgumentException("$mirror belongs to a different MirrorContext")
+    }
+
+    fun evict(clazz: Class<*>) {
+        evictionIndex.evict(clazz)
+    }
+
+    fun evict(loader: ClassLoader) {
+        evictionIndex.evict(loader)
+    }
+
+    fun stats(): MirrorCacheStats {
+        return MirrorCacheStats(
+            types.stats(),
+            executables.stats(),
+            fields.stats(),
+            parameters.stats(),
+            annotationStrings.stats()
+        )
+    }
+}
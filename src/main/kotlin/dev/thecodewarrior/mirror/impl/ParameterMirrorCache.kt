@@ -1,14 +1,20 @@
 package dev.thecodewarrior.mirror.impl
 
+import dev.thecodewarrior.mirror.CacheStats
 import dev.thecodewarrior.mirror.impl.member.ParameterMirrorImpl
 import dev.thecodewarrior.mirror.member.ExecutableMirror
 import dev.thecodewarrior.mirror.member.ParameterMirror
 import java.lang.reflect.Parameter
-import java.util.concurrent.ConcurrentHashMap
 
 internal class ParameterMirrorCache(private val cache: MirrorCache) {
-    private val rawCache = ConcurrentHashMap<Parameter, ParameterMirror>()
-    private val specializedCache = ConcurrentHashMap<Pair<ParameterMirror, ExecutableMirror>, ParameterMirror>()
+    private val rawCache = CacheTable.create<Parameter, ParameterMirror>(cache) { key, visitor ->
+        CacheKeys.visitParameter(key, visitor)
+    }
+    private val specializedCache = SpecializationTable<ParameterMirror, ExecutableMirror, ParameterMirror>(
+        cache
+    ) { raw, executable, visitor ->
+        CacheKeys.visitSpecialization(raw, executable, visitor)
+    }
 
     fun reflect(parameter: Parameter): ParameterMirror {
         return rawCache.getOrPut(parameter) {
@@ -18,8 +24,11 @@ internal class ParameterMirrorCache(private val cache: MirrorCache) {
 
     fun specialize(parameter: ParameterMirror, executable: ExecutableMirror): ParameterMirror {
         val raw = parameter.raw
-        return specializedCache.getOrPut(raw to executable) {
+        return specializedCache.getOrPut(raw, executable) {
+            cache.requireOwned(executable)
             ParameterMirrorImpl(cache, raw as ParameterMirrorImpl, executable, raw.java)
         }
     }
+
+    fun stats(): CacheStats<ParameterMirror> = SpecializationTable.stats(rawCache, specializedCache)
 }
@@ -0,0 +1,126 @@
+package dev.thecodewarrior.mirror.impl
+
+import dev.thecodewarrior.mirror.PreloadOptions
+import dev.thecodewarrior.mirror.PreloadReport
+import dev.thecodewarrior.mirror.impl.utils.unmodifiableView
+import dev.thecodewarrior.mirror.member.ExecutableMirror
+import dev.thecodewarrior.mirror.type.ClassMirror
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+
+/**
+ * Resolves the lazy members of many class mirrors in parallel.
+ *
+ * Each class is preloaded by its own [ForkJoinPool] task, which forks tasks for its supertypes before resolving its
+ * own members, so idle threads can steal the supertypes. Every class is claimed before its task is created, so shared
+ * supertypes are only preloaded once.
+ *
+ * Mirrors resolve members that depend on other mirrors lazily, and those dependencies go in every direction: a
+ * member class's enclosing class lists it as a member, and a class's fields and parameters can have the types of its
+ * own subclasses. The lazy members are all resolved without locks (see
+ * [lockFreeLazy][dev.thecodewarrior.mirror.impl.utils.lockFreeLazy]), so a thread never waits for a member another
+ * thread is resolving, and threads that race for one each resolve it. The only waits are the tasks joining their
+ * supertypes' tasks, which follow the class hierarchy and can't form a cycle, and they never join while resolving a
+ * member.
+ */
+internal class Preloader(private val cache: MirrorCache, private val options: PreloadOptions) {
+    private val claimed: MutableSet<Class<*>> = ConcurrentHashMap.newKeySet()
+    private val times = ConcurrentHashMap<Class<*>, Long>()
+    private val failures = ConcurrentHashMap<Class<*>, Throwable>()
+
+    fun preload(classes: Collection<Class<*>>): PreloadReport {
+        val start = System.nanoTime()
+        val pool = ForkJoinPool(options.parallelism)
+        try {
+            pool.invoke(object: RecursiveAction() {
+                override fun compute() {
+                    invokeAll(classes.mapNotNull { claim(it) })
+                }
+            })
+        } finally {
+            pool.shutdown()
+        }
+        return PreloadReport(
+            times.toMap().unmodifiableView(),
+            failures.toMap().unmodifiableView(),
+            System.nanoTime() - start
+        )
+    }
+
+    /**
+     * Creates a task for the passed class if it hasn't been claimed yet. Arrays are preloaded as their component
+     * class, and void is skipped.
+     */
+    private fun claim(clazz: Class<*>): ClassTask? {
+        var component = clazz
+        while(component.isArray)
+            component = component.componentType
+        if(component == Void.TYPE || !claimed.add(component))
+            return null
+        return ClassTask(component)
+    }
+
+    private inner class ClassTask(val clazz: Class<*>): RecursiveAction() {
+        override fun compute() {
+            val supertypes = mutableListOf<ClassTask>()
+            if(options.supertypes) {
+                clazz.superclass?.let { claim(it) }?.also { supertypes.add(it) }
+                clazz.interfaces.mapNotNullTo(supertypes) { claim(it) }
+                supertypes.forEach { it.fork() }
+            }
+
+            val start = System.nanoTime()
+            try {
+                preload(cache.types.reflect(clazz) as ClassMirror)
+                times[clazz] = System.nanoTime() - start
+            } catch(e: Exception) {
+                failures[clazz] = e
+            } catch(e: LinkageError) {
+                failures[clazz] = e
+            }
+
+            supertypes.forEach { it.join() }
+        }
+    }
+
+    private fun preload(mirror: ClassMirror) {
+        mirror.superclass
+        mirror.interfaces
+        mirror.typeParameters
+        mirror.enclosingClass
+        mirror.enclosingExecutable
+        mirror.enumType
+        if(!options.members)
+            return
+
+        mirror.declaredMethods.forEach {
+            preload(it)
+            it.overrides
+        }
+        mirror.inheritedMethods
+        mirror.publicMethods
+        mirror.visibleMethods
+        // the inherited methods of a generic supertype are specialized for this class, so they're distinct from the
+        // supertype's own methods
+        mirror.methods.forEach { preload(it) }
+
+        mirror.declaredFields.forEach { it.type }
+        mirror.publicFields
+        mirror.fields.forEach { it.type }
+
+        mirror.declaredConstructors.forEach { preload(it) }
+        mirror.publicConstructors
+
+        mirror.declaredMemberClasses
+        mirror.publicMemberClasses
+        mirror.memberClasses
+    }
+
+    private fun preload(executable: ExecutableMirror) {
+        executable.parameters.forEach { it.type }
+        executable.parameterTypes
+        executable.returnType
+        executable.exceptionTypes
+    }
+}
@@ -0,0 +1,139 @@
+package dev.thecodewarrior.mirror.impl
+
+import dev.thecodewarrior.mirror.CacheStats
+import dev.thecodewarrior.mirror.SpecializationCount
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.util.Collections
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A two-level table of specializations. The first level is the raw mirror itself, which holds a [CacheTable] of its
+ * own specializations, so finding a specialization only takes a single hash lookup and doesn't need a composite key.
+ *
+ * The per-raw tables share their [counters] and, if the cache's specialization size is limited, their
+ * [BoundedCacheTable.Clocks], so the limit applies to all the specializations together (or to all the specializations
+ * owned by each class, with the weak strategy).
+ *
+ * @param R The raw mirror type. Raw mirrors must implement [Holder]
+ * @param S The specialization type
+ * @param V The specialized mirror type
+ * @param visitKey Visits the classes referenced by a specialization of a raw mirror (see [CacheKeys])
+ */
+internal class SpecializationTable<R: Any, S: Any, V: Any>(
+    private val cache: MirrorCache,
+    private val visitKey: (R, S, CacheKeys.ClassVisitor) -> Unit
+) {
+    val counters = CacheTable.Counters()
+    private val clocks = if(cache.specializationCacheSize == Int.MAX_VALUE)
+        null
+    else
+        BoundedCacheTable.Clocks(cache.strategy, cache.specializationCacheSize)
+
+    /**
+     * Every raw mirror that has a table, which is only used to gather stats. References to collected mirrors are
+     * removed as new tables are created.
+     */
+    private val raws: MutableSet<WeakReference<R>> = Collections.newSetFromMap(ConcurrentHashMap())
+    private val queue = ReferenceQueue<R>()
+
+    /**
+     * Gets the specialization of the passed raw mirror, creating it using [create] if it's missing.
+     */
+    fun getOrPut(raw: R, specialization: S, create: () -> V): V {
+        return tableFor(raw).getOrPut(specialization, create)
+    }
+
+    /**
+     * Looks up an existing specialization of the passed raw mirror using a probe (see [CacheTable.find])
+     */
+    fun find(raw: R, probe: CacheKeys.Probe): V? {
+        @Suppress("UNCHECKED_CAST")
+        val table = (raw as Holder).specializations as CacheTable<S, V>? ?: return null
+        return table.find(probe)
+    }
+
+    private fun tableFor(raw: R): CacheTable<S, V> {
+        val holder = raw as Holder
+        @Suppress("UNCHECKED_CAST")
+        holder.specializations?.also { return it as CacheTable<S, V> }
+        synchronized(holder) {
+            @Suppress("UNCHECKED_CAST")
+            holder.specializations?.also { return it as CacheTable<S, V> }
+
+            expungeStaleRaws()
+            // the eviction index holds tables strongly, so they must not hold their raw mirror strongly, otherwise
+            // the index would keep it alive when using the weak strategy
+            val rawRef = WeakReference<R>(raw, queue)
+            val visit = { specialization: S, visitor: CacheKeys.ClassVisitor ->
+                rawRef.get()?.also { visitKey(it, specialization, visitor) }
+                Unit
+            }
+            val table = if(clocks == null)
+                CacheTable.create<S, V>(cache, counters, visit)
+            else
+                BoundedCacheTable<S, V>(cache, visit, counters, clocks)
+
+            holder.specializations = table
+            raws.add(rawRef)
+            return table
+        }
+    }
+
+    private fun expungeStaleRaws() {
+        while(true) {
+            val ref = queue.poll() ?: break
+            raws.remove(ref)
+        }
+    }
+
+    /**
+     * Counts the current specializations of each raw mirror
+     */
+    fun specializationCounts(): Map<R, Int> {
+        val counts = mutableMapOf<R, Int>()
+        val iter = raws.iterator()
+        for(ref in iter) {
+            val raw = ref.get()
+            if(raw == null) {
+                iter.remove()
+                continue
+            }
+            val size = (raw as Holder).specializations?.keys()?.size ?: 0
+            if(size != 0)
+                counts[raw] = size
+        }
+        return counts
+    }
+
+    /**
+     * A raw mirror that holds its own table of specializations
+     */
+    interface Holder {
+        /**
+         * The table of specializations of this raw mirror, which is created and managed by a [SpecializationTable]
+         */
+        var specializations: CacheTable<*, *>?
+    }
+
+    companion object {
+        /**
+         * Combines the statistics of a raw table and its specialization table
+         */
+        fun <T: Any> stats(raw: CacheTable<*, *>, specialized: SpecializationTable<T, *, *>?): CacheStats<T> {
+            val counts = specialized?.specializationCounts() ?: emptyMap()
+            val counters = listOfNotNull(raw.counters, specialized?.counters)
+            return CacheStats(
+                hits = counters.sumOf { it.hits.sum() },
+                misses = counters.sumOf { it.misses.sum() },
+                creations = counters.sumOf { it.creations.sum() },
+                buildNanos = counters.sumOf { it.buildNanos.sum() },
+                rawSize = raw.keys().size,
+                specializedSize = counts.values.sum(),
+                mostSpecialized = counts.entries
+                    .sortedByDescending { it.value }
+                    .map { SpecializationCount(it.key, it.value) }
+            )
+        }
+    }
+}
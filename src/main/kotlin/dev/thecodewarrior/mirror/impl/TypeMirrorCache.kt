@@ -1,5 +1,6 @@
 package dev.thecodewarrior.mirror.impl
 
+import dev.thecodewarrior.mirror.CacheStats
 import dev.thecodewarrior.mirror.impl.coretypes.CoreTypeUtils
 import dev.thecodewarrior.mirror.impl.type.*
 import dev.thecodewarrior.mirror.impl.type.ArrayMirrorImpl
@@ -17,11 +18,14 @@ import java.lang.reflect.ParameterizedType
 import java.lang.reflect.Type
 import java.lang.reflect.TypeVariable
 import java.lang.reflect.WildcardType
-import java.util.concurrent.ConcurrentHashMap
 
 internal class TypeMirrorCache(private val cache: MirrorCache) {
-    private val rawCache = ConcurrentHashMap<Any, TypeMirror>()
-    private val specializedCache = ConcurrentHashMap<Pair<TypeMirror, TypeSpecialization>, TypeMirror>()
+    private val rawCache = CacheTable.create<Any, TypeMirror>(cache) { key, visitor ->
+        CacheKeys.visitTypeKey(key, visitor)
+    }
+    private val specializedCache = SpecializationTable<TypeMirror, TypeSpecialization, TypeMirror>(cache) { raw, specialization, visitor ->
+        CacheKeys.visitSpecialization(raw, specialization, visitor)
+    }
 
     fun reflect(type: Type): TypeMirror {
         return rawCache.getOrPut(type) {
@@ -83,8 +87,48 @@ internal class TypeMirrorCache(private val cache: MirrorCache) {
     }
 
     internal fun specialize(type: TypeMirror, specialization: TypeSpecialization): TypeMirror {
-        return specializedCache.getOrPut(type.raw to specialization) {
+        return specializedCache.getOrPut(type.raw, specialization) {
+            requireOwned(specialization)
             (type.raw as TypeMirrorImpl).applySpecialization(specialization)
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Specializes the passed raw class with the passed type arguments, replacing the arguments of [base]. Existing
+     * specializations are found by probing with the argument array directly, without building a new specialization.
+     */
+    internal fun specializeArguments(
+        raw: ClassMirrorImpl,
+        base: TypeSpecialization.Class,
+        arguments: Array<out TypeMirror>
+    ): TypeMirror {
+        specializedCache.find(raw, TypeSpecialization.ArgumentsProbe(raw, base, arguments))?.also { return it }
+        return specialize(raw, base.copy(arguments = if(arguments.isEmpty()) null else arguments.toList()))
+    }
+
+    private fun requireOwned(specialization: TypeSpecialization) {
+        when(specialization) {
+            is TypeSpecialization.Class -> {
+                specialization.arguments?.forEach { cache.requireOwned(it) }
+                specialization.enclosingClass?.also { cache.requireOwned(it) }
+                specialization.enclosingExecutable?.also { cache.requireOwned(it) }
+            }
+            is TypeSpecialization.Array -> {
+                specialization.component?.also { cache.requireOwned(it) }
+            }
+            is TypeSpecialization.Wildcard -> {
+                specialization.upperBounds?.forEach { cache.requireOwned(it) }
+                specialization.lowerBounds?.forEach { cache.requireOwned(it) }
+            }
+        }
+    }
+
+    /**
+     * Gets every raw class mirror currently in the cache
+     */
+    fun rawClassMirrors(): List<ClassMirrorImpl> {
+        return rawCache.keys().mapNotNull { if(it is Class<*>) rawCache.get(it) as? ClassMirrorImpl else null }
+    }
+
+    fun stats(): CacheStats<TypeMirror> = SpecializationTable.stats(rawCache, specializedCache)
+}
@@ -0,0 +1,395 @@
+package dev.thecodewarrior.mirror.impl.coretypes
+
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.lang.reflect.Constructor
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Method
+import java.lang.reflect.Modifier
+
+/**
+ * Generates a concrete implementation class for each annotation type, so annotations created with
+ * [CoreTypeUtils.createAnnotation] don't have to go through a [Proxy][java.lang.reflect.Proxy]. Each element is stored
+ * in a final field of its exact type, each element method just returns its field, and the rest of the [Annotation]
+ * methods are implemented by [GeneratedAnnotation].
+ *
+ * Each class is defined in its own class loader, a child of the annotation type's loader that can also see
+ * [GeneratedAnnotation]. That means only public annotation types whose element types are all public can be
+ * implemented, since the generated constructor has to cast each value to its element type. For any other type, or if
+ * defining or instantiating the class fails with a linkage error, [create] returns null and the caller should fall back
+ * to a proxy.
+ */
+internal object AnnotationClassGenerator {
+    private const val PACKAGE = "dev.thecodewarrior.mirror.impl.generated."
+    private val BASE = internalName(GeneratedAnnotation::class.java)
+    private val SCHEMA = internalName(GeneratedAnnotation.Schema::class.java)
+    private val CONSTRUCTOR_DESCRIPTOR = "(L$SCHEMA;[Ljava/lang/Object;)V"
+
+    private class Factory(val schema: GeneratedAnnotation.Schema, val constructor: Constructor<*>) {
+        /**
+         * Set to false if the constructor ever fails to link, e.g. because an element type isn't accessible from the
+         * generated class in a way [isAccessible] can't detect, like a package that isn't exported from its module.
+         */
+        @Volatile
+        var usable: Boolean = true
+    }
+
+    private val factories = object: ClassValue<Factory?>() {
+        override fun computeValue(type: Class<*>): Factory? {
+            return try {
+                generate(type)
+            } catch(e: Exception) {
+                null
+            } catch(e: LinkageError) {
+                null
+            }
+        }
+    }
+
+    /**
+     * Creates an instance of the passed annotation type, or returns null if no implementation can be generated for
+     * it. The values are validated by [AnnotationInvocationHandler.normalize].
+     *
+     * @throws AnnotationFormatException if any required values are missing or any values have incompatible types
+     */
+    @Throws(AnnotationFormatException::class)
+    fun <A: Annotation> create(type: Class<A>, values: Map<String, Any>): A? {
+        val factory = factories.get(type) ?: return null
+        if(!factory.usable)
+            return null
+        val normalized = AnnotationInvocationHandler.normalize(type, values)
+        val names = factory.schema.accessors.names
+        val array = arrayOfNulls<Any>(names.size)
+        for(i in names.indices) {
+            array[i] = normalized[names[i]]
+        }
+        try {
+            return type.cast(factory.constructor.newInstance(factory.schema, array))
+        } catch(e: InvocationTargetException) {
+            val cause = e.cause
+            if(cause is LinkageError) {
+                factory.usable = false
+                return null
+            }
+            throw cause ?: e
+        }
+    }
+
+    private fun generate(type: Class<*>): Factory? {
+        val interfaces = type.interfaces
+        if(!type.isAnnotation || interfaces.size != 1 || interfaces[0] != Annotation::class.java)
+            return null
+        if(!isAccessible(type))
+            return null
+        @Suppress("UNCHECKED_CAST")
+        type as Class<out Annotation>
+
+        val schema = GeneratedAnnotation.Schema(AnnotationAccessors.of(type))
+        if(!schema.accessors.methods.all { isAccessible(it.returnType) })
+            return null
+        val name = PACKAGE + type.name.replace('.', '_')
+        val bytes = generateClass(internalName(name), type, schema.accessors.methods)
+        val generated = GeneratingLoader(type.classLoader).define(name, bytes)
+        val constructor = generated.getConstructor(GeneratedAnnotation.Schema::class.java, Array<Any>::class.java)
+        return Factory(schema, constructor)
+    }
+
+    /**
+     * Whether the passed class can be referenced from a class in another package and class loader. Nested classes also
+     * require every enclosing class to be public, which is stricter than the VM's check but matches what Java source
+     * in another package could reference.
+     */
+    private fun isAccessible(clazz: Class<*>): Boolean {
+        var current: Class<*>? = clazz
+        while(current != null && current.isArray)
+            current = current.componentType
+        while(current != null) {
+            if(!current.isPrimitive && !Modifier.isPublic(current.modifiers))
+                return false
+            current = current.declaringClass
+        }
+        return true
+    }
+
+    /**
+     * Generates a class equivalent to this, where `values` are in the order of [elements]. Like the JDK's annotations,
+     * array elements return a copy of their field, so the caller can't modify the annotation:
+     * ```java
+     * public final class Name extends GeneratedAnnotation implements Type {
+     *     private final int element1;
+     *     private final String element2;
+     *     private final int[] element3;
+     *
+     *     public Name(GeneratedAnnotation.Schema schema, Object[] values) {
+     *         super(schema, values);
+     *         this.element1 = (Integer)values[0];
+     *         this.element2 = (String)values[1];
+     *         this.element3 = (int[])values[2];
+     *     }
+     *
+     *     public int element1() { return this.element1; }
+     *     public String element2() { return this.element2; }
+     *     public int[] element3() { return this.element3.clone(); }
+     * }
+     * ```
+     */
+    private fun generateClass(name: String, type: Class<*>, elements: Array<Method>): ByteArray {
+        val pool = ConstantPool()
+        val thisClass = pool.classRef(name)
+        val superClass = pool.classRef(BASE)
+        val annotationClass = pool.classRef(internalName(type))
+
+        val fields = ByteArrayOutputStream()
+        DataOutputStream(fields).apply {
+            for(element in elements) {
+                writeShort(Modifier.PRIVATE or Modifier.FINAL)
+                writeShort(pool.utf8(element.name))
+                writeShort(pool.utf8(descriptor(element.returnType)))
+                writeShort(0) // attributes
+            }
+        }
+
+        val methods = ByteArrayOutputStream()
+        DataOutputStream(methods).apply {
+            val code = ByteArrayOutputStream()
+            DataOutputStream(code).apply {
+                writeByte(ALOAD_0)
+                writeByte(ALOAD_1)
+                writeByte(ALOAD_2)
+                writeByte(INVOKESPECIAL)
+                writeShort(pool.methodRef(BASE, "<init>", CONSTRUCTOR_DESCRIPTOR))
+                elements.forEachIndexed { i, element ->
+                    writeByte(ALOAD_0)
+                    writeByte(ALOAD_2)
+                    pushInt(this, i)
+                    writeByte(AALOAD)
+                    val returnType = element.returnType
+                    if(returnType.isPrimitive) {
+                        val wrapper = wrappers.getValue(returnType)
+                        writeByte(CHECKCAST)
+                        writeShort(pool.classRef(internalName(wrapper)))
+                        writeByte(INVOKEVIRTUAL)
+                        writeShort(pool.methodRef(internalName(wrapper), "${returnType.name}Value",
+                            "()" + descriptor(returnType)))
+                    } else {
+                        writeByte(CHECKCAST)
+                        writeShort(pool.classRef(internalName(returnType)))
+                    }
+                    writeByte(PUTFIELD)
+                    writeShort(pool.fieldRef(name, element.name, descriptor(returnType)))
+                }
+                writeByte(RETURN)
+            }
+            writeMethod(this, pool, Modifier.PUBLIC, "<init>", CONSTRUCTOR_DESCRIPTOR, 4, 3, code.toByteArray())
+
+            for(element in elements) {
+                val returnType = element.returnType
+                val getter = ByteArrayOutputStream()
+                DataOutputStream(getter).apply {
+                    writeByte(ALOAD_0)
+                    writeByte(GETFIELD)
+                    writeShort(pool.fieldRef(name, element.name, descriptor(returnType)))
+                    if(returnType.isArray) {
+                        writeByte(INVOKEVIRTUAL)
+                        writeShort(pool.methodRef(internalName(returnType), "clone", "()Ljava/lang/Object;"))
+                        writeByte(CHECKCAST)
+                        writeShort(pool.classRef(internalName(returnType)))
+                    }
+                    writeByte(returnOpcode(returnType))
+                }
+                writeMethod(this, pool, Modifier.PUBLIC or Modifier.FINAL, element.name, "()" + descriptor(returnType),
+                    2, 1, getter.toByteArray())
+            }
+        }
+
+        val out = ByteArrayOutputStream()
+        DataOutputStream(out).apply {
+            writeInt(0xCAFEBABE.toInt())
+            writeShort(0) // minor version
+            writeShort(52) // Java 8
+            pool.writeTo(this)
+            writeShort(Modifier.PUBLIC or Modifier.FINAL or ACC_SUPER)
+            writeShort(thisClass)
+            writeShort(superClass)
+            writeShort(1)
+            writeShort(annotationClass)
+            writeShort(elements.size)
+            write(fields.toByteArray())
+            writeShort(elements.size + 1)
+            write(methods.toByteArray())
+            writeShort(0) // attributes
+        }
+        return out.toByteArray()
+    }
+
+    private fun writeMethod(
+        out: DataOutputStream, pool: ConstantPool, access: Int, name: String, descriptor: String,
+        maxStack: Int, maxLocals: Int, code: ByteArray
+    ) {
+        out.writeShort(access)
+        out.writeShort(pool.utf8(name))
+        out.writeShort(pool.utf8(descriptor))
+        out.writeShort(1) // attributes
+        out.writeShort(pool.utf8("Code"))
+        out.writeInt(12 + code.size)
+        out.writeShort(maxStack)
+        out.writeShort(maxLocals)
+        out.writeInt(code.size)
+        out.write(code)
+        out.writeShort(0) // exception table
+        out.writeShort(0) // attributes
+    }
+
+    private fun pushInt(out: DataOutputStream, value: Int) {
+        when {
+            value <= 5 -> out.writeByte(ICONST_0 + value)
+            value <= Byte.MAX_VALUE -> {
+                out.writeByte(BIPUSH)
+                out.writeByte(value)
+            }
+            else -> {
+                out.writeByte(SIPUSH)
+                out.writeShort(value)
+            }
+        }
+    }
+
+    private fun returnOpcode(type: Class<*>): Int {
+        return when(type) {
+            Long::class.javaPrimitiveType -> LRETURN
+            Float::class.javaPrimitiveType -> FRETURN
+            Double::class.javaPrimitiveType -> DRETURN
+            else -> if(type.isPrimitive) IRETURN else ARETURN
+        }
+    }
+
+    private fun internalName(clazz: Class<*>): String {
+        return if(clazz.isArray) descriptor(clazz) else internalName(clazz.name)
+    }
+
+    private fun internalName(name: String): String = name.replace('.', '/')
+
+    private fun descriptor(clazz: Class<*>): String {
+        return when {
+            clazz.isArray -> "[" + descriptor(clazz.componentType)
+            clazz.isPrimitive -> primitiveDescriptors.getValue(clazz)
+            else -> "L" + internalName(clazz.name) + ";"
+        }
+    }
+
+    private val primitiveDescriptors: Map<Class<*>, String> = mapOf(
+        Boolean::class.javaPrimitiveType!! to "Z", Byte::class.javaPrimitiveType!! to "B",
+        Char::class.javaPrimitiveType!! to "C", Short::class.javaPrimitiveType!! to "S",
+        Int::class.javaPrimitiveType!! to "I", Long::class.javaPrimitiveType!! to "J",
+        Float::class.javaPrimitiveType!! to "F", Double::class.javaPrimitiveType!! to "D"
+    )
+
+    private val wrappers: Map<Class<*>, Class<*>> = mapOf(
+        Boolean::class.javaPrimitiveType!! to Boolean::class.javaObjectType,
+        Byte::class.javaPrimitiveType!! to Byte::class.javaObjectType,
+        Char::class.javaPrimitiveType!! to Char::class.javaObjectType,
+        Short::class.javaPrimitiveType!! to Short::class.javaObjectType,
+        Int::class.javaPrimitiveType!! to Int::class.javaObjectType,
+        Long::class.javaPrimitiveType!! to Long::class.javaObjectType,
+        Float::class.javaPrimitiveType!! to Float::class.javaObjectType,
+        Double::class.javaPrimitiveType!! to Double::class.javaObjectType
+    )
+
+    private const val ACC_SUPER = 0x0020
+
+    private const val ICONST_0 = 0x03
+    private const val BIPUSH = 0x10
+    private const val SIPUSH = 0x11
+    private const val ALOAD_0 = 0x2a
+    private const val ALOAD_1 = 0x2b
+    private const val ALOAD_2 = 0x2c
+    private const val AALOAD = 0x32
+    private const val IRETURN = 0xac
+    private const val LRETURN = 0xad
+    private const val FRETURN = 0xae
+    private const val DRETURN = 0xaf
+    private const val ARETURN = 0xb0
+    private const val RETURN = 0xb1
+    private const val GETFIELD = 0xb4
+    private const val PUTFIELD = 0xb5
+    private const val INVOKEVIRTUAL = 0xb6
+    private const val INVOKESPECIAL = 0xb7
+    private const val CHECKCAST = 0xc0
+
+    /**
+     * Builds the constant pool of a class, deduplicating the entries
+     */
+    private class ConstantPool {
+        private val bytes = ByteArrayOutputStream()
+        private val out = DataOutputStream(bytes)
+        private val entries = mutableMapOf<List<Any>, Int>()
+        private var count = 1
+
+        private inline fun entry(key: List<Any>, write: DataOutputStream.() -> Unit): Int {
+            entries[key]?.let { return it }
+            out.write()
+            entries[key] = count
+            return count++
+        }
+
+        fun utf8(value: String): Int = entry(listOf(1, value)) {
+            writeByte(1)
+            writeUTF(value)
+        }
+
+        fun classRef(name: String): Int {
+            val nameIndex = utf8(name)
+            return entry(listOf(7, name)) {
+                writeByte(7)
+                writeShort(nameIndex)
+            }
+        }
+
+        private fun nameAndType(name: String, descriptor: String): Int {
+            val nameIndex = utf8(name)
+            val descriptorIndex = utf8(descriptor)
+            return entry(listOf(12, name, descriptor)) {
+                writeByte(12)
+                writeShort(nameIndex)
+                writeShort(descriptorIndex)
+            }
+        }
+
+        fun fieldRef(owner: String, name: String, descriptor: String): Int = memberRef(9, owner, name, descriptor)
+
+        fun methodRef(owner: String, name: String, descriptor: String): Int = memberRef(10, owner, name, descriptor)
+
+        private fun memberRef(tag: Int, owner: String, name: String, descriptor: String): Int {
+            val ownerIndex = classRef(owner)
+            val nameAndTypeIndex = nameAndType(name, descriptor)
+            return entry(listOf(tag, owner, name, descriptor)) {
+                writeByte(tag)
+                writeShort(ownerIndex)
+                writeShort(nameAndTypeIndex)
+            }
+        }
+
+        fun writeTo(out: DataOutputStream) {
+            out.writeShort(count)
+            out.write(bytes.toByteArray())
+        }
+    }
+
+    /**
+     * A class loader that defines a single generated class. It delegates to the annotation type's loader, except for
+     * [GeneratedAnnotation], which it gets from Mirror's loader.
+     */
+    private class GeneratingLoader(parent: ClassLoader?): ClassLoader(parent) {
+        override fun loadClass(name: String, resolve: Boolean): Class<*> {
+            return when(name) {
+                GeneratedAnnotation::class.java.name -> GeneratedAnnotation::class.java
+                GeneratedAnnotation.Schema::class.java.name -> GeneratedAnnotation.Schema::class.java
+                else -> super.loadClass(name, resolve)
+            }
+        }
+
+        fun define(name: String, bytes: ByteArray): Class<*> {
+            return defineClass(name, bytes, 0, bytes.size)
+        }
+    }
+}
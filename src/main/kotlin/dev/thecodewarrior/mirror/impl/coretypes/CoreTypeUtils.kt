@@ -79,6 +79,7 @@ internal object CoreTypeUtils {
     @Suppress("UNCHECKED_CAST")
     @Throws(AnnotationFormatException::class)
     fun <A: Annotation> createAnnotation(annotationType: Class<A>, values: Map<String, Any>?): A {
+        AnnotationClassGenerator.create(annotationType, values ?: emptyMap())?.let { return it }
         return Proxy.newProxyInstance(
             annotationType.classLoader,
             arrayOf<Class<*>>(annotationType),
@@ -1,12 +1,16 @@
 package dev.thecodewarrior.mirror.impl.member
 
+import dev.thecodewarrior.mirror.InvocationStrategy
 import dev.thecodewarrior.mirror.impl.MirrorCache
 import dev.thecodewarrior.mirror.impl.member.ExecutableSpecialization
 import dev.thecodewarrior.mirror.type.ClassMirror
 import dev.thecodewarrior.mirror.type.TypeMirror
+import dev.thecodewarrior.mirror.impl.utils.InvokerHelper
+import dev.thecodewarrior.mirror.impl.utils.Invokers
+import dev.thecodewarrior.mirror.impl.utils.LambdaMetafactoryHelper
+import dev.thecodewarrior.mirror.impl.utils.LazySlots
 import dev.thecodewarrior.mirror.impl.utils.MethodHandleHelper
 import dev.thecodewarrior.mirror.impl.utils.Untested
-import dev.thecodewarrior.mirror.impl.utils.unmodifiableView
 import dev.thecodewarrior.mirror.member.ConstructorMirror
 import dev.thecodewarrior.mirror.member.Modifier
 import java.lang.reflect.Constructor
@@ -20,21 +24,23 @@ internal class ConstructorMirrorImpl internal constructor(
     raw: ConstructorMirrorImpl?,
     specialization: ExecutableSpecialization?
 ): ExecutableMirrorImpl(cache, java, specialization), ConstructorMirror {
+    private val slots = LazySlots(SLOT_COUNT)
 
     override val raw: ConstructorMirrorImpl = raw ?: this
     override val name: String = java.name
-    override val modifiers: Set<Modifier> = Modifier.fromModifiers(java.modifiers).unmodifiableView()
-    override val access: Modifier.Access = Modifier.Access.fromModifiers(java.modifiers)
+    private val modifierMask: Int = java.modifiers
+    override val modifiers: Set<Modifier> get() = Modifier.fromModifiers(modifierMask)
+    override val access: Modifier.Access get() = Modifier.Access.fromModifiers(modifierMask)
     override val isVarArgs: Boolean = java.isVarArgs
     override val isSynthetic: Boolean = java.isSynthetic
 
-    override val isPublic: Boolean = Modifier.PUBLIC in modifiers
-    override val isProtected: Boolean = Modifier.PROTECTED in modifiers
-    override val isPrivate: Boolean = Modifier.PRIVATE in modifiers
-    override val isPackagePrivate: Boolean = !isPublic && !isProtected && !isPrivate
+    override val isPublic: Boolean get() = Modifier.PUBLIC.test(modifierMask)
+    override val isProtected: Boolean get() = Modifier.PROTECTED.test(modifierMask)
+    override val isPrivate: Boolean get() = Modifier.PRIVATE.test(modifierMask)
+    override val isPackagePrivate: Boolean get() = !isPublic && !isProtected && !isPrivate
     override val isInternalAccess: Boolean get() = kCallable?.visibility == KVisibility.INTERNAL
 
-    override val kCallable: KFunction<*>? by lazy {
+    override val kCallable: KFunction<*>? get() = slots.lazy(KCALLABLE) {
         declaringClass.kClass.constructors.find { it.javaConstructor == java }
     }
 
@@ -46,10 +52,27 @@ internal class ConstructorMirrorImpl internal constructor(
         return super.withDeclaringClass(enclosing) as ConstructorMirror
     }
 
-    private val wrapper by lazy {
+    private val generatedInvoker: Any? get() = slots.lazy(GENERATED_INVOKER) {
         java.isAccessible = true
-        @Suppress("UNCHECKED_CAST")
-        MethodHandleHelper.wrapperForConstructor(java as Constructor<Any>)
+        when(cache.invocationStrategy) {
+            InvocationStrategy.GENERATED -> LambdaMetafactoryHelper.invokerForConstructor(java)
+            InvocationStrategy.METHOD_HANDLE -> null
+        }
+    }
+    private val invoker: Any? get() = slots.lazy(INVOKER) {
+        generatedInvoker ?: MethodHandleHelper.invokerForConstructor(java)
+    }
+
+    /**
+     * The invoker [call] spreads its arguments onto. The method handle wrappers collect the trailing arguments of a
+     * varargs constructor into an array, so varargs constructors keep using them instead of the fixed-arity [invoker].
+     */
+    private val callInvoker: Any? get() = if(isVarArgs && generatedInvoker == null) null else invoker
+
+    @Suppress("UNCHECKED_CAST")
+    private val wrapper get() = slots.lazy(WRAPPER) {
+        callInvoker?.let { InvokerHelper.spreadStatic(it, java.parameterCount) }
+            ?: MethodHandleHelper.wrapperForConstructor(java as Constructor<Any>)
     }
 
     /**
@@ -61,6 +84,55 @@ internal class ConstructorMirrorImpl internal constructor(
         return raw.wrapper(args as Array<Any?>) as T
     }
 
+    private fun arityMismatch(count: Int): IllegalArgumentException {
+        return IllegalArgumentException("Expected ${java.parameterCount} arguments, but received $count")
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T : Any?> call0(): T {
+        return (raw.invoker as? Invokers.Invoker0 ?: throw arityMismatch(0)).invoke() as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T : Any?> call1(arg1: Any?): T {
+        return (raw.invoker as? Invokers.Invoker1 ?: throw arityMismatch(1)).invoke(arg1) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T : Any?> call2(arg1: Any?, arg2: Any?): T {
+        return (raw.invoker as? Invokers.Invoker2 ?: throw arityMismatch(2)).invoke(arg1, arg2) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T : Any?> call3(arg1: Any?, arg2: Any?, arg3: Any?): T {
+        return (raw.invoker as? Invokers.Invoker3 ?: throw arityMismatch(3)).invoke(arg1, arg2, arg3) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T : Any?> call4(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?): T {
+        return (raw.invoker as? Invokers.Invoker4 ?: throw arityMismatch(4)).invoke(arg1, arg2, arg3, arg4) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T : Any?> call5(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?): T {
+        return (raw.invoker as? Invokers.Invoker5 ?: throw arityMismatch(5)).invoke(arg1, arg2, arg3, arg4, arg5) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T : Any?> call6(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?): T {
+        return (raw.invoker as? Invokers.Invoker6 ?: throw arityMismatch(6)).invoke(arg1, arg2, arg3, arg4, arg5, arg6) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T : Any?> call7(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?, arg7: Any?): T {
+        return (raw.invoker as? Invokers.Invoker7 ?: throw arityMismatch(7)).invoke(arg1, arg2, arg3, arg4, arg5, arg6, arg7) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T : Any?> call8(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?, arg7: Any?, arg8: Any?): T {
+        return (raw.invoker as? Invokers.Invoker8 ?: throw arityMismatch(8)).invoke(arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8) as T
+    }
+
     @Untested
     override fun toString(): String {
         return ""
@@ -91,4 +163,13 @@ internal class ConstructorMirrorImpl internal constructor(
     override fun toKotlinDeclarationString(): String {
         TODO("Not yet implemented")
     }
+
+    private companion object {
+        // the slots of the lazy members
+        const val KCALLABLE = 0
+        const val GENERATED_INVOKER = 1
+        const val INVOKER = 2
+        const val WRAPPER = 3
+        const val SLOT_COUNT = 4
+    }
 }
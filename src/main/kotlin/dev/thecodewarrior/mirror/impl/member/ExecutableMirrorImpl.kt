@@ -7,6 +7,7 @@ import dev.thecodewarrior.mirror.impl.TypeMapping
 import dev.thecodewarrior.mirror.impl.member.ExecutableSpecialization
 import dev.thecodewarrior.mirror.impl.type.ClassMirrorImpl
 import dev.thecodewarrior.mirror.type.TypeMirror
+import dev.thecodewarrior.mirror.impl.utils.LazySlots
 import dev.thecodewarrior.mirror.impl.utils.unmodifiableView
 import dev.thecodewarrior.mirror.member.ExecutableMirror
 import dev.thecodewarrior.mirror.member.ParameterMirror
@@ -17,47 +18,48 @@ internal abstract class ExecutableMirrorImpl internal constructor(
     annotatedElement: AnnotatedElement,
     internal val specialization: ExecutableSpecialization?
 ): MemberMirrorImpl(cache, annotatedElement, specialization?.enclosing), ExecutableMirror {
+    private val slots = LazySlots(SLOT_COUNT)
 
-    override val returnType: TypeMirror by lazy {
+    override val returnType: TypeMirror get() = slots.lazy(RETURN_TYPE) {
         java.annotatedReturnType.let {
             genericMapping[cache.types.reflect(it)]
         }
     }
 
     // * **Note: this value is immutable**
-    override val parameters: List<ParameterMirror> by lazy {
+    override val parameters: List<ParameterMirror> get() = slots.lazy(PARAMETERS) {
         java.parameters.map {
             cache.parameters.reflect(it).withDeclaringExecutable(this)
         }.unmodifiableView()
     }
 
     // * **Note: this value is immutable**
-    override val parameterTypes: List<TypeMirror> by lazy {
+    override val parameterTypes: List<TypeMirror> get() = slots.lazy(PARAMETER_TYPES) {
         parameters.map { it.type }.unmodifiableView()
     }
 
     /**
      * Used to determine method override relationships
      */
-    override val erasedParameterTypes: List<Class<*>> by lazy {
+    override val erasedParameterTypes: List<Class<*>> get() = slots.lazy(ERASED_PARAMETER_TYPES) {
         parameterTypes.map { it.erasure }
     }
 
     // * **Note: this value is immutable**
-    override val exceptionTypes: List<TypeMirror> by lazy {
+    override val exceptionTypes: List<TypeMirror> get() = slots.lazy(EXCEPTION_TYPES) {
         java.annotatedExceptionTypes.map {
             genericMapping[cache.types.reflect(it)]
         }.unmodifiableView()
     }
 
     // * **Note: this value is immutable**
-    override val typeParameters: List<TypeMirror> by lazy {
+    override val typeParameters: List<TypeMirror> get() = slots.lazy(TYPE_PARAMETERS) {
         specialization?.arguments ?: java.typeParameters.map {
             cache.types.reflect(it)
         }.unmodifiableView()
     }
 
-    val genericMapping: TypeMapping by lazy {
+    val genericMapping: TypeMapping get() = slots.lazy(GENERIC_MAPPING) {
         TypeMapping(this.raw.typeParameters.zip(typeParameters).associate { it }) +
                 (specialization?.enclosing as ClassMirrorImpl?)?.genericMapping
     }
@@ -101,4 +103,16 @@ internal abstract class ExecutableMirrorImpl internal constructor(
         val newSpecialization = this.specialization?.copy(enclosing = enclosing) ?: ExecutableSpecialization(enclosing, null)
         return cache.executables.specialize(raw, newSpecialization)
     }
+
+    private companion object {
+        // the slots of the lazy members
+        const val RETURN_TYPE = 0
+        const val PARAMETERS = 1
+        const val PARAMETER_TYPES = 2
+        const val ERASED_PARAMETER_TYPES = 3
+        const val EXCEPTION_TYPES = 4
+        const val TYPE_PARAMETERS = 5
+        const val GENERIC_MAPPING = 6
+        const val SLOT_COUNT = 7
+    }
 }
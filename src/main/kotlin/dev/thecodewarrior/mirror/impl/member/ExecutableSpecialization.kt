@@ -7,6 +7,8 @@ import dev.thecodewarrior.mirror.impl.utils.unmodifiableCopy
 internal class ExecutableSpecialization(val enclosing: ClassMirror?, arguments: List<TypeMirror>?) {
     // * **Note: this value is immutable**
     val arguments: List<TypeMirror>? = arguments?.unmodifiableCopy()
+    // specializations are used as cache keys, so the hash is only computed once
+    private val hash: Int = 31 * enclosing.hashCode() + this.arguments.hashCode()
 
     fun copy(
         enclosing: ClassMirror? = this.enclosing,
@@ -19,15 +21,12 @@ internal class ExecutableSpecialization(val enclosing: ClassMirror?, arguments:
         if (this === other) return true
         if (other !is ExecutableSpecialization) return false
 
+        if (hash != other.hash) return false
         if (enclosing != other.enclosing) return false
         if (arguments != other.arguments) return false
 
         return true
     }
 
-    override fun hashCode(): Int {
-        var result = enclosing.hashCode()
-        result = 31 * result + arguments.hashCode()
-        return result
-    }
+    override fun hashCode(): Int = hash
 }
\ No newline at end of file
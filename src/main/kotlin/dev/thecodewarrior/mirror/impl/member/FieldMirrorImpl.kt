@@ -5,9 +5,10 @@ import dev.thecodewarrior.mirror.impl.MirrorCache
 import dev.thecodewarrior.mirror.impl.type.ClassMirrorImpl
 import dev.thecodewarrior.mirror.type.ClassMirror
 import dev.thecodewarrior.mirror.type.TypeMirror
+import dev.thecodewarrior.mirror.impl.utils.LazySlots
 import dev.thecodewarrior.mirror.impl.utils.MethodHandleHelper
+import dev.thecodewarrior.mirror.impl.utils.PrimitiveFieldAccessor
 import dev.thecodewarrior.mirror.impl.utils.Untested
-import dev.thecodewarrior.mirror.impl.utils.unmodifiableView
 import dev.thecodewarrior.mirror.member.FieldMirror
 import dev.thecodewarrior.mirror.member.Modifier
 import java.lang.reflect.Field
@@ -18,24 +19,26 @@ internal class FieldMirrorImpl internal constructor(
     override val java: Field,
     _enclosing: ClassMirror?
 ): MemberMirrorImpl(cache, java, _enclosing), FieldMirror {
+    private val slots = LazySlots(SLOT_COUNT)
 
     override val raw: FieldMirrorImpl = raw ?: this
     override val name: String = java.name
 
-    override val modifiers: Set<Modifier> = Modifier.fromModifiers(java.modifiers).unmodifiableView()
-    override val access: Modifier.Access = Modifier.Access.fromModifiers(java.modifiers)
-    override val isPublic: Boolean = Modifier.PUBLIC in modifiers
-    override val isProtected: Boolean = Modifier.PROTECTED in modifiers
-    override val isPrivate: Boolean = Modifier.PRIVATE in modifiers
-    override val isPackagePrivate: Boolean = !isPublic && !isProtected && !isPrivate
-    override val isStatic: Boolean = Modifier.STATIC in modifiers
-    override val isFinal: Boolean = Modifier.FINAL in modifiers
-    override val isTransient: Boolean = Modifier.TRANSIENT in modifiers
-    override val isVolatile: Boolean = Modifier.VOLATILE in modifiers
+    private val modifierMask: Int = java.modifiers
+    override val modifiers: Set<Modifier> get() = Modifier.fromModifiers(modifierMask)
+    override val access: Modifier.Access get() = Modifier.Access.fromModifiers(modifierMask)
+    override val isPublic: Boolean get() = Modifier.PUBLIC.test(modifierMask)
+    override val isProtected: Boolean get() = Modifier.PROTECTED.test(modifierMask)
+    override val isPrivate: Boolean get() = Modifier.PRIVATE.test(modifierMask)
+    override val isPackagePrivate: Boolean get() = !isPublic && !isProtected && !isPrivate
+    override val isStatic: Boolean get() = Modifier.STATIC.test(modifierMask)
+    override val isFinal: Boolean get() = Modifier.FINAL.test(modifierMask)
+    override val isTransient: Boolean get() = Modifier.TRANSIENT.test(modifierMask)
+    override val isVolatile: Boolean get() = Modifier.VOLATILE.test(modifierMask)
     override val isSynthetic: Boolean = java.isSynthetic
     override val isEnumConstant: Boolean = java.isEnumConstant
 
-    override val type: TypeMirror by lazy {
+    override val type: TypeMirror get() = slots.lazy(TYPE) {
         (declaringClass as ClassMirrorImpl).genericMapping[java.annotatedType.let { cache.types.reflect(it) }]
     }
 
@@ -46,11 +49,11 @@ internal class FieldMirrorImpl internal constructor(
         return if(enclosing == null || enclosing == raw.declaringClass) raw else cache.fields.specialize(this, enclosing)
     }
 
-    private val instanceGetWrapper by lazy {
+    private val instanceGetWrapper get() = slots.lazy(INSTANCE_GET_WRAPPER) {
         java.isAccessible = true
         MethodHandleHelper.wrapperForGetter(java)
     }
-    private val staticGetWrapper by lazy {
+    private val staticGetWrapper get() = slots.lazy(STATIC_GET_WRAPPER) {
         java.isAccessible = true
         MethodHandleHelper.wrapperForStaticGetter(java)
     }
@@ -64,11 +67,11 @@ internal class FieldMirrorImpl internal constructor(
         }
     }
 
-    private val instanceSetWrapper by lazy {
+    private val instanceSetWrapper get() = slots.lazy(INSTANCE_SET_WRAPPER) {
         java.isAccessible = true
         MethodHandleHelper.wrapperForSetter(java)
     }
-    private val staticSetWrapper by lazy {
+    private val staticSetWrapper get() = slots.lazy(STATIC_SET_WRAPPER) {
         java.isAccessible = true
         MethodHandleHelper.wrapperForStaticSetter(java)
     }
@@ -82,6 +85,29 @@ internal class FieldMirrorImpl internal constructor(
         }
     }
 
+    private val primitiveAccessor get() = slots.lazy(PRIMITIVE_ACCESSOR) {
+        java.isAccessible = true
+        PrimitiveFieldAccessor(java)
+    }
+
+    override fun getBoolean(receiver: Any?): Boolean = raw.primitiveAccessor.getBoolean(receiver)
+    override fun getByte(receiver: Any?): Byte = raw.primitiveAccessor.getByte(receiver)
+    override fun getChar(receiver: Any?): Char = raw.primitiveAccessor.getChar(receiver)
+    override fun getShort(receiver: Any?): Short = raw.primitiveAccessor.getShort(receiver)
+    override fun getInt(receiver: Any?): Int = raw.primitiveAccessor.getInt(receiver)
+    override fun getLong(receiver: Any?): Long = raw.primitiveAccessor.getLong(receiver)
+    override fun getFloat(receiver: Any?): Float = raw.primitiveAccessor.getFloat(receiver)
+    override fun getDouble(receiver: Any?): Double = raw.primitiveAccessor.getDouble(receiver)
+
+    override fun setBoolean(receiver: Any?, value: Boolean): Unit = raw.primitiveAccessor.setBoolean(receiver, value)
+    override fun setByte(receiver: Any?, value: Byte): Unit = raw.primitiveAccessor.setByte(receiver, value)
+    override fun setChar(receiver: Any?, value: Char): Unit = raw.primitiveAccessor.setChar(receiver, value)
+    override fun setShort(receiver: Any?, value: Short): Unit = raw.primitiveAccessor.setShort(receiver, value)
+    override fun setInt(receiver: Any?, value: Int): Unit = raw.primitiveAccessor.setInt(receiver, value)
+    override fun setLong(receiver: Any?, value: Long): Unit = raw.primitiveAccessor.setLong(receiver, value)
+    override fun setFloat(receiver: Any?, value: Float): Unit = raw.primitiveAccessor.setFloat(receiver, value)
+    override fun setDouble(receiver: Any?, value: Double): Unit = raw.primitiveAccessor.setDouble(receiver, value)
+
     @Untested
     override fun toString(): String {
         return ""
@@ -98,4 +124,15 @@ internal class FieldMirrorImpl internal constructor(
     override fun toKotlinDeclarationString(): String {
         TODO("Not yet implemented")
     }
+
+    private companion object {
+        // the slots of the lazy members
+        const val TYPE = 0
+        const val INSTANCE_GET_WRAPPER = 1
+        const val STATIC_GET_WRAPPER = 2
+        const val INSTANCE_SET_WRAPPER = 3
+        const val STATIC_SET_WRAPPER = 4
+        const val PRIMITIVE_ACCESSOR = 5
+        const val SLOT_COUNT = 6
+    }
 }
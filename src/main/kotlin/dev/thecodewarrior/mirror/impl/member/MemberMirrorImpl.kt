@@ -1,8 +1,11 @@
 package dev.thecodewarrior.mirror.impl.member
 
 import dev.thecodewarrior.mirror.InvalidSpecializationException
+import dev.thecodewarrior.mirror.impl.CacheTable
 import dev.thecodewarrior.mirror.impl.MirrorCache
+import dev.thecodewarrior.mirror.impl.SpecializationTable
 import dev.thecodewarrior.mirror.impl.util.ElementBackedAnnotationListImpl
+import dev.thecodewarrior.mirror.impl.utils.LazySlots
 import dev.thecodewarrior.mirror.impl.utils.Untested
 import dev.thecodewarrior.mirror.member.MemberMirror
 import dev.thecodewarrior.mirror.type.ClassMirror
@@ -13,21 +16,25 @@ import java.lang.reflect.Member
 internal abstract class MemberMirrorImpl internal constructor(
     val cache: MirrorCache,
     val annotatedElement: AnnotatedElement,
-    _enclosing: ClassMirror?
-): MemberMirror {
+    private val _enclosing: ClassMirror?
+): MemberMirror, SpecializationTable.Holder {
+    private val slots = LazySlots(SLOT_COUNT)
+
+    @Volatile
+    override var specializations: CacheTable<*, *>? = null
     @Untested
     override val isKotlinMember: Boolean
         get() = declaringClass.isKotlinClass
 
-    override val declaringClass: ClassMirror by lazy {
+    override val declaringClass: ClassMirror get() = slots.lazy(DECLARING_CLASS) {
         _enclosing ?: cache.types.reflect(java.declaringClass) as ClassMirror
     }
 
-    override val annotations: AnnotationList by lazy {
+    override val annotations: AnnotationList get() = slots.lazy(ANNOTATIONS) {
         ElementBackedAnnotationListImpl(annotatedElement, false)
     }
 
-    override val declaredAnnotations: AnnotationList by lazy {
+    override val declaredAnnotations: AnnotationList get() = slots.lazy(DECLARED_ANNOTATIONS) {
         ElementBackedAnnotationListImpl(annotatedElement, false)
     }
 
@@ -38,4 +45,12 @@ internal abstract class MemberMirrorImpl internal constructor(
             toJavaDeclarationString()
         }
     }
+
+    private companion object {
+        // the slots of the lazy members
+        const val DECLARING_CLASS = 0
+        const val ANNOTATIONS = 1
+        const val DECLARED_ANNOTATIONS = 2
+        const val SLOT_COUNT = 3
+    }
 }
@@ -1,12 +1,17 @@
 package dev.thecodewarrior.mirror.impl.member
 
+import dev.thecodewarrior.mirror.InvocationStrategy
 import dev.thecodewarrior.mirror.impl.MirrorCache
 import dev.thecodewarrior.mirror.impl.member.ExecutableSpecialization
+import dev.thecodewarrior.mirror.impl.type.ClassMirrorImpl
 import dev.thecodewarrior.mirror.type.ClassMirror
 import dev.thecodewarrior.mirror.type.TypeMirror
+import dev.thecodewarrior.mirror.impl.utils.InvokerHelper
+import dev.thecodewarrior.mirror.impl.utils.Invokers
+import dev.thecodewarrior.mirror.impl.utils.LambdaMetafactoryHelper
+import dev.thecodewarrior.mirror.impl.utils.LazySlots
 import dev.thecodewarrior.mirror.impl.utils.MethodHandleHelper
 import dev.thecodewarrior.mirror.impl.utils.Untested
-import dev.thecodewarrior.mirror.impl.utils.unmodifiableView
 import dev.thecodewarrior.mirror.member.MethodMirror
 import dev.thecodewarrior.mirror.member.Modifier
 import java.lang.reflect.AnnotatedElement
@@ -22,30 +27,32 @@ internal class MethodMirrorImpl internal constructor(
     raw: MethodMirrorImpl?,
     specialization: ExecutableSpecialization?
 ): ExecutableMirrorImpl(cache, java, specialization), MethodMirror {
+    private val slots = LazySlots(SLOT_COUNT)
 
     override val raw: MethodMirrorImpl = raw ?: this
     override val name: String = java.name
-    override val modifiers: Set<Modifier> = Modifier.fromMethodModifiers(java.modifiers).unmodifiableView()
-    override val access: Modifier.Access = Modifier.Access.fromModifiers(java.modifiers)
+    private val modifierMask: Int = Modifier.methodModifiers(java.modifiers)
+    override val modifiers: Set<Modifier> get() = Modifier.fromModifiers(modifierMask)
+    override val access: Modifier.Access get() = Modifier.Access.fromModifiers(modifierMask)
     override val isVarArgs: Boolean = java.isVarArgs
     override val isSynthetic: Boolean = java.isSynthetic
     override val isInternalAccess: Boolean get() = kCallable?.visibility == KVisibility.INTERNAL
 
-    override val kCallable: KFunction<*>? by lazy {
+    override val kCallable: KFunction<*>? get() = slots.lazy(KCALLABLE) {
         declaringClass.kClass.functions.find { it.javaMethod == java }
     }
 
-    override val isPublic: Boolean = Modifier.PUBLIC in modifiers
-    override val isProtected: Boolean = Modifier.PROTECTED in modifiers
-    override val isPrivate: Boolean = Modifier.PRIVATE in modifiers
-    override val isPackagePrivate: Boolean = !isPublic && !isProtected && !isPrivate
+    override val isPublic: Boolean get() = Modifier.PUBLIC.test(modifierMask)
+    override val isProtected: Boolean get() = Modifier.PROTECTED.test(modifierMask)
+    override val isPrivate: Boolean get() = Modifier.PRIVATE.test(modifierMask)
+    override val isPackagePrivate: Boolean get() = !isPublic && !isProtected && !isPrivate
 
-    override val isAbstract: Boolean = Modifier.ABSTRACT in modifiers
-    override val isStatic: Boolean = Modifier.STATIC in modifiers
-    override val isFinal: Boolean = Modifier.FINAL in modifiers
-    override val isStrict: Boolean = Modifier.STRICT in modifiers
-    override val isSynchronized: Boolean = Modifier.SYNCHRONIZED in modifiers
-    override val isNative: Boolean = Modifier.NATIVE in modifiers
+    override val isAbstract: Boolean get() = Modifier.ABSTRACT.test(modifierMask)
+    override val isStatic: Boolean get() = Modifier.STATIC.test(modifierMask)
+    override val isFinal: Boolean get() = Modifier.FINAL.test(modifierMask)
+    override val isStrict: Boolean get() = Modifier.STRICT.test(modifierMask)
+    override val isSynchronized: Boolean get() = Modifier.SYNCHRONIZED.test(modifierMask)
+    override val isNative: Boolean get() = Modifier.NATIVE.test(modifierMask)
     override val isBridge: Boolean = java.isBridge
     override val isDefault: Boolean = java.isDefault
     override val defaultValue: Any? = java.defaultValue
@@ -58,20 +65,41 @@ internal class MethodMirrorImpl internal constructor(
         return super.withDeclaringClass(enclosing) as MethodMirror
     }
 
-    private val instanceWrapper by lazy {
+    private val generatedInvoker: Any? get() = slots.lazy(GENERATED_INVOKER) {
         java.isAccessible = true
-        MethodHandleHelper.wrapperForMethod(java)
+        when(cache.invocationStrategy) {
+            InvocationStrategy.GENERATED -> LambdaMetafactoryHelper.invokerForMethod(java)
+            InvocationStrategy.METHOD_HANDLE -> null
+        }
     }
-    private val staticWrapper by lazy {
-        java.isAccessible = true
-        MethodHandleHelper.wrapperForStaticMethod(java)
+    private val invoker: Any? get() = slots.lazy(INVOKER) {
+        generatedInvoker ?: MethodHandleHelper.invokerForMethod(java)
+    }
+
+    /**
+     * The invoker [call] spreads its arguments onto. The method handle wrappers collect the trailing arguments of a
+     * varargs method into an array, so varargs methods keep using them instead of the fixed-arity [invoker].
+     */
+    private val callInvoker: Any? get() = if(isVarArgs && generatedInvoker == null) null else invoker
+
+    private val instanceWrapper get() = slots.lazy(INSTANCE_WRAPPER) {
+        callInvoker?.let { InvokerHelper.spreadInstance(it, java.parameterCount + 1) }
+            ?: MethodHandleHelper.wrapperForMethod(java)
+    }
+    private val staticWrapper get() = slots.lazy(STATIC_WRAPPER) {
+        callInvoker?.let { InvokerHelper.spreadStatic(it, java.parameterCount) }
+            ?: MethodHandleHelper.wrapperForStaticMethod(java)
     }
 
     @Untested
-    override val overrides: MethodMirror? by lazy {
+    override val overrides: MethodMirror? get() = slots.lazy(OVERRIDES) {
         if(this != this.raw)
             return@lazy this.raw.overrides?.let { declaringClass.getMethod(it.java) }
 
+        val snapshot = (declaringClass as ClassMirrorImpl).snapshotOverrides
+        if(snapshot != null && java in snapshot)
+            return@lazy snapshot[java]
+
         generateSequence(declaringClass.superclass) { it.superclass }.forEach { cls ->
             cls.declaredMethods.find { base ->
                 base.name == this.name &&
@@ -122,6 +150,82 @@ internal class MethodMirrorImpl internal constructor(
         }
     }
 
+    private fun arityMismatch(count: Int): IllegalArgumentException {
+        return IllegalArgumentException("Expected ${java.parameterCount} arguments, but received $count")
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> call0(receiver: Any?): T {
+        return if(isStatic)
+            (raw.invoker as? Invokers.Invoker0 ?: throw arityMismatch(0)).invoke() as T
+        else
+            (raw.invoker as? Invokers.Invoker1 ?: throw arityMismatch(0)).invoke(receiver!!) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> call1(receiver: Any?, arg1: Any?): T {
+        return if(isStatic)
+            (raw.invoker as? Invokers.Invoker1 ?: throw arityMismatch(1)).invoke(arg1) as T
+        else
+            (raw.invoker as? Invokers.Invoker2 ?: throw arityMismatch(1)).invoke(receiver!!, arg1) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> call2(receiver: Any?, arg1: Any?, arg2: Any?): T {
+        return if(isStatic)
+            (raw.invoker as? Invokers.Invoker2 ?: throw arityMismatch(2)).invoke(arg1, arg2) as T
+        else
+            (raw.invoker as? Invokers.Invoker3 ?: throw arityMismatch(2)).invoke(receiver!!, arg1, arg2) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> call3(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?): T {
+        return if(isStatic)
+            (raw.invoker as? Invokers.Invoker3 ?: throw arityMismatch(3)).invoke(arg1, arg2, arg3) as T
+        else
+            (raw.invoker as? Invokers.Invoker4 ?: throw arityMismatch(3)).invoke(receiver!!, arg1, arg2, arg3) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> call4(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?): T {
+        return if(isStatic)
+            (raw.invoker as? Invokers.Invoker4 ?: throw arityMismatch(4)).invoke(arg1, arg2, arg3, arg4) as T
+        else
+            (raw.invoker as? Invokers.Invoker5 ?: throw arityMismatch(4)).invoke(receiver!!, arg1, arg2, arg3, arg4) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> call5(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?): T {
+        return if(isStatic)
+            (raw.invoker as? Invokers.Invoker5 ?: throw arityMismatch(5)).invoke(arg1, arg2, arg3, arg4, arg5) as T
+        else
+            (raw.invoker as? Invokers.Invoker6 ?: throw arityMismatch(5)).invoke(receiver!!, arg1, arg2, arg3, arg4, arg5) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> call6(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?): T {
+        return if(isStatic)
+            (raw.invoker as? Invokers.Invoker6 ?: throw arityMismatch(6)).invoke(arg1, arg2, arg3, arg4, arg5, arg6) as T
+        else
+            (raw.invoker as? Invokers.Invoker7 ?: throw arityMismatch(6)).invoke(receiver!!, arg1, arg2, arg3, arg4, arg5, arg6) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> call7(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?, arg7: Any?): T {
+        return if(isStatic)
+            (raw.invoker as? Invokers.Invoker7 ?: throw arityMismatch(7)).invoke(arg1, arg2, arg3, arg4, arg5, arg6, arg7) as T
+        else
+            (raw.invoker as? Invokers.Invoker8 ?: throw arityMismatch(7)).invoke(receiver!!, arg1, arg2, arg3, arg4, arg5, arg6, arg7) as T
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    override fun <T> call8(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?, arg7: Any?, arg8: Any?): T {
+        return if(isStatic)
+            (raw.invoker as? Invokers.Invoker8 ?: throw arityMismatch(8)).invoke(arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8) as T
+        else
+            (raw.invoker as? Invokers.Invoker9 ?: throw arityMismatch(8)).invoke(receiver!!, arg1, arg2, arg3, arg4, arg5, arg6, arg7, arg8) as T
+    }
+
     @Untested
     override fun toString(): String {
         return ""
@@ -150,4 +254,15 @@ internal class MethodMirrorImpl internal constructor(
     override fun toKotlinDeclarationString(): String {
         TODO("Not yet implemented")
     }
+
+    private companion object {
+        // the slots of the lazy members
+        const val KCALLABLE = 0
+        const val GENERATED_INVOKER = 1
+        const val INVOKER = 2
+        const val INSTANCE_WRAPPER = 3
+        const val STATIC_WRAPPER = 4
+        const val OVERRIDES = 5
+        const val SLOT_COUNT = 6
+    }
 }
@@ -1,12 +1,15 @@
 package dev.thecodewarrior.mirror.impl.member
 
 import dev.thecodewarrior.mirror.InvalidSpecializationException
+import dev.thecodewarrior.mirror.impl.CacheTable
 import dev.thecodewarrior.mirror.impl.MirrorCache
+import dev.thecodewarrior.mirror.impl.SpecializationTable
 import dev.thecodewarrior.mirror.type.ArrayMirror
 import dev.thecodewarrior.mirror.impl.TypeMapping
 import dev.thecodewarrior.mirror.impl.member.ExecutableMirrorImpl
 import dev.thecodewarrior.mirror.impl.util.ElementBackedAnnotationListImpl
 import dev.thecodewarrior.mirror.type.TypeMirror
+import dev.thecodewarrior.mirror.impl.utils.LazySlots
 import dev.thecodewarrior.mirror.impl.utils.Untested
 import dev.thecodewarrior.mirror.member.ConstructorMirror
 import dev.thecodewarrior.mirror.member.ExecutableMirror
@@ -19,9 +22,13 @@ import java.lang.reflect.Parameter
 internal class ParameterMirrorImpl(
     internal val cache: MirrorCache,
     raw: ParameterMirrorImpl?,
-    _declaringExecutable: ExecutableMirror?,
+    private val _declaringExecutable: ExecutableMirror?,
     override val java: Parameter
-): ParameterMirror {
+): ParameterMirror, SpecializationTable.Holder {
+    private val slots = LazySlots(SLOT_COUNT)
+
+    @Volatile
+    override var specializations: CacheTable<*, *>? = null
 
     override val raw: ParameterMirror = raw ?: this
 
@@ -29,31 +36,31 @@ internal class ParameterMirrorImpl(
     override val name: String = java.name
     override val index: Int = java.declaringExecutable.parameters.indexOf(java)
 
-    override val isFinal: Boolean = Modifier.FINAL in Modifier.fromModifiers(java.modifiers)
+    override val isFinal: Boolean = Modifier.FINAL.test(java.modifiers)
 
     @Untested
     override val isVarArgs: Boolean = java.isVarArgs
 
     @Untested
-    override val declaringExecutable: ExecutableMirror by lazy {
+    override val declaringExecutable: ExecutableMirror get() = slots.lazy(DECLARING_EXECUTABLE) {
         _declaringExecutable ?: cache.executables.reflect(java.declaringExecutable)
     }
 
-    override val type: TypeMirror by lazy {
+    override val type: TypeMirror get() = slots.lazy(TYPE) {
         java.annotatedType.let {
             genericMapping[cache.types.reflect(it)]
         }
     }
 
-    override val annotations: AnnotationList by lazy {
+    override val annotations: AnnotationList get() = slots.lazy(ANNOTATIONS) {
         ElementBackedAnnotationListImpl(java, false)
     }
 
-    override val declaredAnnotations: AnnotationList by lazy {
+    override val declaredAnnotations: AnnotationList get() = slots.lazy(DECLARED_ANNOTATIONS) {
         ElementBackedAnnotationListImpl(java, false)
     }
 
-    private val genericMapping: TypeMapping by lazy {
+    private val genericMapping: TypeMapping get() = slots.lazy(GENERIC_MAPPING) {
         TypeMapping(emptyMap()) + (declaringExecutable as ExecutableMirrorImpl?)?.genericMapping
     }
 
@@ -96,4 +103,14 @@ internal class ParameterMirrorImpl(
     override fun toKotlinDeclarationString(): String {
         TODO("Not yet implemented")
     }
+
+    private companion object {
+        // the slots of the lazy members
+        const val DECLARING_EXECUTABLE = 0
+        const val TYPE = 1
+        const val ANNOTATIONS = 2
+        const val DECLARED_ANNOTATIONS = 3
+        const val GENERIC_MAPPING = 4
+        const val SLOT_COUNT = 5
+    }
 }
@@ -0,0 +1,80 @@
+package dev.thecodewarrior.mirror.impl.type
+
+import dev.thecodewarrior.mirror.impl.utils.unmodifiableView
+import dev.thecodewarrior.mirror.member.ConstructorMirror
+import dev.thecodewarrior.mirror.member.ExecutableMirror
+import dev.thecodewarrior.mirror.member.FieldMirror
+import dev.thecodewarrior.mirror.member.MemberMirror
+import dev.thecodewarrior.mirror.member.MethodMirror
+import dev.thecodewarrior.mirror.member.ParameterMirror
+import dev.thecodewarrior.mirror.util.AnnotationList
+
+/**
+ * The members of a class indexed by the types of the annotations present on them, built in a single pass over the
+ * passed lists. Each member is listed under every annotation type [present][AnnotationList.isPresent] on it, so
+ * repeated annotations are listed under their container type. The lists keep the order of the passed lists.
+ */
+internal class AnnotatedMemberIndex(
+    methods: List<MethodMirror>,
+    fields: List<FieldMirror>,
+    constructors: List<ConstructorMirror>
+) {
+    private class Entry {
+        val members = mutableListOf<MemberMirror>()
+        val methods = mutableListOf<MethodMirror>()
+        val fields = mutableListOf<FieldMirror>()
+        val parameters = mutableListOf<ParameterMirror>()
+
+        val membersView: List<MemberMirror> = members.unmodifiableView()
+        val methodsView: List<MethodMirror> = methods.unmodifiableView()
+        val fieldsView: List<FieldMirror> = fields.unmodifiableView()
+        val parametersView: List<ParameterMirror> = parameters.unmodifiableView()
+    }
+
+    private val index: Map<Class<out Annotation>, Entry>
+
+    init {
+        val index = HashMap<Class<out Annotation>, Entry>()
+        fun entries(annotations: AnnotationList): List<Entry> {
+            if(annotations.isEmpty())
+                return emptyList()
+            return annotations.map { it.annotationClass.java }.distinct().map { index.getOrPut(it) { Entry() } }
+        }
+        fun addParameters(executable: ExecutableMirror) {
+            for(parameter in executable.parameters) {
+                entries(parameter.annotations).forEach { it.parameters.add(parameter) }
+            }
+        }
+
+        for(method in methods) {
+            entries(method.annotations).forEach {
+                it.members.add(method)
+                it.methods.add(method)
+            }
+            addParameters(method)
+        }
+        for(field in fields) {
+            entries(field.annotations).forEach {
+                it.members.add(field)
+                it.fields.add(field)
+            }
+        }
+        for(constructor in constructors) {
+            entries(constructor.annotations).forEach { it.members.add(constructor) }
+            addParameters(constructor)
+        }
+        this.index = index
+    }
+
+    fun members(annotationClass: Class<out Annotation>): List<MemberMirror> =
+        index[annotationClass]?.membersView ?: emptyList()
+
+    fun methods(annotationClass: Class<out Annotation>): List<MethodMirror> =
+        index[annotationClass]?.methodsView ?: emptyList()
+
+    fun fields(annotationClass: Class<out Annotation>): List<FieldMirror> =
+        index[annotationClass]?.fieldsView ?: emptyList()
+
+    fun parameters(annotationClass: Class<out Annotation>): List<ParameterMirror> =
+        index[annotationClass]?.parametersView ?: emptyList()
+}
@@ -8,6 +8,7 @@ import dev.thecodewarrior.mirror.impl.coretypes.TypeImplAccess
 import dev.thecodewarrior.mirror.type.ArrayMirror
 import dev.thecodewarrior.mirror.type.TypeMirror
 import dev.thecodewarrior.mirror.impl.utils.Untested
+import dev.thecodewarrior.mirror.impl.utils.lockFreeLazy
 import java.lang.reflect.AnnotatedArrayType
 import java.lang.reflect.Type
 
@@ -18,7 +19,7 @@ internal class ArrayMirrorImpl internal constructor(
     override val specialization: TypeSpecialization.Array?
 ): TypeMirrorImpl(), ArrayMirror {
 
-    override val component: TypeMirror by lazy {
+    override val component: TypeMirror by lockFreeLazy {
         specialization?.component
             ?: cache.types.reflect(
                 java.componentType
@@ -62,7 +63,9 @@ internal class ArrayMirrorImpl internal constructor(
         if(other == this) return true
         if (other !is ArrayMirror)
             return false
-        return component.isAssignableFrom(other.component)
+        return AssignabilityCache.get(this, other as ArrayMirrorImpl) {
+            component.isAssignableFrom(other.component)
+        }
     }
 
     override fun newInstance(length: Int): Any {
@@ -0,0 +1,165 @@
+package dev.thecodewarrior.mirror.impl.type
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * A fixed-size, lock-free cache of [isAssignableFrom][dev.thecodewarrior.mirror.type.TypeMirror.isAssignableFrom]
+ * results shared by every type mirror.
+ *
+ * Type mirrors are given ids the first time they're checked, and each entry packs the ids of both mirrors and the
+ * result into a single long, so an entry is always read and written atomically:
+ * ```
+ * | 30 bits: target id | 30 bits: source id | 1 bit: epoch | 1 bit: referenced | 1 bit: result | 1 bit: present |
+ * ```
+ * The table is split into buckets of [BUCKET_SIZE] entries, and a key can only be stored in its own bucket. When a
+ * bucket is full, the entry to replace is picked using the clock algorithm: entries that have been read since the
+ * last sweep get their referenced bit cleared and survive, and the first one that hasn't been is replaced.
+ *
+ * Ids aren't tracked, so entries for mirrors that have been collected are simply replaced as the cache churns. Once
+ * all 2^30 ids have been handed out, a new epoch starts: the table is cleared, ids start over from zero, and every
+ * mirror is given a new id the next time it's checked. The low bit of the epoch is part of the key, so an entry stored
+ * by a thread that raced with the clear can't be mistaken for one from the new epoch.
+ */
+internal object AssignabilityCache {
+    private const val CAPACITY = 1 shl 14
+    private const val BUCKET_SIZE = 4
+    private const val ID_BITS = 30
+    private const val MAX_ID = (1 shl ID_BITS) - 1
+
+    private const val PRESENT = 1L
+    private const val RESULT = 2L
+    private const val REFERENCED = 4L
+    private const val FLAG_BITS = 3
+
+    const val NO_KEY = -1L
+    const val MISS = 0
+    const val HIT_TRUE = 1
+    const val HIT_FALSE = 2
+
+    /**
+     * The current epoch in the upper 32 bits, and the next id to hand out in it in the lower 32 bits. Epochs start at
+     * one, so a mirror's initial id of zero never belongs to the current epoch.
+     */
+    private val ids = AtomicLong(1L shl 32)
+    private val table = AtomicLongArray(CAPACITY)
+
+    /**
+     * Returns the cached result of `target.isAssignableFrom(source)`, or computes and caches it
+     */
+    inline fun get(target: TypeMirrorImpl, source: TypeMirrorImpl, compute: () -> Boolean): Boolean {
+        val key = keyOf(target, source)
+        if(key == NO_KEY)
+            return compute()
+        val cached = find(key)
+        if(cached != MISS)
+            return cached == HIT_TRUE
+        val result = compute()
+        store(key, result)
+        return result
+    }
+
+    /**
+     * Returns the key for the passed mirrors, assigning them ids in the current epoch if necessary. Returns [NO_KEY]
+     * if a new epoch started while assigning them.
+     */
+    fun keyOf(target: TypeMirrorImpl, source: TypeMirrorImpl): Long {
+        val epoch = ids.get() ushr 32
+        val targetId = idOf(target, epoch)
+        val sourceId = idOf(source, epoch)
+        if(targetId ushr 32 != epoch || sourceId ushr 32 != epoch)
+            return NO_KEY
+        return key(targetId.toInt(), sourceId.toInt(), epoch.toInt())
+    }
+
+    private fun idOf(mirror: TypeMirrorImpl, epoch: Long): Long {
+        val id = mirror.assignabilityId
+        if(id ushr 32 == epoch)
+            return id
+        // if two threads race to assign an id only one of them sticks, and the other one is never handed out again
+        // this epoch, so entries stored using it are just never hit
+        val assigned = allocate()
+        mirror.assignabilityId = assigned
+        return assigned
+    }
+
+    /**
+     * Allocates a new id, starting a new epoch if the current one has run out
+     */
+    private fun allocate(): Long {
+        while(true) {
+            val current = ids.get()
+            if(current.toInt() <= MAX_ID) {
+                if(ids.compareAndSet(current, current + 1))
+                    return current
+            } else if(ids.compareAndSet(current, ((current ushr 32) + 1) shl 32)) {
+                for(i in 0 until CAPACITY) {
+                    table.set(i, 0L)
+                }
+            }
+        }
+    }
+
+    /**
+     * Packs the passed ids and the low bit of the epoch into a key, or returns [NO_KEY] if either of the ids doesn't
+     * fit
+     */
+    fun key(target: Int, source: Int, epoch: Int): Long {
+        if(target !in 0..MAX_ID || source !in 0..MAX_ID)
+            return NO_KEY
+        return (target.toLong() shl (ID_BITS + 1)) or (source.toLong() shl 1) or (epoch and 1).toLong()
+    }
+
+    /**
+     * Looks up the passed key, returning [MISS], [HIT_TRUE], or [HIT_FALSE]
+     */
+    fun find(key: Long): Int {
+        val bucket = bucketOf(key)
+        for(i in bucket until bucket + BUCKET_SIZE) {
+            val entry = table.get(i)
+            if(entry and PRESENT != 0L && entry ushr FLAG_BITS == key) {
+                // marking the entry is best-effort, losing the race just means it might be evicted a little early
+                if(entry and REFERENCED == 0L)
+                    table.compareAndSet(i, entry, entry or REFERENCED)
+                return if(entry and RESULT != 0L) HIT_TRUE else HIT_FALSE
+            }
+        }
+        return MISS
+    }
+
+    /**
+     * Stores the result for the passed key, evicting another entry in its bucket if it's full
+     */
+    fun store(key: Long, result: Boolean) {
+        val entry = (key shl FLAG_BITS) or PRESENT or (if(result) RESULT else 0L)
+        val bucket = bucketOf(key)
+        for(i in bucket until bucket + BUCKET_SIZE) {
+            val existing = table.get(i)
+            if(existing and PRESENT == 0L && table.compareAndSet(i, existing, entry))
+                return
+            if(existing and PRESENT != 0L && existing ushr FLAG_BITS == key)
+                return // another thread already stored it
+        }
+        // the bucket is full, so sweep it starting from a position that varies by key, giving every entry that's
+        // been read a second chance
+        val start = (key xor (key ushr 17)).toInt() and (BUCKET_SIZE - 1)
+        for(offset in 0 until BUCKET_SIZE) {
+            val i = bucket + ((start + offset) and (BUCKET_SIZE - 1))
+            val existing = table.get(i)
+            if(existing and REFERENCED != 0L) {
+                table.compareAndSet(i, existing, existing and REFERENCED.inv())
+            } else if(table.compareAndSet(i, existing, entry)) {
+                return
+            }
+        }
+        // every entry had been read, and now they've all been cleared, so replace the one we started at
+        table.set(bucket + start, entry)
+    }
+
+    private fun bucketOf(key: Long): Int {
+        // mix the key so consecutive ids don't all land in neighboring buckets
+        var hash = key * -0x61c8864680b583ebL
+        hash = hash xor (hash ushr 32)
+        return (hash.toInt() and (CAPACITY - 1)) and (BUCKET_SIZE - 1).inv()
+    }
+}
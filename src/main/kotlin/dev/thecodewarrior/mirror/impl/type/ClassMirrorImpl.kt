@@ -1,6 +1,7 @@
 package dev.thecodewarrior.mirror.impl.type
 
 import dev.thecodewarrior.mirror.InvalidSpecializationException
+import dev.thecodewarrior.mirror.impl.MetadataSnapshot
 import dev.thecodewarrior.mirror.impl.MirrorCache
 import dev.thecodewarrior.mirror.NoSuchMirrorException
 import dev.thecodewarrior.mirror.impl.coretypes.CoreTypeUtils
@@ -8,7 +9,10 @@ import dev.thecodewarrior.mirror.impl.coretypes.TypeImplAccess
 import dev.thecodewarrior.mirror.member.ConstructorMirror
 import dev.thecodewarrior.mirror.member.ExecutableMirror
 import dev.thecodewarrior.mirror.member.FieldMirror
+import dev.thecodewarrior.mirror.member.MemberMirror
 import dev.thecodewarrior.mirror.member.MethodMirror
+import dev.thecodewarrior.mirror.member.ParameterMirror
+import dev.thecodewarrior.mirror.member.JvmModifier
 import dev.thecodewarrior.mirror.member.Modifier
 import dev.thecodewarrior.mirror.type.*
 import dev.thecodewarrior.mirror.type.ClassMirror.Flag
@@ -16,6 +20,8 @@ import dev.thecodewarrior.mirror.impl.TypeMapping
 import dev.thecodewarrior.mirror.impl.member.ExecutableMirrorImpl
 import dev.thecodewarrior.mirror.impl.util.ElementBackedAnnotationListImpl
 import dev.thecodewarrior.mirror.type.MethodList
+import dev.thecodewarrior.mirror.impl.utils.LazySlots
+import dev.thecodewarrior.mirror.impl.utils.MaskSet
 import dev.thecodewarrior.mirror.impl.utils.Untested
 import dev.thecodewarrior.mirror.impl.utils.checkedCast
 import dev.thecodewarrior.mirror.impl.utils.jvmName
@@ -42,6 +48,8 @@ internal class ClassMirrorImpl internal constructor(
     raw: ClassMirror?,
     override val specialization: TypeSpecialization.Class?
 ): TypeMirrorImpl(), ClassMirror {
+    private val slots = LazySlots(SLOT_COUNT)
+
     override val coreType: Type
     override val coreAnnotatedType: AnnotatedType
 
@@ -87,34 +95,35 @@ internal class ClassMirrorImpl internal constructor(
     }
 
     override val raw: ClassMirror = raw ?: this
+    private val data: ClassData = (raw as ClassMirrorImpl?)?.data ?: ClassData(java)
 
 //region Specialization =========================================================================================================
 
-    override val superclass: ClassMirror? by lazy {
+    override val superclass: ClassMirror? get() = slots.lazy(SUPERCLASS) {
         java.annotatedSuperclass?.let {
             this.genericMapping[cache.types.reflect(it)] as ClassMirror
         }
     }
 
-    override val interfaces: List<ClassMirror> by lazy {
+    override val interfaces: List<ClassMirror> get() = slots.lazy(INTERFACES) {
         java.annotatedInterfaces.map {
             this.genericMapping[cache.types.reflect(it)] as ClassMirror
         }.unmodifiableView()
     }
 
-    override val typeParameters: List<TypeMirror> by lazy {
+    override val typeParameters: List<TypeMirror> get() = slots.lazy(TYPE_PARAMETERS) {
         specialization?.arguments ?: java.typeParameters.map { cache.types.reflect(it) }.unmodifiableView()
     }
 
-    override val enclosingClass: ClassMirror? by lazy {
+    override val enclosingClass: ClassMirror? get() = slots.lazy(ENCLOSING_CLASS) {
         specialization?.enclosingClass ?: java.enclosingClass?.let { cache.types.reflect(it) as ClassMirror }
     }
 
-    override val enclosingExecutable: ExecutableMirror? by lazy {
+    override val enclosingExecutable: ExecutableMirror? get() = slots.lazy(ENCLOSING_EXECUTABLE) {
         specialization?.enclosingExecutable ?: (java.enclosingMethod ?: java.enclosingConstructor)?.let { cache.executables.reflect(it) }
     }
 
-    val genericMapping: TypeMapping by lazy {
+    val genericMapping: TypeMapping get() = slots.lazy(GENERIC_MAPPING) {
         TypeMapping(this.raw.typeParameters.zip(typeParameters).associate { it }) +
                 (enclosingClass as ClassMirrorImpl?)?.genericMapping +
                 (enclosingExecutable as ExecutableMirrorImpl?)?.genericMapping
@@ -126,9 +135,9 @@ internal class ClassMirrorImpl internal constructor(
         if(parameters.size != typeParameters.size && parameters.isNotEmpty())
             throw InvalidSpecializationException("Passed parameter count ${parameters.size} is different from class type " +
                     "parameter count ${typeParameters.size}")
-        val newSpecialization = (specialization ?: defaultSpecialization())
-            .copy(arguments = if(parameters.isEmpty()) null else parameters.toList())
-        return cache.types.specialize(raw, newSpecialization) as ClassMirror
+        return cache.types.specializeArguments(
+            raw as ClassMirrorImpl, specialization ?: defaultSpecialization(), parameters
+        ) as ClassMirror
     }
 
     override fun withEnclosingClass(enclosing: ClassMirror?): ClassMirror {
@@ -170,15 +179,33 @@ internal class ClassMirrorImpl internal constructor(
 //endregion =====================================================================================================================
 
 //region Relationships ==========================================================================================================
-    override fun findSuperclass(clazz: Class<*>): ClassMirror? {
-        if(java == clazz) return this
-        var supertype = superclass?.findSuperclass(clazz)
+    /**
+     * The most specific supertype for each class in this class's supertype closure, including this class itself.
+     *
+     * This is built from the tables of the direct supertypes, so each class's closure is only ever walked once. The
+     * superclass's entries come first and each interface's entries only replace them if they're more specific, which
+     * is the same order the original recursive search used.
+     *
+     * The table iterates in insertion order, starting with this class followed by its superclasses from the nearest
+     * to the root, so [fields] can be read off it directly.
+     */
+    private val supertypeTable: Map<Class<*>, ClassMirror> get() = slots.lazy(SUPERTYPE_TABLE) {
+        val table = LinkedHashMap<Class<*>, ClassMirror>()
+        table[java] = this
+        superclass?.also { table.putAll((it as ClassMirrorImpl).supertypeTable) }
         for(it in interfaces) {
-            val candidate = it.findSuperclass(clazz)
-            if(candidate != null && (supertype == null || TypeSpecificityComparator.compare(supertype, candidate) < 0))
-                supertype = candidate
+            for((clazz, candidate) in (it as ClassMirrorImpl).supertypeTable) {
+                val supertype = table[clazz]
+                if(supertype == null || TypeSpecificityComparator.compare(supertype, candidate) < 0)
+                    table[clazz] = candidate
+            }
         }
-        return supertype
+        table
+    }
+
+    override fun findSuperclass(clazz: Class<*>): ClassMirror? {
+        if(java == clazz) return this
+        return supertypeTable[clazz]
     }
 
     override fun getSuperclass(clazz: Class<*>): ClassMirror {
@@ -189,81 +216,155 @@ internal class ClassMirrorImpl internal constructor(
 //endregion =====================================================================================================================
 
 //region Simple helpers =========================================================================================================
-    override val kClass: KClass<*> = java.kotlin
+    override val kClass: KClass<*> get() = data.kClass
 
-    override val modifiers: Set<Modifier> = Modifier.fromModifiers(java.modifiers).unmodifiableView()
-    override val access: Modifier.Access = Modifier.Access.fromModifiers(java.modifiers)
+    override val modifiers: Set<Modifier> get() = Modifier.fromModifiers(data.bits)
+    override val access: Modifier.Access get() = Modifier.Access.fromModifiers(data.bits)
     override val isInternalAccess: Boolean get() = kClass.visibility == KVisibility.INTERNAL
     @Untested
-    override val isKotlinClass: Boolean by lazy {
+    override val isKotlinClass: Boolean get() = slots.lazy(IS_KOTLIN_CLASS) {
         declaredAnnotations.isPresent<Metadata>()
     }
 
-    override val flags: Set<Flag> = sequenceOf(
-        Flag.ABSTRACT to (Modifier.ABSTRACT in modifiers),
-        Flag.STATIC to (Modifier.STATIC in modifiers),
-        Flag.FINAL to (Modifier.FINAL in modifiers),
-        Flag.STRICT to (Modifier.STRICT in modifiers),
-
-        Flag.ANNOTATION to java.isAnnotation,
-        Flag.ANONYMOUS to java.isAnonymousClass,
-        Flag.ENUM to java.isEnum,
-        Flag.INTERFACE to java.isInterface,
-        Flag.LOCAL to java.isLocalClass,
-        Flag.MEMBER to java.isMemberClass,
-        Flag.PRIMITIVE to java.isPrimitive,
-        Flag.SYNTHETIC to java.isSynthetic
-    ).filter { it.second }.mapTo(mutableSetOf()) { it.first }.unmodifiableView()
+    override val flags: Set<Flag> get() = FLAGS.of(data.bits ushr FLAG_SHIFT)
 
     // java
-    override val isAbstract: Boolean = Flag.ABSTRACT in flags
-    override val isStatic: Boolean = Flag.STATIC in flags
-    override val isFinal: Boolean = Flag.FINAL in flags
-    override val isStrict: Boolean = Flag.STRICT in flags
+    override val isAbstract: Boolean get() = hasFlag(Flag.ABSTRACT)
+    override val isStatic: Boolean get() = hasFlag(Flag.STATIC)
+    override val isFinal: Boolean get() = hasFlag(Flag.FINAL)
+    override val isStrict: Boolean get() = hasFlag(Flag.STRICT)
 
     // kotlin
-    override val isOpen: Boolean = !isFinal
+    override val isOpen: Boolean get() = !isFinal
     override val isCompanion: Boolean get() = kClass.isCompanion
     override val isData: Boolean get() = kClass.isData
     override val isSealed: Boolean get() = kClass.isSealed
 
     // class type
-    override val isAnnotation: Boolean = Flag.ANNOTATION in flags
-    override val isAnonymous: Boolean = Flag.ANONYMOUS in flags
-    override val isEnum: Boolean = Flag.ENUM in flags
-    override val isInterface: Boolean = Flag.INTERFACE in flags
-    override val isLocal: Boolean = Flag.LOCAL in flags
-    override val isMember: Boolean = Flag.MEMBER in flags
-    override val isPrimitive: Boolean = Flag.PRIMITIVE in flags
-    override val isSynthetic: Boolean = Flag.SYNTHETIC in flags
-
-    override val annotations: AnnotationList by lazy {
+    override val isAnnotation: Boolean get() = hasFlag(Flag.ANNOTATION)
+    override val isAnonymous: Boolean get() = hasFlag(Flag.ANONYMOUS)
+    override val isEnum: Boolean get() = hasFlag(Flag.ENUM)
+    override val isInterface: Boolean get() = hasFlag(Flag.INTERFACE)
+    override val isLocal: Boolean get() = hasFlag(Flag.LOCAL)
+    override val isMember: Boolean get() = hasFlag(Flag.MEMBER)
+    override val isPrimitive: Boolean get() = hasFlag(Flag.PRIMITIVE)
+    override val isSynthetic: Boolean get() = hasFlag(Flag.SYNTHETIC)
+
+    private fun hasFlag(flag: Flag): Boolean = data.bits and (FLAGS.bitOf(flag) shl FLAG_SHIFT) != 0
+
+    override val annotations: AnnotationList get() = slots.lazy(ANNOTATIONS) {
         ElementBackedAnnotationListImpl(java, false)
     }
 
-    override val declaredAnnotations: AnnotationList by lazy {
+    override val declaredAnnotations: AnnotationList get() = slots.lazy(DECLARED_ANNOTATIONS) {
         ElementBackedAnnotationListImpl(java, false)
     }
 
 
-    override val enumType: ClassMirror? by lazy {
+    override val enumType: ClassMirror? get() = slots.lazy(ENUM_TYPE) {
         when {
             this.isEnum -> this
             this.superclass?.isEnum == true -> this.superclass
             else -> null
         }
     }
-    override val enumConstants: List<Enum<*>>? = java.enumConstants?.toList()?.checkedCast<Enum<*>>()?.unmodifiableView()
+    override val enumConstants: List<Enum<*>>? get() = data.enumConstants
 
-    override val simpleName: String = java.simpleName
-    override val name: String = java.typeName
-    override val jvmName: String = java.jvmName
-    override val canonicalName: String? = java.canonicalName
+    override val simpleName: String get() = data.simpleName
+    override val name: String get() = data.name
+    override val jvmName: String get() = data.jvmName
+    override val canonicalName: String? get() = data.canonicalName
+
+    /**
+     * The data that only depends on the class, which is shared between a raw mirror and all its specializations.
+     */
+    private class ClassData(private val java: Class<*>) {
+        private val slots = LazySlots(SLOT_COUNT)
+
+        /**
+         * The [Modifier] bits in the low bits, followed by the [Flag] bits starting at [FLAG_SHIFT]
+         */
+        val bits: Int
+
+        val simpleName: String = java.simpleName
+        val name: String = java.typeName
+        val jvmName: String = java.jvmName
+        val canonicalName: String? = java.canonicalName
+
+        val kClass: KClass<*> get() = slots.lazy(KCLASS) { java.kotlin }
+        val hierarchy: TypeHierarchy get() = slots.lazy(HIERARCHY) { TypeHierarchy.of(java) }
+        val enumConstants: List<Enum<*>>? get() = slots.lazy(ENUM_CONSTANTS) {
+            java.enumConstants?.toList()?.checkedCast<Enum<*>>()?.unmodifiableView()
+        }
+
+        // the declared members in the same order as the mirror lists, so every specialization can use the same
+        // indices into its own lists
+        val declaredFields: Array<Field> get() = slots.lazy(DECLARED_FIELDS) { MirrorUtils.stableSort(java.declaredFields) }
+        val declaredConstructors: Array<Constructor<*>> get() = slots.lazy(DECLARED_CONSTRUCTORS) { MirrorUtils.stableSort(java.declaredConstructors) }
+        val declaredMemberClasses: Array<Class<*>> get() = slots.lazy(DECLARED_MEMBER_CLASSES) { MirrorUtils.stableSort(java.declaredClasses) }
+
+        val fieldIndices: Map<Field, Int> get() = slots.lazy(FIELD_INDICES) { indexBy(declaredFields) { it } }
+        val fieldNameIndices: Map<String, Int> get() = slots.lazy(FIELD_NAME_INDICES) { indexBy(declaredFields) { it.name } }
+        // Constructor.hashCode() only hashes the declaring class, so index them by their parameters instead
+        val constructorIndices: Map<List<Class<*>>, Int> get() = slots.lazy(CONSTRUCTOR_INDICES) {
+            indexBy(declaredConstructors) { it.parameterTypes.asList() }
+        }
+        val memberClassIndices: Map<Class<*>, Int> get() = slots.lazy(MEMBER_CLASS_INDICES) { indexBy(declaredMemberClasses) { it } }
+        val memberClassNameIndices: Map<String, Int> get() = slots.lazy(MEMBER_CLASS_NAME_INDICES) { indexBy(declaredMemberClasses) { it.simpleName } }
+
+        /**
+         * Maps each key to the index of the first element with that key
+         */
+        private inline fun <T, K> indexBy(elements: Array<T>, key: (T) -> K): Map<K, Int> {
+            val map = HashMap<K, Int>(elements.size * 2)
+            elements.forEachIndexed { i, element -> map.putIfAbsent(key(element), i) }
+            return map
+        }
+
+        init {
+            val modifiers = java.modifiers
+            var flags = 0
+            fun flag(flag: Flag, present: Boolean) {
+                if(present) flags = flags or FLAGS.bitOf(flag)
+            }
+            flag(Flag.ABSTRACT, JvmModifier.isAbstract(modifiers))
+            flag(Flag.STATIC, JvmModifier.isStatic(modifiers))
+            flag(Flag.FINAL, JvmModifier.isFinal(modifiers))
+            flag(Flag.STRICT, JvmModifier.isStrict(modifiers))
+
+            flag(Flag.ANNOTATION, java.isAnnotation)
+            flag(Flag.ANONYMOUS, java.isAnonymousClass)
+            flag(Flag.ENUM, java.isEnum)
+            flag(Flag.INTERFACE, java.isInterface)
+            flag(Flag.LOCAL, java.isLocalClass)
+            flag(Flag.MEMBER, java.isMemberClass)
+            flag(Flag.PRIMITIVE, java.isPrimitive)
+            flag(Flag.SYNTHETIC, java.isSynthetic)
+
+            bits = (modifiers and MODIFIER_MASK) or (flags shl FLAG_SHIFT)
+        }
+
+        private companion object {
+            // the slots of the lazy members
+            const val KCLASS = 0
+            const val HIERARCHY = 1
+            const val ENUM_CONSTANTS = 2
+            const val DECLARED_FIELDS = 3
+            const val DECLARED_CONSTRUCTORS = 4
+            const val DECLARED_MEMBER_CLASSES = 5
+            const val FIELD_INDICES = 6
+            const val FIELD_NAME_INDICES = 7
+            const val CONSTRUCTOR_INDICES = 8
+            const val MEMBER_CLASS_INDICES = 9
+            const val MEMBER_CLASS_NAME_INDICES = 10
+            const val SLOT_COUNT = 11
+        }
+    }
 
 //endregion
 
 //region Methods ================================================================================================================
-    override val declaredMethods: MethodList by lazy {
+    override val declaredMethods: MethodList get() = slots.lazy(DECLARED_METHODS) {
         MethodListImpl(this, "declared", MirrorUtils.stableSort(java.declaredMethods).map {
             cache.executables.reflect(it).withDeclaringClass(this) as MethodMirror
         })
@@ -297,45 +398,124 @@ internal class ClassMirrorImpl internal constructor(
      *
      * A class does not inherit private or static methods from its superinterfaces.
      */
-    override val inheritedMethods: MethodList by lazy {
+    override val inheritedMethods: MethodList get() = slots.lazy(INHERITED_METHODS) {
+        val supertypeMethods = inheritedMethodCandidates()
+        val abstractInherited = snapshotEntry?.inherited?.select(supertypeMethods) ?: filterInherited(supertypeMethods)
+        return@lazy MethodListImpl(this, "inherited", abstractInherited)
+    }
+
+    /**
+     * Filters the supertype methods down to the ones this class inherits. A method can only override methods with the
+     * same name and erased parameter types, so the methods are bucketed by those and only compared to the other
+     * methods in their bucket.
+     */
+    private fun filterInherited(supertypeMethods: List<MethodMirror>): List<MethodMirror> {
         fun overrides(method: MethodMirror, base: MethodMirror)
-            = base !== method && base.name == method.name &&
-            base.declaringClass.isAssignableFrom(method.declaringClass) &&
-            base.erasedParameterTypes == method.erasedParameterTypes
+            = base !== method && base.declaringClass.isAssignableFrom(method.declaringClass)
+
+        val declaredBySignature = declaredMethods.groupBy { ErasedSignature(it) }
+        val supertypeSignatures = supertypeMethods.map { ErasedSignature(it) }
+        val supertypeBySignature = supertypeMethods.indices.groupBy({ supertypeSignatures[it] }) { supertypeMethods[it] }
 
-        val supertypeMethods = superclass?.visibleMethods.orEmpty() + interfaces.flatMap { it.visibleMethods }.filter { !it.isStatic }
-        val abstractInherited = supertypeMethods.unique().filter { method ->
+        return supertypeMethods.filterIndexed { i, method ->
             if(method.access == Modifier.Access.PRIVATE)
-                return@filter false
+                return@filterIndexed false
             if(method.access == Modifier.Access.DEFAULT && java.`package` != method.declaringClass.java.`package`)
-                return@filter false
-            if(declaredMethods.any { overrides(it, method) })
-                return@filter false
+                return@filterIndexed false
+            val signature = supertypeSignatures[i]
+            if(declaredBySignature[signature]?.any { overrides(it, method) } == true)
+                return@filterIndexed false
             if(method.isAbstract || method.isDefault) {
-                if(supertypeMethods.any { overrides(it, method) })
-                    return@filter false
+                if(supertypeBySignature.getValue(signature).any { overrides(it, method) })
+                    return@filterIndexed false
             }
             true
         }
-
-        return@lazy MethodListImpl(this, "inherited", abstractInherited)
     }
 
-    override val publicMethods: MethodList by lazy {
+    override val publicMethods: MethodList get() = slots.lazy(PUBLIC_METHODS) {
         MethodListImpl(this, "public", (declaredMethods + inheritedMethods).filter { it.access == Modifier.Access.PUBLIC })
     }
 
-    override val visibleMethods: MethodList by lazy {
+    override val visibleMethods: MethodList get() = slots.lazy(VISIBLE_METHODS) {
         MethodListImpl(this, "visible", declaredMethods + inheritedMethods)
     }
 
-    override val methods: MethodList by lazy {
-        val allMethods = declaredMethods + superclass?.methods.orEmpty() + interfaces.flatMap { it.methods }
-        val list = allMethods.filter { s -> allMethods.none { it.doesOverride(s.java) } }.unique()
+    override val methods: MethodListImpl get() = slots.lazy(METHODS) {
+        val allMethods = methodCandidates()
+        val list = snapshotEntry?.methods?.select(allMethods) ?: filterOverridden(allMethods)
         return@lazy MethodListImpl(this, "any", list)
     }
 
-    private val declaredMethodsByJava: Map<Method, MethodMirror> by lazy {
+    /**
+     * Removes the methods that are overridden by another method in the list. A method can only override methods with
+     * the same name and number of parameters, so the methods are bucketed by those and only compared to the other
+     * methods in their bucket. The erased parameter types can't be used here, since [MethodMirror.doesOverride]
+     * compares them after specializing the overridden method for the overriding method's class.
+     */
+    private fun filterOverridden(allMethods: List<MethodMirror>): List<MethodMirror> {
+        val byNameAndArity = allMethods.groupBy { NameAndArity(it.name, it.java.parameterCount) }
+        return allMethods.filter { s ->
+            byNameAndArity.getValue(NameAndArity(s.name, s.java.parameterCount)).none { it.doesOverride(s.java) }
+        }.unique()
+    }
+
+    private data class ErasedSignature(val name: String, val parameters: List<Class<*>>) {
+        constructor(method: MethodMirror): this(method.name, method.erasedParameterTypes)
+    }
+
+    private data class NameAndArity(val name: String, val arity: Int)
+
+    /**
+     * The methods [inheritedMethods] is filtered from. Unlike [fields], this can't be read off the [supertypeTable],
+     * since a class only inherits the methods its direct supertypes have themselves inherited. For example, a
+     * package-private method of a superclass in another package isn't inherited past the subclass that's outside its
+     * package, even if this class is back in the method's package.
+     */
+    internal fun inheritedMethodCandidates(): List<MethodMirror> {
+        return (superclass?.visibleMethods.orEmpty() + interfaces.flatMap { it.visibleMethods }.filter { !it.isStatic }).unique()
+    }
+
+    /**
+     * The methods [methods] is filtered from
+     */
+    internal fun methodCandidates(): List<MethodMirror> {
+        return declaredMethods + superclass?.methods.orEmpty() + interfaces.flatMap { it.methods }
+    }
+
+    /**
+     * The entry for this class in the cache's [MetadataSnapshot]. Specializations never use the snapshot, since
+     * their filters compare specialized types.
+     */
+    private val snapshotEntry: MetadataSnapshot.Entry? get() = slots.lazy(SNAPSHOT_ENTRY) {
+        if(specialization == null) cache.snapshot?.find(java) else null
+    }
+
+    /**
+     * The method each declared method overrides, according to the snapshot, or null if there's no valid snapshot
+     * entry. Used by [MethodMirrorImpl.overrides].
+     */
+    internal val snapshotOverrides: Map<Method, MethodMirror?>? get() = slots.lazy(SNAPSHOT_OVERRIDES) {
+        val entry = snapshotEntry ?: return@lazy null
+        val declared = declaredMethods
+        if(entry.declaredCount != declared.size)
+            return@lazy null
+        val declaredIndex = MetadataSnapshot.indexBySignature(declared) ?: return@lazy null
+        val superclassIndex = MetadataSnapshot.indexBySignature(
+            generateSequence(superclass) { it.superclass }.flatMap { it.declaredMethods }.toList()
+        ) ?: return@lazy null
+        val map = HashMap<Method, MethodMirror?>()
+        for(method in declared) {
+            map[method.java] = null
+        }
+        for(i in entry.overriding.indices) {
+            val method = declaredIndex[entry.overriding[i]] ?: return@lazy null
+            map[method.java] = superclassIndex[entry.overridden[i]] ?: return@lazy null
+        }
+        map
+    }
+
+    private val declaredMethodsByJava: Map<Method, MethodMirror> get() = slots.lazy(DECLARED_METHODS_BY_JAVA) {
         declaredMethods.associateBy { it.java }
     }
 
@@ -356,31 +536,34 @@ internal class ClassMirrorImpl internal constructor(
 
     override fun findMethods(name: String): List<MethodMirror> = methods.findAll(name)
 
-    override fun findMethod(name: String, vararg params: TypeMirror): MethodMirror? = methods.find(name, *params)
+    override fun findMethod(name: String, vararg params: TypeMirror): MethodMirror? = methods.findImpl(name, params)
 
-    override fun findMethodRaw(name: String, vararg params: Class<*>): MethodMirror? = methods.findRaw(name, *params)
+    override fun findMethodRaw(name: String, vararg params: Class<*>): MethodMirror? = methods.findRawImpl(name, params)
 
-    override fun getMethod(name: String, vararg params: TypeMirror): MethodMirror = methods.get(name, *params)
+    override fun getMethod(name: String, vararg params: TypeMirror): MethodMirror = methods.getImpl(name, params)
 
-    override fun getMethodRaw(name: String, vararg params: Class<*>): MethodMirror = methods.getRaw(name, *params)
+    override fun getMethodRaw(name: String, vararg params: Class<*>): MethodMirror = methods.getRawImpl(name, params)
 //endregion =====================================================================================================================
 
 //region Fields =================================================================================================================
-    override val declaredFields: List<FieldMirror> by lazy {
-        MirrorUtils.stableSort(java.declaredFields).map {
+    override val declaredFields: List<FieldMirror> get() = slots.lazy(DECLARED_FIELDS) {
+        data.declaredFields.map {
             cache.fields.reflect(it).withDeclaringClass(this)
         }.unmodifiableView()
     }
-    override val publicFields: List<FieldMirror> by lazy {
+    override val publicFields: List<FieldMirror> get() = slots.lazy(PUBLIC_FIELDS) {
         MirrorUtils.stableSort(java.fields).mapNotNull { getField(it) }.unmodifiableView()
     }
-    override val fields: List<FieldMirror> by lazy {
-        (declaredFields + superclass?.fields.orEmpty()).unmodifiableView()
+    override val fields: List<FieldMirror> get() = slots.lazy(FIELDS) {
+        supertypeTable.values.asSequence()
+            .takeWhile { it === this || !it.isInterface }
+            .flatMap { it.declaredFields }
+            .toList().unmodifiableView()
     }
 
     override fun getField(other: Field): FieldMirror {
         if(other.declaringClass == this.java) {
-            return declaredFields.find { it.java == other }
+            return data.fieldIndices[other]?.let { declaredFields[it] }
                 ?: throw NoSuchMirrorException("Could not find field ${other.name} in $this")
         }
         val superclass = findSuperclass(other.declaringClass)
@@ -393,21 +576,21 @@ internal class ClassMirrorImpl internal constructor(
     }
 
     override fun findDeclaredField(name: String): FieldMirror? {
-        return declaredFields.find { it.name == name }
+        return data.fieldNameIndices[name]?.let { declaredFields[it] }
     }
 
     private val publicFieldNameCache = ConcurrentHashMap<String, FieldMirror?>()
     override fun findPublicField(name: String): FieldMirror? {
         return publicFieldNameCache.getOrPut(name) {
             var field: FieldMirror? = null
-            field = field ?: declaredFields.find { it.name == name }
+            field = field ?: findDeclaredField(name)
             field = field ?: superclass?.findPublicField(name)
             return@getOrPut field
         }
     }
 
     override fun findField(name: String): FieldMirror? {
-        return declaredFields.find { it.name == name }
+        return findDeclaredField(name)
     }
 
     override fun getDeclaredField(name: String): FieldMirror {
@@ -427,19 +610,19 @@ internal class ClassMirrorImpl internal constructor(
 //endregion =====================================================================================================================
 
 //region Constructors ===========================================================================================================
-    override val declaredConstructors: List<ConstructorMirror> by lazy {
-        MirrorUtils.stableSort(java.declaredConstructors).map {
+    override val declaredConstructors: List<ConstructorMirror> get() = slots.lazy(DECLARED_CONSTRUCTORS) {
+        data.declaredConstructors.map {
             cache.executables.reflect(it).withDeclaringClass(this) as ConstructorMirror
         }.unmodifiableView()
     }
-    override val publicConstructors: List<ConstructorMirror> by lazy {
+    override val publicConstructors: List<ConstructorMirror> get() = slots.lazy(PUBLIC_CONSTRUCTORS) {
         MirrorUtils.stableSort(java.constructors).mapNotNull { getConstructor(it) }.unmodifiableView()
     }
 
     override fun getConstructor(other: ConstructorMirror): ConstructorMirror = getConstructor(other.java)
     override fun getConstructor(other: Constructor<*>): ConstructorMirror {
         if(other.declaringClass == this.java) {
-            return declaredConstructors.find { it.java == other }
+            return data.constructorIndices[other.parameterTypes.asList()]?.let { declaredConstructors[it] }
                 ?: throw NoSuchMirrorException("Could not find constructor (${other.parameterTypes.joinToString(", ")}) " +
                     "in $this")
         }
@@ -447,20 +630,23 @@ internal class ClassMirrorImpl internal constructor(
             "(${other.parameterTypes.joinToString(", ")}) from a superclass in $this")
     }
 
+    private val declaredConstructorsByParameters: ParameterIndex<ConstructorMirror> get() = slots.lazy(DECLARED_CONSTRUCTORS_BY_PARAMETERS) {
+        ParameterIndex(declaredConstructors) { it.parameterTypes.toTypedArray() }
+    }
+
     override fun findDeclaredConstructor(vararg params: TypeMirror): ConstructorMirror? {
-        val match = params.toList()
-        return declaredConstructors.find { it.parameterTypes == match }
+        return declaredConstructorsByParameters[params]
     }
 
     override fun getDeclaredConstructor(vararg params: TypeMirror): ConstructorMirror {
-        return findDeclaredConstructor(*params)
+        return declaredConstructorsByParameters[params]
             ?: throw NoSuchMirrorException("No constructor found in $this with parameters (${params.joinToString(", ")})")
     }
 //endregion =====================================================================================================================
 
 //region Member classes =========================================================================================================
-    override val declaredMemberClasses: List<ClassMirror> by lazy {
-        MirrorUtils.stableSort(java.declaredClasses).map {
+    override val declaredMemberClasses: List<ClassMirror> get() = slots.lazy(DECLARED_MEMBER_CLASSES) {
+        data.declaredMemberClasses.map {
             val mirror = cache.types.reflect(it) as ClassMirror
             if(mirror.isStatic)
                 mirror
@@ -468,8 +654,8 @@ internal class ClassMirrorImpl internal constructor(
                 mirror.withEnclosingClass(this)
         }.unmodifiableView()
     }
-    override val publicMemberClasses: List<ClassMirror> by lazy { java.classes.mapNotNull { getMemberClass(it) }.unmodifiableView() }
-    override val memberClasses: List<ClassMirror> by lazy {
+    override val publicMemberClasses: List<ClassMirror> get() = slots.lazy(PUBLIC_MEMBER_CLASSES) { java.classes.mapNotNull { getMemberClass(it) }.unmodifiableView() }
+    override val memberClasses: List<ClassMirror> get() = slots.lazy(MEMBER_CLASSES) {
         sequenceOf(
             declaredMemberClasses,
             superclass?.memberClasses.orEmpty(),
@@ -480,7 +666,7 @@ internal class ClassMirrorImpl internal constructor(
     override fun getMemberClass(other: ClassMirror): ClassMirror = getMemberClass(other.java)
     override fun getMemberClass(other: Class<*>): ClassMirror {
         if(other.declaringClass == this.java) {
-            return declaredMemberClasses.find { it.java == other }
+            return data.memberClassIndices[other]?.let { declaredMemberClasses[it] }
                 ?: throw NoSuchMirrorException("Could not find member class ${other.name} in $this")
         }
         val superclass = findSuperclass(other.declaringClass)
@@ -493,7 +679,7 @@ internal class ClassMirrorImpl internal constructor(
     }
 
     override fun findDeclaredMemberClass(name: String): ClassMirror? {
-        return declaredMemberClasses.find { it.java.simpleName == name }
+        return data.memberClassNameIndices[name]?.let { declaredMemberClasses[it] }
     }
 
     private val publicMemberClassCache = ConcurrentHashMap<String, ClassMirror?>()
@@ -530,9 +716,36 @@ internal class ClassMirrorImpl internal constructor(
     }
 //endregion =====================================================================================================================
 
-//region TypeMirror =============================================================================================================
-    private val isAssignableCache = ConcurrentHashMap<TypeMirror, Boolean>()
+//region Annotated members ======================================================================================================
+    private val declaredAnnotatedMembers: AnnotatedMemberIndex get() = slots.lazy(DECLARED_ANNOTATED_MEMBERS) {
+        AnnotatedMemberIndex(declaredMethods, declaredFields, declaredConstructors)
+    }
+    private val inheritedAnnotatedMembers: AnnotatedMemberIndex get() = slots.lazy(INHERITED_ANNOTATED_MEMBERS) {
+        AnnotatedMemberIndex(visibleMethods, fields, declaredConstructors)
+    }
+
+    private fun annotatedMemberIndex(includeInherited: Boolean): AnnotatedMemberIndex {
+        return if(includeInherited) inheritedAnnotatedMembers else declaredAnnotatedMembers
+    }
+
+    override fun annotatedMembers(annotationClass: Class<out Annotation>, includeInherited: Boolean): List<MemberMirror> {
+        return annotatedMemberIndex(includeInherited).members(annotationClass)
+    }
 
+    override fun annotatedMethods(annotationClass: Class<out Annotation>, includeInherited: Boolean): List<MethodMirror> {
+        return annotatedMemberIndex(includeInherited).methods(annotationClass)
+    }
+
+    override fun annotatedFields(annotationClass: Class<out Annotation>, includeInherited: Boolean): List<FieldMirror> {
+        return annotatedMemberIndex(includeInherited).fields(annotationClass)
+    }
+
+    override fun annotatedParameters(annotationClass: Class<out Annotation>, includeInherited: Boolean): List<ParameterMirror> {
+        return annotatedMemberIndex(includeInherited).parameters(annotationClass)
+    }
+//endregion =====================================================================================================================
+
+//region TypeMirror =============================================================================================================
     override fun isAssignableFrom(other: TypeMirror): Boolean {
         if(other == this) return true
         if(this.java == Any::class.java) {
@@ -542,24 +755,20 @@ internal class ClassMirrorImpl internal constructor(
         }
         if(other is TypeVariableMirror)
             return other.bounds.any { this.isAssignableFrom(it) }
-        if(other !is ClassMirror)
+        if(other !is ClassMirrorImpl)
             return false
 
-        return isAssignableCache.getOrPut(other) {
-            if(other.raw == this.raw) {
-                if(this == this.raw)
-                    return@getOrPut true // ignore type parameters when raw
-                return@getOrPut this.typeParameters.zip(other.typeParameters)
-                    .all { (ours, theirs) -> ours.isAssignableFrom(theirs) }
-            }
-
-            if(other.superclass?.let { this.isAssignableFrom(it) } == true)
-                return@getOrPut true
-
-            if(other.interfaces.any { this.isAssignableFrom(it) })
-                return@getOrPut true
-
-            return@getOrPut false
+        if(!data.hierarchy.isSupertypeOf(other.data.hierarchy))
+            return false
+        if(this == this.raw)
+            return true // ignore type parameters when raw
+
+        // the raw check passed, so all that's left is comparing our type arguments with the other class's
+        // specialization of this class
+        return AssignabilityCache.get(this, other) {
+            val supertype = other.findSuperclass(java) ?: return@get false
+            this.typeParameters.zip(supertype.typeParameters)
+                .all { (ours, theirs) -> ours.isAssignableFrom(theirs) }
         }
     }
 //endregion =====================================================================================================================
@@ -632,4 +841,47 @@ internal class ClassMirrorImpl internal constructor(
     override fun toKotlinDeclarationString(): String {
         TODO("Not yet implemented")
     }
+
+    private companion object {
+        val FLAGS = MaskSet.Universe(Flag.values().toList()) { 1 shl it.ordinal }
+
+        /**
+         * The bits of every [Modifier]. These all fit in the low 12 bits.
+         */
+        val MODIFIER_MASK = Modifier.values().fold(0) { mask, it -> mask or it.mask }
+        const val FLAG_SHIFT = 16
+
+        // the slots of the lazy members
+        const val SUPERCLASS = 0
+        const val INTERFACES = 1
+        const val TYPE_PARAMETERS = 2
+        const val ENCLOSING_CLASS = 3
+        const val ENCLOSING_EXECUTABLE = 4
+        const val GENERIC_MAPPING = 5
+        const val SUPERTYPE_TABLE = 6
+        const val IS_KOTLIN_CLASS = 7
+        const val ANNOTATIONS = 8
+        const val DECLARED_ANNOTATIONS = 9
+        const val ENUM_TYPE = 10
+        const val DECLARED_METHODS = 11
+        const val INHERITED_METHODS = 12
+        const val PUBLIC_METHODS = 13
+        const val VISIBLE_METHODS = 14
+        const val METHODS = 15
+        const val SNAPSHOT_ENTRY = 16
+        const val SNAPSHOT_OVERRIDES = 17
+        const val DECLARED_METHODS_BY_JAVA = 18
+        const val DECLARED_FIELDS = 19
+        const val PUBLIC_FIELDS = 20
+        const val FIELDS = 21
+        const val DECLARED_CONSTRUCTORS = 22
+        const val PUBLIC_CONSTRUCTORS = 23
+        const val DECLARED_CONSTRUCTORS_BY_PARAMETERS = 24
+        const val DECLARED_MEMBER_CLASSES = 25
+        const val PUBLIC_MEMBER_CLASSES = 26
+        const val MEMBER_CLASSES = 27
+        const val DECLARED_ANNOTATED_MEMBERS = 28
+        const val INHERITED_ANNOTATED_MEMBERS = 29
+        const val SLOT_COUNT = 30
+    }
 }
@@ -4,41 +4,66 @@ import dev.thecodewarrior.mirror.NoSuchMirrorException
 import dev.thecodewarrior.mirror.member.MethodMirror
 import dev.thecodewarrior.mirror.type.MethodList
 import dev.thecodewarrior.mirror.type.TypeMirror
+import dev.thecodewarrior.mirror.impl.utils.lockFreeLazy
 import dev.thecodewarrior.mirror.impl.utils.unmodifiableView
 import java.util.concurrent.ConcurrentHashMap
 
 internal class MethodListImpl internal constructor(
     private val type: ClassMirrorImpl, private val listName: String, private val methods: List<MethodMirror>
 ): List<MethodMirror> by methods.unmodifiableView(), MethodList {
-    private val methodNameCache = ConcurrentHashMap<String, List<MethodMirror>>()
+    private val nameIndex = ConcurrentHashMap<String, NameEntry>()
 
-    override fun findAll(name: String): List<MethodMirror> {
-        return methodNameCache.getOrPut(name) {
-            methods.filter { it.name == name }.unmodifiableView()
+    private fun entry(name: String): NameEntry {
+        return nameIndex.getOrPut(name) {
+            NameEntry(methods.filter { it.name == name }.unmodifiableView())
         }
     }
 
-    override fun find(name: String, vararg params: TypeMirror): MethodMirror? {
-        val paramsList = params.toList()
-        return methods.find {
-            it.name == name && it.parameterTypes == paramsList
-        }
+    override fun findAll(name: String): List<MethodMirror> {
+        return entry(name).methods
     }
 
-    override fun findRaw(name: String, vararg params: Class<*>): MethodMirror? {
-        return methods.find { method ->
-            @Suppress("PlatformExtensionReceiverOfInline")
-            method.name == name && method.java.parameterTypes.contentEquals(params)
-        }
+    override fun find(name: String, vararg params: TypeMirror): MethodMirror? = findImpl(name, params)
+
+    override fun findRaw(name: String, vararg params: Class<*>): MethodMirror? = findRawImpl(name, params)
+
+    override fun get(name: String, vararg params: TypeMirror): MethodMirror = getImpl(name, params)
+
+    override fun getRaw(name: String, vararg params: Class<*>): MethodMirror = getRawImpl(name, params)
+
+    // These take the varargs arrays directly, since forwarding them to another varargs method with a spread would copy
+    // them. ClassMirrorImpl uses them for the same reason.
+
+    internal fun findImpl(name: String, params: Array<out TypeMirror>): MethodMirror? {
+        return entry(name).byParameters[params]
+    }
+
+    internal fun findRawImpl(name: String, params: Array<out Class<*>>): MethodMirror? {
+        return entry(name).byRawParameters[params]
     }
 
-    override fun get(name: String, vararg params: TypeMirror): MethodMirror {
-        return find(name, *params)
+    internal fun getImpl(name: String, params: Array<out TypeMirror>): MethodMirror {
+        return findImpl(name, params)
             ?: throw NoSuchMirrorException("Could not find $listName method $name(${params.joinToString(", ")}) in $type")
     }
 
-    override fun getRaw(name: String, vararg params: Class<*>): MethodMirror {
-        return findRaw(name, *params)
+    internal fun getRawImpl(name: String, params: Array<out Class<*>>): MethodMirror {
+        return findRawImpl(name, params)
             ?: throw NoSuchMirrorException("Could not find $listName method $name(${params.joinToString(", ")}) in $type")
     }
+
+    /**
+     * The methods with a given name, indexed by their parameters. The indices are built separately and only when
+     * they're first needed, so looking up a method only resolves the parameter types of methods with the same name.
+     * If multiple methods have the same parameters the first one is used.
+     */
+    private class NameEntry(val methods: List<MethodMirror>) {
+        val byParameters: ParameterIndex<MethodMirror> by lockFreeLazy {
+            ParameterIndex(methods) { it.parameterTypes.toTypedArray() }
+        }
+
+        val byRawParameters: ParameterIndex<MethodMirror> by lockFreeLazy {
+            ParameterIndex(methods) { it.java.parameterTypes }
+        }
+    }
 }
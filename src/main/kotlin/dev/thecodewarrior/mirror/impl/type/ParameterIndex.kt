@@ -0,0 +1,60 @@
+package dev.thecodewarrior.mirror.impl.type
+
+/**
+ * A read-only hash table from parameter lists to members. It's probed with the array passed to a varargs lookup
+ * method, so looking up a member doesn't allocate a key or copy the array. If multiple members have the same
+ * parameters the first one is kept.
+ *
+ * @param parameters Gets the parameter types or classes of a member. The returned array is kept, so it must not be
+ * modified afterward.
+ */
+internal class ParameterIndex<T: Any>(members: List<T>, parameters: (T) -> Array<out Any>) {
+    private val mask: Int
+    private val hashes: IntArray
+    private val keys: Array<Array<out Any>?>
+    private val values: Array<Any?>
+
+    init {
+        var capacity = 2
+        while(capacity < members.size * 2)
+            capacity = capacity shl 1
+        mask = capacity - 1
+        hashes = IntArray(capacity)
+        keys = arrayOfNulls(capacity)
+        values = arrayOfNulls(capacity)
+        for(member in members) {
+            val params = parameters(member)
+            val hash = hash(params)
+            var i = hash and mask
+            while(true) {
+                val key = keys[i]
+                if(key == null) {
+                    hashes[i] = hash
+                    keys[i] = params
+                    values[i] = member
+                    break
+                }
+                if(hashes[i] == hash && key.contentEquals(params))
+                    break
+                i = (i + 1) and mask
+            }
+        }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    operator fun get(params: Array<out Any>): T? {
+        val hash = hash(params)
+        var i = hash and mask
+        while(true) {
+            val key = keys[i] ?: return null
+            if(hashes[i] == hash && key.contentEquals(params))
+                return values[i] as T
+            i = (i + 1) and mask
+        }
+    }
+
+    private fun hash(params: Array<out Any>): Int {
+        val hash = params.contentHashCode()
+        return hash xor (hash ushr 16)
+    }
+}
@@ -0,0 +1,111 @@
+package dev.thecodewarrior.mirror.impl.type
+
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.util.Arrays
+
+/**
+ * The raw supertypes of a class, laid out so checking whether one class is a subtype of another is cheap.
+ *
+ * - The superclass chain is stored as a display, an array of the class and its superclasses ordered from the root
+ *   down. Class `A` is a superclass of `B` if `B`'s display has `A` at `A`'s depth.
+ * - Every interface is assigned an id the first time it's needed, and each class stores the ids of the interfaces it
+ *   implements as a sorted array, which is binary searched. That's proportional to the number of interfaces the class
+ *   actually implements, no matter how many ids have been handed out.
+ *
+ * Hierarchies only depend on the class, so they're shared by every mirror of it in every cache.
+ */
+internal class TypeHierarchy private constructor(
+    private val display: Array<Class<*>>,
+    private val interfaceId: Int,
+    private val interfaces: IntArray
+) {
+    /**
+     * Returns true if the passed class's hierarchy includes this class
+     */
+    fun isSupertypeOf(other: TypeHierarchy): Boolean {
+        if(interfaceId != NO_ID)
+            return Arrays.binarySearch(other.interfaces, interfaceId) >= 0
+        val depth = display.size - 1
+        return depth < other.display.size && other.display[depth] === display[depth]
+    }
+
+    /**
+     * Hands out interface ids, and takes them back once the hierarchy they were assigned to has been collected.
+     *
+     * A hierarchy is held by its class's [ClassValue] entry, and every class that implements an interface keeps the
+     * interface loaded, so an interface's hierarchy can only be collected once no class that stores its id is
+     * reachable. Its id can then safely be given to a new interface.
+     */
+    private object InterfaceIds {
+        private val queue = ReferenceQueue<TypeHierarchy>()
+        private val refs = HashSet<IdRef>()
+        private var free = IntArray(16)
+        private var freeCount = 0
+        private var nextId = 0
+
+        private class IdRef(hierarchy: TypeHierarchy, queue: ReferenceQueue<TypeHierarchy>):
+            WeakReference<TypeHierarchy>(hierarchy, queue) {
+            val id = hierarchy.interfaceId
+        }
+
+        @Synchronized
+        fun allocate(): Int {
+            while(true) {
+                val ref = queue.poll() as IdRef? ?: break
+                refs.remove(ref)
+                if(freeCount == free.size)
+                    free = free.copyOf(free.size * 2)
+                free[freeCount++] = ref.id
+            }
+            return if(freeCount > 0) free[--freeCount] else nextId++
+        }
+
+        /**
+         * Tracks the passed interface's hierarchy, so its id is freed once the hierarchy is collected
+         */
+        @Synchronized
+        fun track(hierarchy: TypeHierarchy) {
+            refs.add(IdRef(hierarchy, queue))
+        }
+    }
+
+    companion object {
+        private const val NO_ID = -1
+
+        private val hierarchies = object: ClassValue<TypeHierarchy>() {
+            override fun computeValue(type: Class<*>): TypeHierarchy {
+                val superclass = type.superclass?.let { of(it) }
+                val supertypes = listOfNotNull(superclass) + type.interfaces.map { of(it) }
+                // if another thread computes this class at the same time, only one of the hierarchies is ever
+                // returned, and the other one's id is freed once it's collected
+                val interfaceId = if(type.isInterface) InterfaceIds.allocate() else NO_ID
+
+                var ids = IntArray(supertypes.sumOf { it.interfaces.size } + 1)
+                var size = 0
+                for(supertype in supertypes) {
+                    supertype.interfaces.copyInto(ids, size)
+                    size += supertype.interfaces.size
+                }
+                if(interfaceId != NO_ID)
+                    ids[size++] = interfaceId
+                ids.sort(0, size)
+                var unique = 0
+                for(i in 0 until size) {
+                    if(unique == 0 || ids[unique - 1] != ids[i])
+                        ids[unique++] = ids[i]
+                }
+                if(unique != ids.size)
+                    ids = ids.copyOf(unique)
+
+                val display = superclass?.display?.let { it + type } ?: arrayOf(type)
+                val hierarchy = TypeHierarchy(display, interfaceId, ids)
+                if(interfaceId != NO_ID)
+                    InterfaceIds.track(hierarchy)
+                return hierarchy
+            }
+        }
+
+        fun of(clazz: Class<*>): TypeHierarchy = hierarchies.get(clazz)
+    }
+}
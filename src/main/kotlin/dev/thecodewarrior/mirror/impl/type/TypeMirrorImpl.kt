@@ -2,16 +2,19 @@ package dev.thecodewarrior.mirror.impl.type
 
 import dev.thecodewarrior.mirror.InvalidSpecializationException
 import dev.thecodewarrior.mirror.Mirror
+import dev.thecodewarrior.mirror.impl.CacheTable
 import dev.thecodewarrior.mirror.impl.MirrorCache
+import dev.thecodewarrior.mirror.impl.SpecializationTable
 import dev.thecodewarrior.mirror.impl.coretypes.CoreTypeUtils
 import dev.thecodewarrior.mirror.impl.util.ListBackedAnnotationListImpl
 import dev.thecodewarrior.mirror.type.ArrayMirror
 import dev.thecodewarrior.mirror.type.ClassMirror
 import dev.thecodewarrior.mirror.type.TypeMirror
 import dev.thecodewarrior.mirror.impl.utils.Untested
+import dev.thecodewarrior.mirror.impl.utils.lockFreeLazy
 import dev.thecodewarrior.mirror.util.AnnotationList
 
-internal abstract class TypeMirrorImpl: TypeMirror {
+internal abstract class TypeMirrorImpl: TypeMirror, SpecializationTable.Holder {
     /**
      * The cache this mirror was created by. Mirrors from other caches will not be considered equal even if they
      * represent the same type. However, no production code should use anything but
@@ -19,8 +22,18 @@ internal abstract class TypeMirrorImpl: TypeMirror {
      */
     internal abstract val cache: MirrorCache
 
+    /**
+     * The id of this mirror in the [AssignabilityCache], packed with the epoch it was assigned in. It's assigned the
+     * first time it's needed, and zero until then.
+     */
+    @Volatile
+    internal var assignabilityId: Long = 0
+
     override val erasure: Class<*> get() = CoreTypeUtils.erase(coreType)
 
+    @Volatile
+    override var specializations: CacheTable<*, *>? = null
+
     internal abstract val specialization: TypeSpecialization?
     internal abstract fun defaultSpecialization(): TypeSpecialization
 
@@ -45,12 +58,12 @@ internal abstract class TypeMirrorImpl: TypeMirror {
     protected fun withTypeAnnotationsImpl(annotations: List<Annotation>): TypeMirror {
         return cache.types.specialize(raw,
             (this.specialization ?: this.defaultSpecialization()).copy(
-                annotations = annotations
+                annotations = cache.annotations.intern(annotations)
             )
         )
     }
 
-    override val typeAnnotations: AnnotationList by lazy {
+    override val typeAnnotations: AnnotationList by lockFreeLazy {
         specialization?.annotations?.let { ListBackedAnnotationListImpl(it) } ?: ListBackedAnnotationListImpl.EMPTY
     }
 
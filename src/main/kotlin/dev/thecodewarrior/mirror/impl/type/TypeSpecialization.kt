@@ -1,17 +1,41 @@
 package dev.thecodewarrior.mirror.impl.type
 
+import dev.thecodewarrior.mirror.impl.CacheKeys
 import dev.thecodewarrior.mirror.member.ExecutableMirror
 import dev.thecodewarrior.mirror.type.ClassMirror
 import dev.thecodewarrior.mirror.type.TypeMirror
 import dev.thecodewarrior.mirror.impl.utils.unmodifiableCopy
 
+/**
+ * The specializations are used as cache keys, so their hash codes are computed once when they're created. Mirrors
+ * use identity equality, so hashing them is cheap, but the annotations have to be hashed by value. When annotations are
+ * interned, equal annotations are usually the same instance, so [annotationsEqual] checks identity before comparing
+ * their values.
+ */
 internal abstract class TypeSpecialization private constructor(annotations: List<Annotation>) {
     val annotations: List<Annotation> = annotations.unmodifiableCopy()
+    val annotationsHash: Int = this.annotations.hashCode()
 
     abstract fun copy(
         annotations: List<Annotation> = this.annotations
     ): TypeSpecialization
 
+    /**
+     * Compares the annotations of this specialization with the passed annotations, only comparing the values of
+     * annotations that aren't the same instance.
+     */
+    fun annotationsEqual(other: List<Annotation>): Boolean {
+        val annotations = this.annotations
+        if(annotations === other) return true
+        if(annotations.size != other.size) return false
+        for(i in annotations.indices) {
+            val annotation = annotations[i]
+            val otherAnnotation = other[i]
+            if(annotation !== otherAnnotation && annotation != otherAnnotation) return false
+        }
+        return true
+    }
+
     class Common(annotations: List<Annotation>): TypeSpecialization(annotations) {
         override fun copy(
             annotations: List<Annotation>
@@ -23,15 +47,13 @@ internal abstract class TypeSpecialization private constructor(annotations: List
             if (this === other) return true
             if (other !is Common) return false
 
-            if (annotations != other.annotations) return false
+            if (annotationsHash != other.annotationsHash) return false
+            if (!annotationsEqual(other.annotations)) return false
 
             return true
         }
 
-        override fun hashCode(): Int {
-            var result = annotations.hashCode()
-            return result
-        }
+        override fun hashCode(): Int = annotationsHash
 
         companion object {
             val DEFAULT = Common(emptyList())
@@ -40,6 +62,7 @@ internal abstract class TypeSpecialization private constructor(annotations: List
 
     class Class(annotations: List<Annotation>, arguments: List<TypeMirror>?, val enclosingClass: ClassMirror?, val enclosingExecutable: ExecutableMirror?): TypeSpecialization(annotations) {
         val arguments: List<TypeMirror>? = if(arguments?.isNotEmpty() == true) arguments.unmodifiableCopy() else null
+        private val hash: Int = hash(annotationsHash, this.arguments.hashCode(), enclosingClass, enclosingExecutable)
 
         override fun copy(
             annotations: List<Annotation>
@@ -60,7 +83,8 @@ internal abstract class TypeSpecialization private constructor(annotations: List
             if (this === other) return true
             if (other !is Class) return false
 
-            if (annotations != other.annotations) return false
+            if (hash != other.hash) return false
+            if (!annotationsEqual(other.annotations)) return false
             if (arguments != other.arguments) return false
             if (enclosingClass != other.enclosingClass) return false
             if (enclosingExecutable != other.enclosingExecutable) return false
@@ -68,20 +92,72 @@ internal abstract class TypeSpecialization private constructor(annotations: List
             return true
         }
 
-        override fun hashCode(): Int {
-            var result = annotations.hashCode()
-            result = 31 * result + arguments.hashCode()
-            result = 31 * result + enclosingClass.hashCode()
-            result = 31 * result + enclosingExecutable.hashCode()
-            return result
+        override fun hashCode(): Int = hash
+
+        /**
+         * Whether this specialization is equal to [base] with its arguments replaced by [arguments]
+         */
+        internal fun matches(base: Class, arguments: kotlin.Array<out TypeMirror>, hash: Int): Boolean {
+            if (hash != this.hash) return false
+            if (enclosingClass != base.enclosingClass) return false
+            if (enclosingExecutable != base.enclosingExecutable) return false
+            val ownArguments = this.arguments
+            if (ownArguments == null) {
+                if (arguments.isNotEmpty()) return false
+            } else {
+                if (ownArguments.size != arguments.size) return false
+                for (i in arguments.indices) {
+                    if (ownArguments[i] != arguments[i]) return false
+                }
+            }
+            return annotationsEqual(base.annotations)
         }
 
         companion object {
             val DEFAULT = Class(emptyList(), null, null, null)
+
+            fun hash(annotationsHash: Int, argumentsHash: Int, enclosingClass: ClassMirror?, enclosingExecutable: ExecutableMirror?): Int {
+                var result = annotationsHash
+                result = 31 * result + argumentsHash
+                result = 31 * result + enclosingClass.hashCode()
+                result = 31 * result + enclosingExecutable.hashCode()
+                return result
+            }
+        }
+    }
+
+    /**
+     * A lookup key that's equal to a [Class] specialization of [raw] with [base]'s values and the passed arguments,
+     * without copying the arguments into a list. This only implements `equals` in one direction, which is the one
+     * [ConcurrentHashMap.get][java.util.concurrent.ConcurrentHashMap.get] uses.
+     */
+    class ArgumentsProbe(
+        private val raw: TypeMirror,
+        private val base: Class,
+        private val arguments: kotlin.Array<out TypeMirror>
+    ): CacheKeys.Probe {
+        // an empty argument array is stored as null, and null's hash code is 0
+        private val hash: Int = Class.hash(
+            base.annotationsHash,
+            if(arguments.isEmpty()) 0 else arguments.contentHashCode(),
+            base.enclosingClass,
+            base.enclosingExecutable
+        )
+
+        override fun equals(other: Any?): Boolean {
+            return other is Class && other.matches(base, arguments, hash)
+        }
+
+        override fun hashCode(): Int = hash
+
+        override fun visit(visitor: CacheKeys.ClassVisitor) {
+            CacheKeys.visitSpecialization(raw, base, arguments, visitor)
         }
     }
 
     class Array(annotations: List<Annotation>, val component: TypeMirror?): TypeSpecialization(annotations) {
+        private val hash: Int = 31 * annotationsHash + component.hashCode()
+
         override fun copy(
             annotations: List<Annotation>
         ): Array {
@@ -99,17 +175,14 @@ internal abstract class TypeSpecialization private constructor(annotations: List
             if (this === other) return true
             if (other !is Array) return false
 
-            if (annotations != other.annotations) return false
+            if (hash != other.hash) return false
+            if (!annotationsEqual(other.annotations)) return false
             if (component != other.component) return false
 
             return true
         }
 
-        override fun hashCode(): Int {
-            var result = annotations.hashCode()
-            result = 31 * result + component.hashCode()
-            return result
-        }
+        override fun hashCode(): Int = hash
 
         companion object {
             val DEFAULT = Array(emptyList(), null)
@@ -117,6 +190,8 @@ internal abstract class TypeSpecialization private constructor(annotations: List
     }
 
     class Wildcard(annotations: List<Annotation>, val upperBounds: List<TypeMirror>?, val lowerBounds: List<TypeMirror>?): TypeSpecialization(annotations) {
+        private val hash: Int = 31 * (31 * annotationsHash + upperBounds.hashCode()) + lowerBounds.hashCode()
+
         override fun copy(
             annotations: List<Annotation>
         ): Wildcard {
@@ -135,19 +210,15 @@ internal abstract class TypeSpecialization private constructor(annotations: List
             if (this === other) return true
             if (other !is Wildcard) return false
 
-            if (annotations != other.annotations) return false
+            if (hash != other.hash) return false
+            if (!annotationsEqual(other.annotations)) return false
             if (upperBounds != other.upperBounds) return false
             if (lowerBounds != other.lowerBounds) return false
 
             return true
         }
 
-        override fun hashCode(): Int {
-            var result = annotations.hashCode()
-            result = 31 * result + upperBounds.hashCode()
-            result = 31 * result + lowerBounds.hashCode()
-            return result
-        }
+        override fun hashCode(): Int = hash
 
         companion object {
             val DEFAULT = Wildcard(emptyList(), null, null)
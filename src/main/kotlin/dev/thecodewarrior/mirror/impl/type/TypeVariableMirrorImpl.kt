@@ -7,6 +7,7 @@ import dev.thecodewarrior.mirror.type.TypeMirror
 import dev.thecodewarrior.mirror.type.TypeVariableMirror
 import dev.thecodewarrior.mirror.type.WildcardMirror
 import dev.thecodewarrior.mirror.impl.utils.annotationString
+import dev.thecodewarrior.mirror.impl.utils.lockFreeLazy
 import java.lang.reflect.AnnotatedElement
 import java.lang.reflect.AnnotatedTypeVariable
 import java.lang.reflect.TypeVariable
@@ -23,7 +24,7 @@ internal class TypeVariableMirrorImpl internal constructor(
 
     override val raw: TypeVariableMirror = raw ?: this
 
-    override val bounds: List<TypeMirror> by lazy {
+    override val bounds: List<TypeMirror> by lockFreeLazy {
         coreType.annotatedBounds.map { cache.types.reflect(it) }
     }
 
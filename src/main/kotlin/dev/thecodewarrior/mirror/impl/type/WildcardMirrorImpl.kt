@@ -6,6 +6,7 @@ import dev.thecodewarrior.mirror.impl.coretypes.CoreTypeUtils
 import dev.thecodewarrior.mirror.type.TypeMirror
 import dev.thecodewarrior.mirror.type.WildcardMirror
 import dev.thecodewarrior.mirror.impl.utils.Untested
+import dev.thecodewarrior.mirror.impl.utils.lockFreeLazy
 import java.lang.reflect.AnnotatedWildcardType
 import java.lang.reflect.WildcardType
 
@@ -25,7 +26,7 @@ internal class WildcardMirrorImpl internal constructor(
 
     override val raw: WildcardMirror = raw ?: this
 
-    override val lowerBounds: List<TypeMirror> by lazy {
+    override val lowerBounds: List<TypeMirror> by lockFreeLazy {
         annotated?.annotatedLowerBounds?.map { cache.types.reflect(it) }
             ?: this.coreType.lowerBounds.map { cache.types.reflect(it) }
     }
@@ -34,7 +35,7 @@ internal class WildcardMirrorImpl internal constructor(
     override val lowerBound: TypeMirror?
         get() = lowerBounds.getOrNull(0)
 
-    override val upperBounds: List<TypeMirror> by lazy {
+    override val upperBounds: List<TypeMirror> by lockFreeLazy {
         annotated?.annotatedUpperBounds?.map { cache.types.reflect(it) }
             ?: this.coreType.upperBounds.map { cache.types.reflect(it) }
     }
@@ -81,13 +82,15 @@ internal class WildcardMirrorImpl internal constructor(
 
     override fun isAssignableFrom(other: TypeMirror): Boolean {
         if(other == this) return true
-        if(other is WildcardMirror)
-            return this.upperBounds.zip(other.upperBounds).all { (ours, theirs) -> ours.isAssignableFrom(theirs) } &&
+        return AssignabilityCache.get(this, other as TypeMirrorImpl) {
+            if(other is WildcardMirror)
+                return@get this.upperBounds.zip(other.upperBounds).all { (ours, theirs) -> ours.isAssignableFrom(theirs) } &&
                     this.lowerBounds.zip(other.lowerBounds).all { (ours, theirs) -> ours.isAssignableFrom(theirs) }
-        return upperBounds.all {
-            it.isAssignableFrom(other)
-        } && lowerBounds.all {
-            other.isAssignableFrom(it)
+            upperBounds.all {
+                it.isAssignableFrom(other)
+            } && lowerBounds.all {
+                other.isAssignableFrom(it)
+            }
         }
     }
 
@@ -1,9 +1,59 @@
 package dev.thecodewarrior.mirror.impl.util
 
 import dev.thecodewarrior.mirror.Mirror
+import dev.thecodewarrior.mirror.impl.utils.lockFreeLazy
 import dev.thecodewarrior.mirror.util.AnnotationList
+import java.lang.annotation.Repeatable
+import java.lang.reflect.Method
+import java.lang.reflect.Array as ReflectArray
 
+/**
+ * Implements the lookups using an index of the annotations by type, which is built the first time it's used. If there
+ * are multiple annotations of the same type, only the first one is indexed, the same way
+ * [getDeclaredAnnotationsByType][java.lang.reflect.AnnotatedElement.getDeclaredAnnotationsByType] treats them.
+ *
+ * The results of [getAllByType] are built in the same pass as the index, by unwrapping the repeatable containers in
+ * the list. The index only holds the annotation types in the list, so querying other types never retains them.
+ */
 internal abstract class AbstractAnnotationListImpl: AnnotationList() {
+    private class Index(
+        val first: Map<Class<out Annotation>, Annotation>,
+        val all: Map<Class<out Annotation>, Array<out Annotation>>
+    )
+
+    private val index: Index by lockFreeLazy {
+        if(this.isEmpty())
+            return@lockFreeLazy Index(emptyMap(), emptyMap())
+        val first = LinkedHashMap<Class<out Annotation>, Annotation>()
+        val all = LinkedHashMap<Class<out Annotation>, MutableList<Annotation>>()
+        for(annotation in this) {
+            val type = annotation.annotationClass.java
+            if(first.putIfAbsent(type, annotation) != null)
+                continue
+            all.getOrPut(type) { mutableListOf() }.add(annotation)
+            val container = containers.get(type) ?: continue
+            @Suppress("UNCHECKED_CAST")
+            val values = container.value.invoke(annotation) as Array<Annotation>
+            all.getOrPut(container.contained) { mutableListOf() }.addAll(values)
+        }
+        Index(first, all.mapValues { (type, list) -> list.toTypedArray(type) })
+    }
+
+    override fun isPresent(annotationClass: Class<out Annotation>): Boolean {
+        return index.first.containsKey(annotationClass)
+    }
+
+    override fun <T: Annotation> get(annotationClass: Class<T>): T? {
+        @Suppress("UNCHECKED_CAST")
+        return index.first[annotationClass] as T?
+    }
+
+    override fun <T: Annotation> getAllByType(annotationClass: Class<T>): Array<T> {
+        @Suppress("UNCHECKED_CAST")
+        return index.all[annotationClass]?.clone() as Array<T>?
+            ?: ReflectArray.newInstance(annotationClass, 0) as Array<T>
+    }
+
     override fun toJavaString(joiner: String, trailing: String): String {
         if(this.isEmpty())
             return ""
@@ -16,4 +66,32 @@ internal abstract class AbstractAnnotationListImpl: AnnotationList() {
         return this.joinToString(joiner) { Mirror.annotationToKotlinString(it) } + trailing
     }
 
-}
\ No newline at end of file
+    private class Container(val contained: Class<out Annotation>, val value: Method)
+
+    private companion object {
+        /**
+         * The repeatable annotation type each container type contains, or null for annotation types that aren't
+         * containers
+         */
+        val containers = object: ClassValue<Container?>() {
+            override fun computeValue(type: Class<*>): Container? {
+                val value = type.declaredMethods.find { it.name == "value" && it.parameterCount == 0 } ?: return null
+                val component = value.returnType.componentType ?: return null
+                if(!component.isAnnotation)
+                    return null
+                if(component.getDeclaredAnnotation(Repeatable::class.java)?.value?.java != type)
+                    return null
+                value.isAccessible = true
+                @Suppress("UNCHECKED_CAST")
+                return Container(component as Class<out Annotation>, value)
+            }
+        }
+
+        private fun List<Annotation>.toTypedArray(type: Class<out Annotation>): Array<out Annotation> {
+            @Suppress("UNCHECKED_CAST")
+            val array = ReflectArray.newInstance(type, size) as Array<Annotation>
+            forEachIndexed { i, annotation -> array[i] = annotation }
+            return array
+        }
+    }
+}
@@ -19,21 +19,14 @@ internal class ElementBackedAnnotationListImpl private constructor(
         }.toList().unmodifiableView()
     )
 
-    override fun isPresent(annotationClass: Class<out Annotation>): Boolean {
-        return get(annotationClass) != null
-    }
-
-    override fun <T : Annotation> get(annotationClass: Class<T>): T? {
-        return when(useDeclared) {
-            true -> element.getDeclaredAnnotation(annotationClass)
-            false -> element.getAnnotation(annotationClass)
-        }
-    }
-
+    /**
+     * A class's annotations include the ones it inherits, and [Class.getAnnotationsByType] looks through the
+     * repeatable containers declared on its superclasses, which aren't necessarily in this list. Those lookups are
+     * passed on to the class, which caches its annotations itself.
+     */
     override fun <T : Annotation> getAllByType(annotationClass: Class<T>): Array<T> {
-        return when(useDeclared) {
-            true -> element.getDeclaredAnnotationsByType(annotationClass)
-            false -> element.getAnnotationsByType(annotationClass)
-        }
+        if(!useDeclared && element is Class<*>)
+            return element.getAnnotationsByType(annotationClass)
+        return super.getAllByType(annotationClass)
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package dev.thecodewarrior.mirror.impl.utils
+
+/**
+ * Helpers for working with the fixed-arity [Invokers]. Both [MethodHandleHelper] and [LambdaMetafactoryHelper] produce
+ * these invokers, and the `call0`...`call8` methods use them directly. The varargs `call` methods go through one of
+ * the "spread" wrappers created here, which unpack the argument array and pass the elements to the invoker.
+ */
+internal object InvokerHelper {
+    /**
+     * The maximum number of parameters (including the receiver) an invoker can have
+     */
+    const val MAX_ARITY: Int = 9
+
+    //region spreading
+
+    @JvmStatic
+    fun checkCount(args: Array<Any?>, count: Int) {
+        if (args.size != count)
+            throw IllegalArgumentException("Expected $count arguments, but received ${args.size}")
+    }
+
+    /**
+     * Spreads the arguments for an instance method invoker. As with [MethodHandleHelper.wrapperForMethod], the
+     * arguments are ignored if the method has no parameters.
+     */
+    @JvmStatic
+    fun spreadInstance(invoker: Any, arity: Int): (Any, Array<Any?>) -> Any? {
+        return when (arity) {
+            1 -> (invoker as Invokers.Invoker1).let {
+                { obj, _ -> it.invoke(obj) }
+            }
+            2 -> (invoker as Invokers.Invoker2).let {
+                { obj, args -> checkCount(args, 1); it.invoke(obj, args[0]) }
+            }
+            3 -> (invoker as Invokers.Invoker3).let {
+                { obj, args -> checkCount(args, 2); it.invoke(obj, args[0], args[1]) }
+            }
+            4 -> (invoker as Invokers.Invoker4).let {
+                { obj, args -> checkCount(args, 3); it.invoke(obj, args[0], args[1], args[2]) }
+            }
+            5 -> (invoker as Invokers.Invoker5).let {
+                { obj, args -> checkCount(args, 4); it.invoke(obj, args[0], args[1], args[2], args[3]) }
+            }
+            6 -> (invoker as Invokers.Invoker6).let {
+                { obj, args -> checkCount(args, 5); it.invoke(obj, args[0], args[1], args[2], args[3], args[4]) }
+            }
+            7 -> (invoker as Invokers.Invoker7).let {
+                { obj, args ->
+                    checkCount(args, 6)
+                    it.invoke(obj, args[0], args[1], args[2], args[3], args[4], args[5])
+                }
+            }
+            8 -> (invoker as Invokers.Invoker8).let {
+                { obj, args ->
+                    checkCount(args, 7)
+                    it.invoke(obj, args[0], args[1], args[2], args[3], args[4], args[5], args[6])
+                }
+            }
+            9 -> (invoker as Invokers.Invoker9).let {
+                { obj, args ->
+                    checkCount(args, 8)
+                    it.invoke(obj, args[0], args[1], args[2], args[3], args[4], args[5], args[6], args[7])
+                }
+            }
+            else -> throw IllegalArgumentException("Invalid instance invoker arity $arity")
+        }
+    }
+
+    /**
+     * Spreads the arguments for a static method or constructor invoker.
+     */
+    @JvmStatic
+    fun spreadStatic(invoker: Any, arity: Int): (Array<Any?>) -> Any? {
+        return when (arity) {
+            0 -> (invoker as Invokers.Invoker0).let {
+                { args -> checkCount(args, 0); it.invoke() }
+            }
+            1 -> (invoker as Invokers.Invoker1).let {
+                { args -> checkCount(args, 1); it.invoke(args[0]) }
+            }
+            2 -> (invoker as Invokers.Invoker2).let {
+                { args -> checkCount(args, 2); it.invoke(args[0], args[1]) }
+            }
+            3 -> (invoker as Invokers.Invoker3).let {
+                { args -> checkCount(args, 3); it.invoke(args[0], args[1], args[2]) }
+            }
+            4 -> (invoker as Invokers.Invoker4).let {
+                { args -> checkCount(args, 4); it.invoke(args[0], args[1], args[2], args[3]) }
+            }
+            5 -> (invoker as Invokers.Invoker5).let {
+                { args -> checkCount(args, 5); it.invoke(args[0], args[1], args[2], args[3], args[4]) }
+            }
+            6 -> (invoker as Invokers.Invoker6).let {
+                { args -> checkCount(args, 6); it.invoke(args[0], args[1], args[2], args[3], args[4], args[5]) }
+            }
+            7 -> (invoker as Invokers.Invoker7).let {
+                { args ->
+                    checkCount(args, 7)
+                    it.invoke(args[0], args[1], args[2], args[3], args[4], args[5], args[6])
+                }
+            }
+            8 -> (invoker as Invokers.Invoker8).let {
+                { args ->
+                    checkCount(args, 8)
+                    it.invoke(args[0], args[1], args[2], args[3], args[4], args[5], args[6], args[7])
+                }
+            }
+            9 -> (invoker as Invokers.Invoker9).let {
+                { args ->
+                    checkCount(args, 9)
+                    it.invoke(args[0], args[1], args[2], args[3], args[4], args[5], args[6], args[7], args[8])
+                }
+            }
+            else -> throw IllegalArgumentException("Invalid static invoker arity $arity")
+        }
+    }
+
+    //endregion
+}
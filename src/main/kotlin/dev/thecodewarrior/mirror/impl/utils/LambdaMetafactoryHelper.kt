@@ -0,0 +1,207 @@
+package dev.thecodewarrior.mirror.impl.utils
+
+import java.lang.invoke.LambdaConversionException
+import java.lang.invoke.LambdaMetafactory
+import java.lang.invoke.MethodHandle
+import java.lang.invoke.MethodHandles
+import java.lang.invoke.MethodType
+import java.lang.reflect.Constructor
+import java.lang.reflect.Method
+
+/**
+ * Creates [invokers][Invokers] backed by classes spun using [LambdaMetafactory]. Unlike the invokers created by
+ * [MethodHandleHelper], each of these invokers calls the target using a real class with a direct call instruction, so
+ * once the JIT has warmed up the call can be inlined like any other bytecode.
+ *
+ * Generating a class isn't always possible (e.g. the class loader of the target can't see [Invokers], the
+ * target's package isn't open to Mirror, or the target has too many parameters), so every method here returns null
+ * when it fails, and callers are expected to fall back to [MethodHandleHelper].
+ *
+ * Note that the generated classes are stricter about primitive arguments than the method handle invokers. A boxed
+ * primitive argument has to be of the exact wrapper type of the parameter (e.g. an `Integer` for an `int`), since no
+ * widening conversions are applied.
+ */
+internal object LambdaMetafactoryHelper {
+    private val invokerInterfaces = listOf(
+        Invokers.Invoker0::class.java, Invokers.Invoker1::class.java,
+        Invokers.Invoker2::class.java, Invokers.Invoker3::class.java,
+        Invokers.Invoker4::class.java, Invokers.Invoker5::class.java,
+        Invokers.Invoker6::class.java, Invokers.Invoker7::class.java,
+        Invokers.Invoker8::class.java, Invokers.Invoker9::class.java
+    )
+    private val voidInvokerInterfaces = listOf(
+        Invokers.VoidInvoker0::class.java, Invokers.VoidInvoker1::class.java,
+        Invokers.VoidInvoker2::class.java, Invokers.VoidInvoker3::class.java,
+        Invokers.VoidInvoker4::class.java, Invokers.VoidInvoker5::class.java,
+        Invokers.VoidInvoker6::class.java, Invokers.VoidInvoker7::class.java,
+        Invokers.VoidInvoker8::class.java, Invokers.VoidInvoker9::class.java
+    )
+
+    //region lookups
+
+    // Java 9+
+    private val privateLookupIn: Method? = try {
+        MethodHandles::class.java.getMethod("privateLookupIn", Class::class.java, MethodHandles.Lookup::class.java)
+    } catch (e: NoSuchMethodException) {
+        null
+    }
+
+    // Java 8, where the full-power lookup constructor is still accessible
+    private val legacyLookupConstructor: Constructor<MethodHandles.Lookup>? = if (privateLookupIn != null) null else try {
+        MethodHandles.Lookup::class.java.getDeclaredConstructor(Class::class.java, Int::class.javaPrimitiveType)
+            .also { it.isAccessible = true }
+    } catch (e: ReflectiveOperationException) {
+        null
+    } catch (e: RuntimeException) {
+        null
+    }
+
+    private const val ALL_MODES = MethodHandles.Lookup.PUBLIC or MethodHandles.Lookup.PRIVATE or
+        MethodHandles.Lookup.PROTECTED or MethodHandles.Lookup.PACKAGE
+
+    /**
+     * Gets a lookup with private access to the passed class, or null if one couldn't be created.
+     */
+    private fun privateLookup(target: Class<*>): MethodHandles.Lookup? {
+        return try {
+            when {
+                privateLookupIn != null ->
+                    privateLookupIn.invoke(null, target, MethodHandles.lookup()) as MethodHandles.Lookup
+                legacyLookupConstructor != null ->
+                    legacyLookupConstructor.newInstance(target, ALL_MODES)
+                else -> null
+            }
+        } catch (e: ReflectiveOperationException) {
+            null
+        } catch (e: RuntimeException) {
+            null
+        }
+    }
+
+    //endregion
+
+    //region invokers
+
+    /**
+     * Creates a generated [invoker][Invokers] for the passed method, or returns null if one couldn't be generated.
+     * For instance methods the receiver is the first parameter of the invoker.
+     */
+    @JvmStatic
+    fun invokerForMethod(method: Method): Any? {
+        val lookup = privateLookup(method.declaringClass) ?: return null
+        val handle = try {
+            lookup.unreflect(method)
+        } catch (e: IllegalAccessException) {
+            return null
+        }
+        return generate(lookup, handle.asFixedArity())
+    }
+
+    /**
+     * Creates a generated [invoker][Invokers] for the passed constructor, or returns null if one couldn't be
+     * generated.
+     */
+    @JvmStatic
+    fun invokerForConstructor(constructor: Constructor<*>): Any? {
+        val lookup = privateLookup(constructor.declaringClass) ?: return null
+        val handle = try {
+            lookup.unreflectConstructor(constructor)
+        } catch (e: IllegalAccessException) {
+            return null
+        }
+        return generate(lookup, handle.asFixedArity())
+    }
+
+    //endregion
+
+    //region generation
+
+    /**
+     * Spins an implementation of one of the [Invokers] interfaces that calls [implementation]. The lookup
+     * has to have private access to the class declaring the implementation.
+     *
+     * @return The [invoker][Invokers.Invoker0], adapted to return null if the implementation returns void,
+     * or null if no invoker could be generated.
+     */
+    private fun generate(lookup: MethodHandles.Lookup, implementation: MethodHandle): Any? {
+        val type = implementation.type()
+        val arity = type.parameterCount()
+        if (arity > InvokerHelper.MAX_ARITY)
+            return null
+        val isVoid = type.returnType() == Void.TYPE
+        val invokerInterface = if (isVoid) voidInvokerInterfaces[arity] else invokerInterfaces[arity]
+
+        // the generated class is defined in the target's class loader, so it has to be able to see the interface
+        if (!isVisible(invokerInterface, lookup.lookupClass().classLoader))
+            return null
+
+        var samType = MethodType.genericMethodType(arity)
+        var instantiatedType = type.wrap()
+        if (isVoid) {
+            samType = samType.changeReturnType(Void.TYPE)
+            instantiatedType = instantiatedType.changeReturnType(Void.TYPE)
+        }
+
+        val invoker = try {
+            val site = LambdaMetafactory.metafactory(
+                lookup, "invoke", MethodType.methodType(invokerInterface),
+                samType, implementation, instantiatedType
+            )
+            site.target.invokeWithArguments()
+        } catch (e: LambdaConversionException) {
+            return null
+        } catch (e: LinkageError) {
+            return null
+        } catch (e: IllegalArgumentException) {
+            return null
+        }
+
+        return if (isVoid) adaptVoid(invoker, arity) else invoker
+    }
+
+    private fun isVisible(clazz: Class<*>, loader: ClassLoader?): Boolean {
+        return try {
+            Class.forName(clazz.name, false, loader) == clazz
+        } catch (e: ClassNotFoundException) {
+            false
+        }
+    }
+
+    private fun adaptVoid(invoker: Any, arity: Int): Any {
+        return when (arity) {
+            0 -> (invoker as Invokers.VoidInvoker0).let {
+                Invokers.Invoker0 { it.invoke(); null }
+            }
+            1 -> (invoker as Invokers.VoidInvoker1).let {
+                Invokers.Invoker1 { a -> it.invoke(a); null }
+            }
+            2 -> (invoker as Invokers.VoidInvoker2).let {
+                Invokers.Invoker2 { a, b -> it.invoke(a, b); null }
+            }
+            3 -> (invoker as Invokers.VoidInvoker3).let {
+                Invokers.Invoker3 { a, b, c -> it.invoke(a, b, c); null }
+            }
+            4 -> (invoker as Invokers.VoidInvoker4).let {
+                Invokers.Invoker4 { a, b, c, d -> it.invoke(a, b, c, d); null }
+            }
+            5 -> (invoker as Invokers.VoidInvoker5).let {
+                Invokers.Invoker5 { a, b, c, d, e -> it.invoke(a, b, c, d, e); null }
+            }
+            6 -> (invoker as Invokers.VoidInvoker6).let {
+                Invokers.Invoker6 { a, b, c, d, e, f -> it.invoke(a, b, c, d, e, f); null }
+            }
+            7 -> (invoker as Invokers.VoidInvoker7).let {
+                Invokers.Invoker7 { a, b, c, d, e, f, g -> it.invoke(a, b, c, d, e, f, g); null }
+            }
+            8 -> (invoker as Invokers.VoidInvoker8).let {
+                Invokers.Invoker8 { a, b, c, d, e, f, g, h -> it.invoke(a, b, c, d, e, f, g, h); null }
+            }
+            9 -> (invoker as Invokers.VoidInvoker9).let {
+                Invokers.Invoker9 { a, b, c, d, e, f, g, h, i -> it.invoke(a, b, c, d, e, f, g, h, i); null }
+            }
+            else -> throw IllegalArgumentException("Invalid invoker arity $arity")
+        }
+    }
+
+    //endregion
+}
@@ -0,0 +1,34 @@
+package dev.thecodewarrior.mirror.impl.utils
+
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * The lazy members of a mirror, stored in a single array. Each member has a constant slot index, and its getter passes
+ * that index and its initializer to [lazy], which is inlined into the getter. A mirror with dozens of lazy members
+ * allocates this one array instead of a lazy object and a lambda per member.
+ *
+ * Slots are initialized the same way as [lockFreeLazy]: threads that race to initialize a slot may each run the
+ * initializer, but only the first result is published.
+ */
+internal class LazySlots(size: Int): AtomicReferenceArray<Any?>(size) {
+    @Suppress("UNCHECKED_CAST")
+    inline fun <T> lazy(slot: Int, initializer: () -> T): T {
+        val value = get(slot)
+        if(value != null)
+            return (if(value === NULL) null else value) as T
+        val computed = initializer()
+        if(compareAndSet(slot, null, computed ?: NULL))
+            return computed
+        val winner = get(slot)
+        return (if(winner === NULL) null else winner) as T
+    }
+
+    @PublishedApi
+    internal companion object {
+        /**
+         * Stands in for a null value, since an empty slot is null
+         */
+        @JvmField
+        val NULL: Any = Any()
+    }
+}
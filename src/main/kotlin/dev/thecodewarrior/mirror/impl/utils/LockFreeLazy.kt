@@ -0,0 +1,45 @@
+package dev.thecodewarrior.mirror.impl.utils
+
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Creates a lazy value that's computed without taking a lock. Threads that race to initialize the value may each run
+ * [initializer], but only the first result is published, so every thread sees the same value.
+ *
+ * Mirrors use this for their lazy members, which only read from the (already thread-safe) caches, so a thread that
+ * loses the race just discards its result, and parallel warmup never blocks on a monitor. That includes the expensive
+ * ones, like the member lists and generated invokers: the member lists are immutable and made of cached mirrors, so
+ * every thread builds an equal list of the same instances, and a redundant invoker is just an unused class. That
+ * duplicate work only happens when threads actually race, while a synchronized `lazy` would make every racing thread
+ * wait for the first one.
+ *
+ * The initializer is inlined into the returned object, so each lazy value is a single allocation instead of a lazy
+ * object and a lambda. Mirrors with more than a few lazy members use [LazySlots] instead, which doesn't allocate
+ * anything per member.
+ */
+internal inline fun <T> lockFreeLazy(crossinline initializer: () -> T): Lazy<T> = object: LockFreeLazy<T>() {
+    override fun initialize(): T = initializer()
+}
+
+@PublishedApi
+internal abstract class LockFreeLazy<T>: AtomicReference<Any?>(UNINITIALIZED), Lazy<T> {
+    protected abstract fun initialize(): T
+
+    @Suppress("UNCHECKED_CAST")
+    override val value: T
+        get() {
+            val value = get()
+            if(value !== UNINITIALIZED)
+                return value as T
+            val computed = initialize()
+            return if(compareAndSet(UNINITIALIZED, computed)) computed else get() as T
+        }
+
+    override fun isInitialized(): Boolean = get() !== UNINITIALIZED
+
+    override fun toString(): String = if(isInitialized()) value.toString() else "Lazy value not initialized yet."
+
+    private companion object {
+        val UNINITIALIZED: Any = Any()
+    }
+}
@@ -0,0 +1,95 @@
+package dev.thecodewarrior.mirror.impl.utils
+
+import java.util.concurrent.atomic.AtomicReferenceArray
+
+/**
+ * An immutable set of enum values backed by an int mask. Sets are interned by their [Universe], so every set with the
+ * same mask is the same instance.
+ */
+internal class MaskSet<E: Enum<E>> private constructor(private val universe: Universe<E>, val mask: Int): AbstractSet<E>() {
+    override val size: Int = Integer.bitCount(mask)
+
+    override fun isEmpty(): Boolean = mask == 0
+
+    override fun contains(element: E): Boolean = mask and universe.bitOf(element) != 0
+
+    override fun iterator(): Iterator<E> {
+        return object : Iterator<E> {
+            // the bits we haven't returned yet
+            private var remaining = mask
+            private var index = 0
+
+            override fun hasNext(): Boolean = remaining != 0
+
+            override fun next(): E {
+                if(remaining == 0)
+                    throw NoSuchElementException()
+                while(true) {
+                    val value = universe.ordered[index++]
+                    val bit = universe.bitOf(value)
+                    if(remaining and bit != 0) {
+                        remaining = remaining and bit.inv()
+                        return value
+                    }
+                }
+            }
+        }
+    }
+
+    override fun equals(other: Any?): Boolean {
+        if(other is MaskSet<*> && other.universe === universe)
+            return other.mask == mask
+        return super.equals(other)
+    }
+
+    override fun hashCode(): Int = super.hashCode()
+
+    /**
+     * The possible values of a [MaskSet] and the bits representing them
+     *
+     * @param ordered The values, in the order the sets should iterate them
+     * @param bit Gets the bit representing a value. Every value must have a distinct single bit.
+     */
+    class Universe<E: Enum<E>>(val ordered: List<E>, bit: (E) -> Int) {
+        private val bits: IntArray = IntArray((ordered.maxOfOrNull { it.ordinal } ?: -1) + 1)
+        private val allBits: Int
+        private val sets: AtomicReferenceArray<MaskSet<E>?>
+
+        init {
+            var allBits = 0
+            for(value in ordered) {
+                val valueBit = bit(value)
+                require(Integer.bitCount(valueBit) == 1 && allBits and valueBit == 0) {
+                    "$value must have a distinct single bit"
+                }
+                bits[value.ordinal] = valueBit
+                allBits = allBits or valueBit
+            }
+            this.allBits = allBits
+            sets = AtomicReferenceArray(Integer.highestOneBit(allBits) shl 1)
+        }
+
+        fun bitOf(value: E): Int = if(value.ordinal < bits.size) bits[value.ordinal] else 0
+
+        /**
+         * Gets the set of values whose bits are set in [mask]. Any other bits are ignored.
+         */
+        fun of(mask: Int): MaskSet<E> {
+            val valid = mask and allBits
+            sets.get(valid)?.also { return it }
+            val set = MaskSet(this, valid)
+            return if(sets.compareAndSet(valid, null, set)) set else sets.get(valid)!!
+        }
+
+        /**
+         * Gets the mask representing the passed values
+         */
+        fun maskOf(values: Iterable<E>): Int {
+            var mask = 0
+            for(value in values) {
+                mask = mask or bitOf(value)
+            }
+            return mask
+        }
+    }
+}
@@ -115,6 +115,41 @@ internal object MethodHandleHelper {
 
     //endregion
 
+    //region invokers
+
+    /**
+     * Provides a fixed-arity [invoker][Invokers] for an existing MethodHandle, or null if the handle has more than
+     * [InvokerHelper.MAX_ARITY] parameters. Unlike the spreading wrappers, calling the invoker doesn't allocate an
+     * argument array.
+     */
+    @JvmStatic
+    fun invokerFor(handle: MethodHandle): Any? {
+        val count = handle.type().parameterCount()
+        if (count > InvokerHelper.MAX_ARITY)
+            return null
+        val wrapper = InvocationWrapper(handle.asFixedArity().asType(MethodType.genericMethodType(count)))
+        return when (count) {
+            0 -> Invokers.Invoker0 { wrapper() }
+            1 -> Invokers.Invoker1 { a -> wrapper(a) }
+            2 -> Invokers.Invoker2 { a, b -> wrapper(a, b) }
+            3 -> Invokers.Invoker3 { a, b, c -> wrapper(a, b, c) }
+            4 -> Invokers.Invoker4 { a, b, c, d -> wrapper(a, b, c, d) }
+            5 -> Invokers.Invoker5 { a, b, c, d, e -> wrapper(a, b, c, d, e) }
+            6 -> Invokers.Invoker6 { a, b, c, d, e, f -> wrapper(a, b, c, d, e, f) }
+            7 -> Invokers.Invoker7 { a, b, c, d, e, f, g -> wrapper(a, b, c, d, e, f, g) }
+            8 -> Invokers.Invoker8 { a, b, c, d, e, f, g, h -> wrapper(a, b, c, d, e, f, g, h) }
+            else -> Invokers.Invoker9 { a, b, c, d, e, f, g, h, i -> wrapper(a, b, c, d, e, f, g, h, i) }
+        }
+    }
+
+    @JvmStatic
+    fun invokerForMethod(method: Method): Any? = invokerFor(publicLookup().unreflect(method))
+
+    @JvmStatic
+    fun invokerForConstructor(constructor: Constructor<*>): Any? = invokerFor(publicLookup().unreflectConstructor(constructor))
+
+    //endregion
+
     //region constructors
 
     /**
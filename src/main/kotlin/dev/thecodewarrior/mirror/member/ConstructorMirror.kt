@@ -14,9 +14,89 @@ public interface ConstructorMirror : ExecutableMirror {
     /**
      * Create a new instance using this constructor. After the one-time cost of creating the
      * [MethodHandle][java.lang.invoke.MethodHandle], the access should be near-native speed.
+     *
+     * Unlike this method, the fixed-arity [call0]..[call8] methods pass the variable arity argument of a varargs
+     * constructor as-is, the same way [Constructor.newInstance][java.lang.reflect.Constructor.newInstance] does, so
+     * it has to be an array.
      */
     public fun <T : Any?> call(vararg args: Any?): T
 
+    //region fixed-arity calls
+
+    /**
+     * Create a new instance using this constructor with no arguments. This behaves the same as [call], but
+     * doesn't need to allocate an argument array.
+     *
+     * @throws IllegalArgumentException if the constructor doesn't have exactly 0 parameters
+     */
+    public fun <T : Any?> call0(): T
+
+    /**
+     * Create a new instance using this constructor with one argument. This behaves the same as [call], but
+     * doesn't need to allocate an argument array.
+     *
+     * @throws IllegalArgumentException if the constructor doesn't have exactly 1 parameter
+     */
+    public fun <T : Any?> call1(arg1: Any?): T
+
+    /**
+     * Create a new instance using this constructor with 2 arguments. This behaves the same as [call], but
+     * doesn't need to allocate an argument array.
+     *
+     * @throws IllegalArgumentException if the constructor doesn't have exactly 2 parameters
+     */
+    public fun <T : Any?> call2(arg1: Any?, arg2: Any?): T
+
+    /**
+     * Create a new instance using this constructor with 3 arguments. This behaves the same as [call], but
+     * doesn't need to allocate an argument array.
+     *
+     * @throws IllegalArgumentException if the constructor doesn't have exactly 3 parameters
+     */
+    public fun <T : Any?> call3(arg1: Any?, arg2: Any?, arg3: Any?): T
+
+    /**
+     * Create a new instance using this constructor with 4 arguments. This behaves the same as [call], but
+     * doesn't need to allocate an argument array.
+     *
+     * @throws IllegalArgumentException if the constructor doesn't have exactly 4 parameters
+     */
+    public fun <T : Any?> call4(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?): T
+
+    /**
+     * Create a new instance using this constructor with 5 arguments. This behaves the same as [call], but
+     * doesn't need to allocate an argument array.
+     *
+     * @throws IllegalArgumentException if the constructor doesn't have exactly 5 parameters
+     */
+    public fun <T : Any?> call5(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?): T
+
+    /**
+     * Create a new instance using this constructor with 6 arguments. This behaves the same as [call], but
+     * doesn't need to allocate an argument array.
+     *
+     * @throws IllegalArgumentException if the constructor doesn't have exactly 6 parameters
+     */
+    public fun <T : Any?> call6(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?): T
+
+    /**
+     * Create a new instance using this constructor with 7 arguments. This behaves the same as [call], but
+     * doesn't need to allocate an argument array.
+     *
+     * @throws IllegalArgumentException if the constructor doesn't have exactly 7 parameters
+     */
+    public fun <T : Any?> call7(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?, arg7: Any?): T
+
+    /**
+     * Create a new instance using this constructor with 8 arguments. This behaves the same as [call], but
+     * doesn't need to allocate an argument array.
+     *
+     * @throws IllegalArgumentException if the constructor doesn't have exactly 8 parameters
+     */
+    public fun <T : Any?> call8(arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?, arg7: Any?, arg8: Any?): T
+
+    //endregion
+
     override fun withTypeParameters(vararg parameters: TypeMirror): ConstructorMirror
 
     override fun withDeclaringClass(enclosing: ClassMirror?): ConstructorMirror
@@ -66,5 +66,155 @@ public interface FieldMirror : MemberMirror {
     @Suppress("UNCHECKED_CAST")
     public fun set(receiver: Any?, value: Any?)
 
+    //region primitive accessors
+
+    // the legal conversions for these are the widening conversions listed in the ArrayReflect docs
+
+    /**
+     * Get the value of this field as a `boolean` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if the field's type can't be widened to `boolean`
+     */
+    @Throws(Throwable::class)
+    public fun getBoolean(receiver: Any?): Boolean
+
+    /**
+     * Get the value of this field as a `byte` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if the field's type can't be widened to `byte`
+     */
+    @Throws(Throwable::class)
+    public fun getByte(receiver: Any?): Byte
+
+    /**
+     * Get the value of this field as a `char` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if the field's type can't be widened to `char`
+     */
+    @Throws(Throwable::class)
+    public fun getChar(receiver: Any?): Char
+
+    /**
+     * Get the value of this field as a `short` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if the field's type can't be widened to `short`
+     */
+    @Throws(Throwable::class)
+    public fun getShort(receiver: Any?): Short
+
+    /**
+     * Get the value of this field as a `int` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if the field's type can't be widened to `int`
+     */
+    @Throws(Throwable::class)
+    public fun getInt(receiver: Any?): Int
+
+    /**
+     * Get the value of this field as a `long` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if the field's type can't be widened to `long`
+     */
+    @Throws(Throwable::class)
+    public fun getLong(receiver: Any?): Long
+
+    /**
+     * Get the value of this field as a `float` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if the field's type can't be widened to `float`
+     */
+    @Throws(Throwable::class)
+    public fun getFloat(receiver: Any?): Float
+
+    /**
+     * Get the value of this field as a `double` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if the field's type can't be widened to `double`
+     */
+    @Throws(Throwable::class)
+    public fun getDouble(receiver: Any?): Double
+
+    /**
+     * Set the value of this field from a `boolean` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if `boolean` can't be widened to the field's type
+     */
+    @Throws(Throwable::class)
+    public fun setBoolean(receiver: Any?, value: Boolean)
+
+    /**
+     * Set the value of this field from a `byte` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if `byte` can't be widened to the field's type
+     */
+    @Throws(Throwable::class)
+    public fun setByte(receiver: Any?, value: Byte)
+
+    /**
+     * Set the value of this field from a `char` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if `char` can't be widened to the field's type
+     */
+    @Throws(Throwable::class)
+    public fun setChar(receiver: Any?, value: Char)
+
+    /**
+     * Set the value of this field from a `short` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if `short` can't be widened to the field's type
+     */
+    @Throws(Throwable::class)
+    public fun setShort(receiver: Any?, value: Short)
+
+    /**
+     * Set the value of this field from a `int` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if `int` can't be widened to the field's type
+     */
+    @Throws(Throwable::class)
+    public fun setInt(receiver: Any?, value: Int)
+
+    /**
+     * Set the value of this field from a `long` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if `long` can't be widened to the field's type
+     */
+    @Throws(Throwable::class)
+    public fun setLong(receiver: Any?, value: Long)
+
+    /**
+     * Set the value of this field from a `float` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if `float` can't be widened to the field's type
+     */
+    @Throws(Throwable::class)
+    public fun setFloat(receiver: Any?, value: Float)
+
+    /**
+     * Set the value of this field from a `double` without boxing it. If this is a static field, `null` should be
+     * used for the instance.
+     *
+     * @throws IllegalArgumentException if `double` can't be widened to the field's type
+     */
+    @Throws(Throwable::class)
+    public fun setDouble(receiver: Any?, value: Double)
+
+    //endregion
+
     override fun withDeclaringClass(enclosing: ClassMirror?): FieldMirror
 }
@@ -94,11 +94,99 @@ public interface MethodMirror : ExecutableMirror {
      *
      * After the one-time cost of creating the [MethodHandle][java.lang.invoke.MethodHandle], the access should be
      * near-native speed.
+     *
+     * Unlike this method, the fixed-arity [call0]..[call8] methods pass the variable arity argument of a varargs
+     * method as-is, the same way [Method.invoke][java.lang.reflect.Method.invoke] does, so it has to be an array.
      */
     @Suppress("UNCHECKED_CAST")
     @Throws(Throwable::class)
     public fun <T> call(receiver: Any?, vararg args: Any?): T
 
+    //region fixed-arity calls
+
+    /**
+     * Calls the represented method with no arguments. This behaves the same as [call], but doesn't need to allocate an
+     * argument array.
+     *
+     * @throws IllegalArgumentException if the method doesn't have exactly 0 parameters
+     */
+    @Throws(Throwable::class)
+    public fun <T> call0(receiver: Any?): T
+
+    /**
+     * Calls the represented method with one argument. This behaves the same as [call], but doesn't need to allocate an
+     * argument array.
+     *
+     * @throws IllegalArgumentException if the method doesn't have exactly 1 parameter
+     */
+    @Throws(Throwable::class)
+    public fun <T> call1(receiver: Any?, arg1: Any?): T
+
+    /**
+     * Calls the represented method with 2 arguments. This behaves the same as [call], but doesn't need to allocate an
+     * argument array.
+     *
+     * @throws IllegalArgumentException if the method doesn't have exactly 2 parameters
+     */
+    @Throws(Throwable::class)
+    public fun <T> call2(receiver: Any?, arg1: Any?, arg2: Any?): T
+
+    /**
+     * Calls the represented method with 3 arguments. This behaves the same as [call], but doesn't need to allocate an
+     * argument array.
+     *
+     * @throws IllegalArgumentException if the method doesn't have exactly 3 parameters
+     */
+    @Throws(Throwable::class)
+    public fun <T> call3(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?): T
+
+    /**
+     * Calls the represented method with 4 arguments. This behaves the same as [call], but doesn't need to allocate an
+     * argument array.
+     *
+     * @throws IllegalArgumentException if the method doesn't have exactly 4 parameters
+     */
+    @Throws(Throwable::class)
+    public fun <T> call4(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?): T
+
+    /**
+     * Calls the represented method with 5 arguments. This behaves the same as [call], but doesn't need to allocate an
+     * argument array.
+     *
+     * @throws IllegalArgumentException if the method doesn't have exactly 5 parameters
+     */
+    @Throws(Throwable::class)
+    public fun <T> call5(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?): T
+
+    /**
+     * Calls the represented method with 6 arguments. This behaves the same as [call], but doesn't need to allocate an
+     * argument array.
+     *
+     * @throws IllegalArgumentException if the method doesn't have exactly 6 parameters
+     */
+    @Throws(Throwable::class)
+    public fun <T> call6(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?): T
+
+    /**
+     * Calls the represented method with 7 arguments. This behaves the same as [call], but doesn't need to allocate an
+     * argument array.
+     *
+     * @throws IllegalArgumentException if the method doesn't have exactly 7 parameters
+     */
+    @Throws(Throwable::class)
+    public fun <T> call7(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?, arg7: Any?): T
+
+    /**
+     * Calls the represented method with 8 arguments. This behaves the same as [call], but doesn't need to allocate an
+     * argument array.
+     *
+     * @throws IllegalArgumentException if the method doesn't have exactly 8 parameters
+     */
+    @Throws(Throwable::class)
+    public fun <T> call8(receiver: Any?, arg1: Any?, arg2: Any?, arg3: Any?, arg4: Any?, arg5: Any?, arg6: Any?, arg7: Any?, arg8: Any?): T
+
+    //endregion
+
     override fun withTypeParameters(vararg parameters: TypeMirror): MethodMirror
 
     override fun withDeclaringClass(enclosing: ClassMirror?): MethodMirror
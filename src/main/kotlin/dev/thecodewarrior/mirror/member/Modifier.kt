@@ -1,5 +1,6 @@
 package dev.thecodewarrior.mirror.member
 
+import dev.thecodewarrior.mirror.impl.utils.MaskSet
 import dev.thecodewarrior.mirror.impl.utils.Untested
 import dev.thecodewarrior.mirror.impl.utils.unmodifiableSetOf
 import dev.thecodewarrior.mirror.impl.utils.unmodifiableView
@@ -132,23 +133,44 @@ public enum class Modifier(
         public val ACCESS: Set<Modifier> = unmodifiableSetOf(PUBLIC, PROTECTED, PRIVATE)
 
         /**
-         * Extracts a set of [Modifiers][Modifier] from the given Core Reflection mods
+         * The interned modifier sets, indexed by their mask. Every modifier fits in the low 12 bits, so there are at
+         * most 4096 distinct sets.
+         */
+        private val sets = MaskSet.Universe(ORDERED.toList()) { it.mask }
+
+        /**
+         * Extracts a set of [Modifiers][Modifier] from the given Core Reflection mods. The set is in customary order,
+         * as defined in §8.1.1
+         *
+         * **Note: this value is immutable, and is shared between all calls with the same modifiers**
          */
         @Untested
         @JvmStatic
         public fun fromModifiers(mods: Int): Set<Modifier> {
-            return ORDERED.filterTo(mutableSetOf()) { it.test(mods) }
+            return sets.of(mods)
         }
 
         /**
-         * Extracts a set of [Modifiers][Modifier] from the given Core Reflection method mods.
+         * Extracts a set of [Modifiers][Modifier] from the given Core Reflection method mods. The set is in customary
+         * order, as defined in §8.1.1
          *
          * This exists as a workaround for [JDK-5070593](https://bugs.openjdk.java.net/browse/JDK-5070593).
+         *
+         * **Note: this value is immutable, and is shared between all calls with the same modifiers**
          */
         @Untested
         @JvmStatic
         public fun fromMethodModifiers(mods: Int): Set<Modifier> {
-            return ORDERED.filterTo(mutableSetOf()) { it != VOLATILE && it != TRANSIENT && it.test(mods) }
+            return sets.of(methodModifiers(mods))
+        }
+
+        /**
+         * Removes the bits that are reused for method flags, since they don't represent the `volatile` and
+         * `transient` modifiers on methods. (see [fromMethodModifiers])
+         */
+        @JvmSynthetic
+        internal fun methodModifiers(mods: Int): Int {
+            return mods and (VOLATILE.mask or TRANSIENT.mask).inv()
         }
 
 
@@ -5,8 +5,10 @@ import dev.thecodewarrior.mirror.NoSuchMirrorException
 import dev.thecodewarrior.mirror.member.ConstructorMirror
 import dev.thecodewarrior.mirror.member.ExecutableMirror
 import dev.thecodewarrior.mirror.member.FieldMirror
+import dev.thecodewarrior.mirror.member.MemberMirror
 import dev.thecodewarrior.mirror.member.MethodMirror
 import dev.thecodewarrior.mirror.member.Modifier
+import dev.thecodewarrior.mirror.member.ParameterMirror
 import dev.thecodewarrior.mirror.impl.utils.Untested
 import dev.thecodewarrior.mirror.util.AnnotationList
 import dev.thecodewarrior.mirror.util.DeclarationMirror
@@ -717,6 +719,55 @@ public interface ClassMirror : ConcreteTypeMirror, DeclarationMirror {
     public fun getMemberClass(name: String): ClassMirror
 //endregion =====================================================================================================================
 
+//region Annotated members ======================================================================================================
+    /**
+     * The methods, fields, and constructors of this class that have an annotation of the specified type
+     * [present][AnnotationList.isPresent]. If [includeInherited] is false this only includes members declared in this
+     * class, otherwise it includes the methods in [visibleMethods] and the fields in [fields]. Constructors are never
+     * inherited. The returned list has the methods first, then the fields, then the constructors.
+     *
+     * The members are indexed by annotation type the first time this or one of the other `annotatedX` methods is
+     * called, so subsequent calls don't have to check each member.
+     *
+     * **Note: The returned list is immutable.**
+     */
+    public fun annotatedMembers(annotationClass: Class<out Annotation>, includeInherited: Boolean): List<MemberMirror>
+
+    /**
+     * The methods of this class that have an annotation of the specified type [present][AnnotationList.isPresent].
+     * If [includeInherited] is false this only includes methods in [declaredMethods], otherwise it includes the methods
+     * in [visibleMethods].
+     *
+     * **Note: The returned list is immutable.**
+     *
+     * @see annotatedMembers
+     */
+    public fun annotatedMethods(annotationClass: Class<out Annotation>, includeInherited: Boolean): List<MethodMirror>
+
+    /**
+     * The fields of this class that have an annotation of the specified type [present][AnnotationList.isPresent].
+     * If [includeInherited] is false this only includes fields in [declaredFields], otherwise it includes the fields in
+     * [fields].
+     *
+     * **Note: The returned list is immutable.**
+     *
+     * @see annotatedMembers
+     */
+    public fun annotatedFields(annotationClass: Class<out Annotation>, includeInherited: Boolean): List<FieldMirror>
+
+    /**
+     * The parameters of this class's methods and constructors that have an annotation of the specified type
+     * [present][AnnotationList.isPresent]. If [includeInherited] is false this only includes the parameters of methods
+     * in [declaredMethods], otherwise it includes the parameters of methods in [visibleMethods]. The returned list has
+     * the method parameters first, then the constructor parameters.
+     *
+     * **Note: The returned list is immutable.**
+     *
+     * @see annotatedMembers
+     */
+    public fun annotatedParameters(annotationClass: Class<out Annotation>, includeInherited: Boolean): List<ParameterMirror>
+//endregion =====================================================================================================================
+
     /**
      * A set of useful flags for classes, such as whether it is abstract, anonymous, primitive, etc.
      */
@@ -0,0 +1,98 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.testsupport.MTest
+import dev.thecodewarrior.mirror.type.ClassMirror
+import dev.thecodewarrior.mirror.type.TypeMirror
+
+/**
+ * Measures the latency of [TypeMirror.isAssignableFrom] across every pair of a set of raw, specialized, wildcard, and
+ * type variable mirrors.
+ *
+ * - Misses are measured by querying every pair once in a fresh [MirrorContext]. The mirrors' supertypes and type
+ *   parameters are resolved before timing, so only the assignability checks are counted.
+ * - Hits are measured by repeatedly querying the pairs of a working set that fits in the cache.
+ *
+ * Usage: `AssignabilityBenchmark [rounds]`
+ */
+internal object AssignabilityBenchmark: MTest() { // extending MTest for its helpers, not for the JUnit functionality
+    private const val HOT_SET_SIZE = 48
+
+    @JvmStatic
+    fun main(args: Array<String>) {
+        val rounds = args.getOrNull(0)?.toInt() ?: 20
+
+        // the first few rounds warm up the JIT and load the classes, so they aren't counted
+        repeat(5) { missRound() }
+        val misses = DoubleArray(rounds) { missRound() }
+        misses.sort()
+        println("miss median: ${"%.1f".format(misses[rounds / 2])}ns/op")
+
+        val context = Mirror.newContext()
+        val hot = types(context).take(HOT_SET_SIZE)
+        repeat(5) { hitRound(hot) }
+        val hits = DoubleArray(rounds) { hitRound(hot) }
+        hits.sort()
+        println("hit median: ${"%.1f".format(hits[rounds / 2])}ns/op")
+    }
+
+    /**
+     * Queries every pair once in a fresh context, returning the average time per query in nanoseconds
+     */
+    private fun missRound(): Double {
+        val types = types(Mirror.newContext())
+        types.filterIsInstance<ClassMirror>().forEach {
+            it.superclass
+            it.interfaces
+            it.typeParameters
+        }
+        val start = System.nanoTime()
+        var count = 0
+        for(target in types) {
+            for(source in types) {
+                if(target.isAssignableFrom(source)) count++
+            }
+        }
+        return (System.nanoTime() - start).toDouble() / (types.size * types.size)
+    }
+
+    /**
+     * Queries every pair many times, returning the average time per query in nanoseconds
+     */
+    private fun hitRound(types: List<TypeMirror>): Double {
+        val repetitions = 1000
+        val start = System.nanoTime()
+        var count = 0
+        repeat(repetitions) {
+            for(target in types) {
+                for(source in types) {
+                    if(target.isAssignableFrom(source)) count++
+                }
+            }
+        }
+        return (System.nanoTime() - start).toDouble() / (repetitions * types.size * types.size)
+    }
+
+    private fun types(context: MirrorContext): List<TypeMirror> {
+        val arguments = listOf(String::class.java, Int::class.javaObjectType, Number::class.java, Any::class.java)
+            .map { context.reflect(it) }
+        val types = mutableListOf<TypeMirror>()
+        for(clazz in listOf(List::class.java, ArrayList::class.java, Collection::class.java, Iterable::class.java,
+            Set::class.java, HashSet::class.java, java.util.LinkedList::class.java, java.util.Deque::class.java,
+            Comparable::class.java)) {
+            arguments.mapTo(types) { context.reflectClass(clazz).withTypeArguments(it) }
+        }
+        for(clazz in listOf(Map::class.java, HashMap::class.java, java.util.TreeMap::class.java)) {
+            arguments.take(2).mapTo(types) { context.reflectClass(clazz).withTypeArguments(it, arguments[2]) }
+        }
+        // the parameters of the generic methods in Collections include wildcards, type variables, and arrays
+        for(method in java.util.Collections::class.java.methods) {
+            for(parameter in method.genericParameterTypes) {
+                val type = context.reflect(parameter)
+                types.add(type)
+                if(type is ClassMirror)
+                    types.addAll(type.typeParameters)
+            }
+        }
+        return types
+    }
+}
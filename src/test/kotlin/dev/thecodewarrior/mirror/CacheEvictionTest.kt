@@ -0,0 +1,117 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.testsupport.MTest
+import dev.thecodewarrior.mirror.testsupport.TestSources
+import org.junit.jupiter.api.Assertions.assertNotSame
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import java.lang.ref.WeakReference
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlin.concurrent.thread
+
+internal class CacheEvictionTest: MTest() {
+    @Test
+    fun `evicting a class should remove its mirrors`() {
+        val X by sources.add("X", "class X { int field; void method(int param) {} }")
+        sources.compile()
+        val type = Mirror.reflect(X)
+        val field = Mirror.reflect(X._f("field"))
+        val method = Mirror.reflect(X._m("method"))
+        val parameter = method.parameters[0]
+        Mirror.evict(X)
+        assertNotSame(type, Mirror.reflect(X))
+        assertNotSame(field, Mirror.reflect(X._f("field")))
+        assertNotSame(method, Mirror.reflect(X._m("method")))
+        assertNotSame(parameter, Mirror.reflect(X._m("method")).parameters[0])
+    }
+
+    @Test
+    fun `evicting a type argument should remove the specializations that use it`() {
+        val X by sources.add("X", "class X {}")
+        sources.compile()
+        val rawList = Mirror.reflectClass<List<*>>()
+        val list = rawList.withTypeArguments(Mirror.reflect(X))
+        Mirror.evict(X)
+        assertSame(rawList, Mirror.reflectClass<List<*>>())
+        assertNotSame(list, Mirror.reflectClass<List<*>>().withTypeArguments(Mirror.reflect(X)))
+    }
+
+    @Test
+    fun `evicting an unrelated class should keep existing mirrors`() {
+        val X by sources.add("X", "class X {}")
+        val Y by sources.add("Y", "class Y {}")
+        sources.compile()
+        val type = Mirror.reflect(X)
+        Mirror.evict(Y)
+        assertSame(type, Mirror.reflect(X))
+    }
+
+    @Test
+    fun `evicting a class while it's being reflected should never leave unevictable mirrors`() {
+        val X by sources.add("X", "class X {}")
+        sources.compile()
+        val running = AtomicBoolean(true)
+        val threads = (0 until 4).map {
+            thread {
+                while(running.get()) {
+                    Mirror.reflect(X)
+                }
+            }
+        }
+        try {
+            for(i in 0 until 10000) {
+                Mirror.evict(X)
+            }
+        } finally {
+            running.set(false)
+            threads.forEach { it.join() }
+        }
+        // a mirror that raced with an eviction and survived it would also survive this one
+        val type = Mirror.reflect(X)
+        Mirror.evict(X)
+        assertNotSame(type, Mirror.reflect(X))
+    }
+
+    @Test
+    fun `evicting a type argument from the weak cache should remove the specializations that use it`() {
+        Mirror.cacheStrategy = CacheStrategy.WEAK
+        val X by sources.add("X", "class X {}")
+        sources.compile()
+        val list = Mirror.reflectClass<List<*>>().withTypeArguments(Mirror.reflect(X))
+        Mirror.evict(X)
+        assertNotSame(list, Mirror.reflectClass<List<*>>().withTypeArguments(Mirror.reflect(X)))
+    }
+
+    @Test
+    fun `evicting a class loader should allow it to be unloaded from the strong cache`() {
+        val loader = reflectAndEvictInNewLoader()
+        for(i in 0 until 20) {
+            System.gc()
+            if(loader.get() == null)
+                break
+            Thread.sleep(50)
+        }
+        assertNull(loader.get())
+    }
+
+    /**
+     * Compiles and reflects a class in a new class loader, then evicts the loader. This is a separate method so none of
+     * the references to the class loader or the class outlive it.
+     */
+    private fun reflectAndEvictInNewLoader(): WeakReference<ClassLoader> {
+        val sources = TestSources()
+        val X by sources.add("X", "class X<T> { List<X<T>> field; void method(T param) {} }")
+        sources.compile()
+
+        val mirror = Mirror.reflectClass(X)
+        mirror.fields.forEach { it.type }
+        mirror.methods.forEach { method -> method.parameters.forEach { it.type } }
+        val list = Mirror.reflectClass<List<*>>().withTypeArguments(mirror)
+        list.methods.forEach { it.returnType }
+        mirror.withTypeArguments(Mirror.reflect<String>()).fields.forEach { it.type }
+
+        Mirror.evict(sources.classLoader!!)
+        return WeakReference(sources.classLoader!!)
+    }
+}
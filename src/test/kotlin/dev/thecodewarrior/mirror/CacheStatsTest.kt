@@ -0,0 +1,71 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.testsupport.MTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+internal class CacheStatsTest: MTest() {
+    @Test
+    fun `reflecting a new type should count a miss and a creation`() {
+        val X by sources.add("X", "class X {}")
+        sources.compile()
+        val before = Mirror.cacheStats().types
+        Mirror.reflect(X)
+        val after = Mirror.cacheStats().types
+        assertEquals(before.misses + 1, after.misses)
+        assertEquals(before.creations + 1, after.creations)
+        assertEquals(before.rawSize + 1, after.rawSize)
+        assertTrue(after.buildNanos > before.buildNanos)
+    }
+
+    @Test
+    fun `reflecting a cached type should count a hit`() {
+        val X by sources.add("X", "class X {}")
+        sources.compile()
+        Mirror.reflect(X)
+        val before = Mirror.cacheStats().types
+        Mirror.reflect(X)
+        val after = Mirror.cacheStats().types
+        assertEquals(before.hits + 1, after.hits)
+        assertEquals(before.misses, after.misses)
+    }
+
+    @Test
+    fun `specializing a type should be counted against its raw mirror`() {
+        val X by sources.add("X", "class X<T> {}")
+        sources.compile()
+        val raw = Mirror.reflectClass(X)
+        raw.withTypeArguments(Mirror.reflect<String>())
+        raw.withTypeArguments(Mirror.reflect<Int>())
+        val stats = Mirror.cacheStats().types
+        val count = stats.mostSpecialized.find { it.raw === raw }
+        assertEquals(2, count?.count)
+    }
+
+    @Test
+    fun `the most specialized mirrors should be sorted by count`() {
+        val X by sources.add("X", "class X<T> {}")
+        val Y by sources.add("Y", "class Y<T> {}")
+        sources.compile()
+        Mirror.reflectClass(X).withTypeArguments(Mirror.reflect<String>())
+        Mirror.reflectClass(Y).withTypeArguments(Mirror.reflect<String>())
+        Mirror.reflectClass(Y).withTypeArguments(Mirror.reflect<Int>())
+        val stats = Mirror.cacheStats().types
+        val counts = stats.mostSpecialized.map { it.count }
+        assertEquals(counts.sortedDescending(), counts)
+    }
+
+    @Test
+    fun `the weak cache should report its entries`() {
+        Mirror.cacheStrategy = CacheStrategy.WEAK
+        val X by sources.add("X", "class X<T> {}")
+        sources.compile()
+        val raw = Mirror.reflectClass(X)
+        raw.withTypeArguments(Mirror.reflect<String>())
+        val stats = Mirror.cacheStats().types
+        assertTrue(stats.rawSize > 0)
+        assertSame(raw, stats.mostSpecialized.single { it.raw === raw }.raw)
+    }
+}
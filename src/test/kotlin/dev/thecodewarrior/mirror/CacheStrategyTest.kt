@@ -0,0 +1,70 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.testsupport.MTest
+import dev.thecodewarrior.mirror.testsupport.TestSources
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotSame
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import java.lang.ref.WeakReference
+
+internal class CacheStrategyTest: MTest() {
+    @Test
+    fun `the default cache strategy should be strong`() {
+        assertEquals(CacheStrategy.STRONG, Mirror.cacheStrategy)
+    }
+
+    @Test
+    fun `changing the cache strategy should replace the core types`() {
+        val strongInt = Mirror.types.int
+        Mirror.cacheStrategy = CacheStrategy.WEAK
+        assertEquals(CacheStrategy.WEAK, Mirror.cacheStrategy)
+        assertSame(Mirror.reflect(Int::class.javaPrimitiveType!!), Mirror.types.int)
+        assertNotSame(strongInt, Mirror.types.int)
+    }
+
+    @Test
+    fun `the weak cache should return the same mirrors for the same types`() {
+        Mirror.cacheStrategy = CacheStrategy.WEAK
+        val X by sources.add("X", "class X<T> { List<T> field; }")
+        sources.compile()
+        assertSame(Mirror.reflect(X), Mirror.reflect(X))
+        assertSame(Mirror.reflect(X._f("field")), Mirror.reflect(X._f("field")))
+        val specialized = Mirror.reflectClass(X).withTypeArguments(Mirror.reflect<String>())
+        assertSame(specialized, Mirror.reflectClass(X).withTypeArguments(Mirror.reflect<String>()))
+        assertSame(specialized.getField("field"), specialized.getField("field"))
+    }
+
+    @Test
+    fun `the weak cache should allow reflected classes to be unloaded`() {
+        Mirror.cacheStrategy = CacheStrategy.WEAK
+        val loader = reflectInNewLoader()
+        for(i in 0 until 20) {
+            System.gc()
+            if(loader.get() == null)
+                break
+            Thread.sleep(50)
+        }
+        assertNull(loader.get())
+    }
+
+    /**
+     * Compiles and reflects a class in a new class loader. This is a separate method so none of the references to the
+     * class loader or the class outlive it.
+     */
+    private fun reflectInNewLoader(): WeakReference<ClassLoader> {
+        val sources = TestSources()
+        val X by sources.add("X", "class X<T> { List<X<T>> field; void method(T param) {} }")
+        sources.compile()
+
+        val mirror = Mirror.reflectClass(X)
+        mirror.fields.forEach { it.type }
+        mirror.methods.forEach { method -> method.parameters.forEach { it.type } }
+        val list = Mirror.reflectClass<List<*>>().withTypeArguments(mirror)
+        list.methods.forEach { it.returnType }
+        mirror.withTypeArguments(Mirror.reflect<String>()).fields.forEach { it.type }
+
+        return WeakReference(sources.classLoader!!)
+    }
+}
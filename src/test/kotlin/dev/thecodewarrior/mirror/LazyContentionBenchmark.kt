@@ -0,0 +1,86 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.testsupport.MTest
+import java.lang.management.ManagementFactory
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Measures how long it takes many threads to warm up the same set of mirrors at the same time, and how much they
+ * allocate doing it. Every thread resolves every lazy member of the same mirrors, so they all race to initialize the
+ * same values. Each round uses a fresh [MirrorContext], so nothing is already initialized.
+ *
+ * Usage: `LazyContentionBenchmark [threads] [rounds]`
+ */
+internal object LazyContentionBenchmark: MTest() { // extending MTest for its helpers, not for the JUnit functionality
+    private val classes = listOf(
+        java.util.ArrayList::class.java, java.util.LinkedList::class.java, java.util.HashMap::class.java,
+        java.util.TreeMap::class.java, java.util.LinkedHashMap::class.java, java.util.HashSet::class.java,
+        java.util.TreeSet::class.java, java.util.ArrayDeque::class.java, java.util.PriorityQueue::class.java,
+        java.util.concurrent.ConcurrentHashMap::class.java, java.util.concurrent.ConcurrentSkipListMap::class.java,
+        java.util.concurrent.CopyOnWriteArrayList::class.java, java.util.concurrent.LinkedBlockingQueue::class.java,
+        java.util.Optional::class.java, java.util.stream.Collectors::class.java, java.lang.String::class.java,
+        java.lang.StringBuilder::class.java, java.lang.Thread::class.java, java.lang.Integer::class.java,
+        java.math.BigInteger::class.java, java.math.BigDecimal::class.java, java.time.LocalDateTime::class.java,
+        java.time.Duration::class.java, java.io.File::class.java
+    )
+
+    // the per-thread allocation counter is a HotSpot extension
+    private val threadBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+
+    @JvmStatic
+    fun main(args: Array<String>) {
+        val threads = args.getOrNull(0)?.toInt() ?: Runtime.getRuntime().availableProcessors() * 2
+        val rounds = args.getOrNull(1)?.toInt() ?: 20
+        val pool = Executors.newFixedThreadPool(threads)
+
+        println("Warming up ${classes.size} classes on $threads threads, $rounds rounds")
+        // the first few rounds warm up the JIT and load the classes, so they aren't counted
+        repeat(5) { round(pool, threads) }
+        val results = Array(rounds) { round(pool, threads) }
+        pool.shutdown()
+        pool.awaitTermination(1, TimeUnit.MINUTES)
+
+        val times = LongArray(rounds) { results[it].first }
+        val allocated = LongArray(rounds) { results[it].second }
+        times.sort()
+        allocated.sort()
+        println("min: ${"%.2f".format(times.first() / 1e6)}ms")
+        println("median: ${"%.2f".format(times[rounds / 2] / 1e6)}ms")
+        println("max: ${"%.2f".format(times.last() / 1e6)}ms")
+        println("median allocated: ${"%.2f".format(allocated[rounds / 2] / 1e6)}MB")
+    }
+
+    /**
+     * Runs a single round, returning the time it took in nanoseconds and the bytes the threads allocated
+     */
+    private fun round(pool: ExecutorService, threads: Int): Pair<Long, Long> {
+        val context = Mirror.newContext()
+        val ready = CountDownLatch(threads)
+        val start = CountDownLatch(1)
+        val done = CountDownLatch(threads)
+        val allocated = AtomicLong()
+        repeat(threads) {
+            pool.execute {
+                ready.countDown()
+                start.await()
+                val thread = Thread.currentThread().id
+                val allocatedBefore = threadBean.getThreadAllocatedBytes(thread)
+                try {
+                    classes.forEach { StressTest.loadLazies(context.reflectClass(it)) }
+                } finally {
+                    allocated.addAndGet(threadBean.getThreadAllocatedBytes(thread) - allocatedBefore)
+                    done.countDown()
+                }
+            }
+        }
+        ready.await()
+        val startTime = System.nanoTime()
+        start.countDown()
+        done.await()
+        return System.nanoTime() - startTime to allocated.get()
+    }
+}
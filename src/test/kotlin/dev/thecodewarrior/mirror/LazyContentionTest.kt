@@ -0,0 +1,65 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.testsupport.MTest
+import dev.thecodewarrior.mirror.type.ClassMirror
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertTimeoutPreemptively
+import java.time.Duration
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+
+/**
+ * Has many threads warm up the same mirrors at the same time, so they all race to initialize the same lazy members
+ * and invokers. Each round uses a fresh [MirrorContext], so nothing is already initialized, and every thread has to end
+ * up with the same instances.
+ */
+internal class LazyContentionTest: MTest() {
+    private val classes = listOf(
+        java.util.ArrayList::class.java, java.util.LinkedList::class.java, java.util.HashMap::class.java,
+        java.util.TreeMap::class.java, java.util.ArrayDeque::class.java, java.util.concurrent.ConcurrentHashMap::class.java
+    )
+
+    private fun members(mirror: ClassMirror): List<Any> {
+        return listOf(
+            mirror.declaredMethods, mirror.inheritedMethods, mirror.publicMethods, mirror.visibleMethods,
+            mirror.methods, mirror.declaredFields, mirror.publicFields, mirror.fields, mirror.declaredConstructors,
+            mirror.publicConstructors, mirror.declaredMemberClasses, mirror.publicMemberClasses, mirror.memberClasses
+        )
+    }
+
+    @Test
+    fun `threads racing to initialize the same mirrors should all see the same members`() {
+        val threads = 8
+        val pool = Executors.newFixedThreadPool(threads)
+        try {
+            repeat(5) {
+                val context = Mirror.newContext()
+                val start = CountDownLatch(1)
+                val results = (0 until threads).map {
+                    pool.submit(Callable {
+                        start.await()
+                        classes.map { clazz ->
+                            val mirror = context.reflectClass(clazz)
+                            StressTest.loadLazies(mirror)
+                            val size = mirror.getMethodRaw("size")
+                            assertEquals(0, size.call<Int>(clazz.getConstructor().newInstance()))
+                            members(mirror) + size
+                        }
+                    })
+                }
+                start.countDown()
+                val members = assertTimeoutPreemptively(Duration.ofSeconds(30)) { results.map { it.get() } }
+                members.forEach { threadMembers ->
+                    threadMembers.flatten().zip(members[0].flatten()).forEach { (actual, expected) ->
+                        assertSame(expected, actual)
+                    }
+                }
+            }
+        } finally {
+            pool.shutdownNow()
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.impl.MetadataSnapshot
+import dev.thecodewarrior.mirror.impl.type.ClassMirrorImpl
+import dev.thecodewarrior.mirror.member.MethodMirror
+import dev.thecodewarrior.mirror.testsupport.MTest
+import dev.thecodewarrior.mirror.type.ClassMirror
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.io.TempDir
+import java.io.IOException
+import java.nio.file.Files
+import java.nio.file.Path
+import java.util.concurrent.ConcurrentHashMap
+
+internal class MetadataSnapshotTest: MTest() {
+    private val classes = listOf(ArrayList::class.java, HashMap::class.java, ConcurrentHashMap::class.java)
+
+    private fun describe(methods: List<MethodMirror>) = methods.map { "${it.declaringClass}#${it.java}" }
+    private fun describeOverrides(mirror: ClassMirror) = mirror.declaredMethods.map { method ->
+        method.overrides?.let { "${it.declaringClass}#${it.java}" }
+    }
+
+    @Test
+    fun `a loaded snapshot should produce the same methods as computing them`(@TempDir dir: Path) {
+        val path = dir.resolve("snapshot.bin")
+        val writer = Mirror.newContext()
+        writer.preload(classes)
+        assertTrue(writer.writeSnapshot(path) >= classes.size)
+
+        val live = Mirror.newContext()
+        val snapshot = Mirror.newContext()
+        assertTrue(snapshot.loadSnapshot(path) >= classes.size)
+
+        for(clazz in classes) {
+            val expected = live.reflectClass(clazz)
+            val actual = snapshot.reflectClass(clazz)
+            assertEquals(describe(expected.methods), describe(actual.methods))
+            assertEquals(describe(expected.inheritedMethods), describe(actual.inheritedMethods))
+            assertEquals(describe(expected.visibleMethods), describe(actual.visibleMethods))
+            assertEquals(describeOverrides(expected), describeOverrides(actual))
+        }
+    }
+
+    @Test
+    fun `methods from a snapshot should be the same mirrors as reflecting them`(@TempDir dir: Path) {
+        val path = dir.resolve("snapshot.bin")
+        val writer = Mirror.newContext()
+        writer.reflectClass(ArrayList::class.java).methods
+        writer.writeSnapshot(path)
+
+        val context = Mirror.newContext()
+        context.loadSnapshot(path)
+        val method = ArrayList::class.java.getMethod("add", Any::class.java)
+        assertEquals(context.reflect(method), context.reflectClass(ArrayList::class.java).methods.single { it.java == method })
+    }
+
+    @Test
+    fun `loading a file that isn't a snapshot should throw`(@TempDir dir: Path) {
+        val path = dir.resolve("snapshot.bin")
+        Files.write(path, ByteArray(16))
+        assertThrows<IOException> {
+            Mirror.newContext().loadSnapshot(path)
+        }
+    }
+
+    @Test
+    fun `a selection should match the candidates by signature, regardless of their order`() {
+        val mirror = Mirror.reflectClass(ArrayList::class.java) as ClassMirrorImpl
+        val candidates = mirror.methodCandidates()
+        val selection = MetadataSnapshot.Selection.of(candidates, mirror.methods)!!
+        assertEquals(describe(mirror.methods), describe(selection.select(candidates)!!))
+
+        val reordered = candidates.reversed()
+        val expected = reordered.filter { candidate -> mirror.methods.any { it === candidate } }.distinct()
+        assertEquals(describe(expected), describe(selection.select(reordered)!!))
+    }
+
+    @Test
+    fun `a selection with a signature that isn't in the candidates should be rejected`() {
+        val mirror = Mirror.reflectClass(ArrayList::class.java) as ClassMirrorImpl
+        val candidates = mirror.methodCandidates()
+        val selection = MetadataSnapshot.Selection.of(candidates, mirror.methods)!!
+        val missing = MetadataSnapshot.Selection(
+            selection.candidateCount,
+            selection.signatures.copyOf().also { it[0] = it.maxOrNull()!! + 1 }
+        )
+        assertNull(missing.select(candidates))
+    }
+}
@@ -0,0 +1,131 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.testsupport.AnnotationWithParameter
+import dev.thecodewarrior.mirror.testsupport.MTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotSame
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+internal class MirrorContextTest: MTest() {
+    @Test
+    fun `a context should return the same mirror for the same type`() {
+        val context = Mirror.newContext()
+        assertSame(context.reflect<String>(), context.reflect<String>())
+    }
+
+    @Test
+    fun `different contexts should return different mirrors`() {
+        val context1 = Mirror.newContext()
+        val context2 = Mirror.newContext()
+        assertNotSame(context1.reflect<String>(), context2.reflect<String>())
+        assertNotSame(context1.reflect<String>(), Mirror.reflect<String>())
+    }
+
+    @Test
+    fun `a context's core types should be from that context`() {
+        val context = Mirror.newContext()
+        assertSame(context.reflect(Int::class.javaPrimitiveType!!), context.types.int)
+        assertNotSame(Mirror.types.int, context.types.int)
+    }
+
+    @Test
+    fun `specializing in a context should keep the mirrors in that context`() {
+        val X by sources.add("X", "class X<T> { T field; }")
+        sources.compile()
+        val context = Mirror.newContext()
+        val specialized = context.reflectClass(X).withTypeArguments(context.reflect<String>())
+        assertSame(context.reflect<String>(), specialized.getField("field").type)
+    }
+
+    @Test
+    fun `specializing using a mirror from another context should throw`() {
+        val X by sources.add("X", "class X<T> {}")
+        sources.compile()
+        val context = Mirror.newContext()
+        assertThrows<IllegalArgumentException> {
+            context.reflectClass(X).withTypeArguments(Mirror.reflect<String>())
+        }
+    }
+
+    @Test
+    fun `a context should use the configured strategies`() {
+        val config = MirrorConfig(
+            cacheStrategy = CacheStrategy.WEAK,
+            invocationStrategy = InvocationStrategy.GENERATED,
+            specializationCacheSize = 16
+        )
+        val context = Mirror.newContext(config)
+        assertSame(config, context.config)
+        assertEquals(InvocationStrategy.GENERATED, context.invocationStrategy)
+        assertSame(context.reflect<String>(), context.reflect<String>())
+    }
+
+    @Test
+    fun `a context without stats should still report sizes`() {
+        val context = Mirror.newContext(MirrorConfig(collectStats = false))
+        context.reflect<String>()
+        val stats = context.cacheStats().types
+        assertEquals(0, stats.hits + stats.misses)
+        assertEquals(1, stats.rawSize)
+    }
+
+    @Test
+    fun `evicting from a context should not affect other contexts`() {
+        val X by sources.add("X", "class X {}")
+        sources.compile()
+        val context = Mirror.newContext()
+        val global = Mirror.reflect(X)
+        val local = context.reflect(X)
+        context.evict(X)
+        assertSame(global, Mirror.reflect(X))
+        assertNotSame(local, context.reflect(X))
+    }
+
+    @Test
+    fun `a context without interning should create distinct annotations`() {
+        val context = Mirror.newContext()
+        assertNotSame(
+            context.newAnnotation(AnnotationWithParameter::class.java, mapOf("foo" to 1)),
+            context.newAnnotation(AnnotationWithParameter::class.java, mapOf("foo" to 1))
+        )
+    }
+
+    @Test
+    fun `a context with interning should return the same instance for equal annotations`() {
+        val context = Mirror.newContext(MirrorConfig(internAnnotations = true))
+        val annotation = context.newAnnotation(AnnotationWithParameter::class.java, mapOf("foo" to 1))
+        assertSame(annotation, context.newAnnotation(AnnotationWithParameter::class.java, mapOf("foo" to 1)))
+        assertNotSame(annotation, context.newAnnotation(AnnotationWithParameter::class.java, mapOf("foo" to 2)))
+    }
+
+    @Test
+    fun `a context with interning should intern type annotations`() {
+        val context = Mirror.newContext(MirrorConfig(internAnnotations = true))
+        val annotation = context.newAnnotation(AnnotationWithParameter::class.java, mapOf("foo" to 1))
+        val type = context.reflect<String>().withTypeAnnotations(listOf(
+            Mirror.newAnnotation<AnnotationWithParameter>("foo" to 1)
+        ))
+        assertSame(annotation, type.typeAnnotations[0])
+    }
+
+    @Test
+    fun `mutating an array returned by an interned annotation should not affect the interned instance`() {
+        val A by sources.add("A", "@rt(TYPE) public @interface A { int[] value(); }").typed<Annotation>()
+        val B by sources.add("B", "@rt(TYPE) @interface B { int[] value(); }").typed<Annotation>()
+        sources.compile()
+        val context = Mirror.newContext(MirrorConfig(internAnnotations = true))
+        for(type in listOf(A, B)) {
+            val value = type.getDeclaredMethod("value").also { it.isAccessible = true }
+            val annotation = context.newAnnotation(type, mapOf("value" to intArrayOf(1, 2)))
+            val hashCode = annotation.hashCode()
+            (value.invoke(annotation) as IntArray)[0] = 3
+
+            assertEquals(listOf(1, 2), (value.invoke(annotation) as IntArray).toList())
+            assertEquals(hashCode, annotation.hashCode())
+            assertSame(annotation, context.newAnnotation(type, mapOf("value" to intArrayOf(1, 2))))
+            assertNotSame(annotation, context.newAnnotation(type, mapOf("value" to intArrayOf(3, 2))))
+        }
+    }
+}
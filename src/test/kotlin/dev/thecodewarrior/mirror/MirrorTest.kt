@@ -4,8 +4,17 @@ import dev.thecodewarrior.mirror.impl.coretypes.AnnotationFormatException
 import dev.thecodewarrior.mirror.testsupport.AnnotationWithParameter
 import dev.thecodewarrior.mirror.testsupport.MTest
 import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Assertions.assertNotSame
+import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.assertThrows
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.ObjectInputStream
+import java.io.ObjectOutputStream
+import java.lang.reflect.Proxy
 
 internal class MirrorTest: MTest() {
 
@@ -24,6 +33,90 @@ internal class MirrorTest: MTest() {
         }
     }
 
+    @Test
+    fun newAnnotation_ofPublicType_shouldEqualCompiledAnnotation() {
+        val A by sources.add("A", "@rt(TYPE) public @interface A { int value(); String[] names() default {\"a\"}; }")
+            .typed<Annotation>()
+        val X by sources.add("X", "@A(1) class X {}")
+        sources.compile()
+        val compiled = X.getAnnotation(A)
+        val created = Mirror.newAnnotation(A, "value" to 1)
+        assertFalse(Proxy.isProxyClass(created.javaClass))
+        assertEquals(compiled, created)
+        assertEquals(created, compiled)
+        assertEquals(compiled.hashCode(), created.hashCode())
+        assertEquals(1, A.getMethod("value").invoke(created))
+        assertEquals("@gen.A(names=[a], value=1)", created.toString())
+        assertNotEquals(Mirror.newAnnotation(A, "value" to 2), created)
+    }
+
+    @Test
+    fun newAnnotation_ofPublicType_shouldNotExposeArrayValues() {
+        val A by sources.add("A", "@rt(TYPE) public @interface A { int[] value(); }").typed<Annotation>()
+        sources.compile()
+        val value = A.getMethod("value")
+        val input = intArrayOf(1, 2)
+        val created = Mirror.newAnnotation(A, "value" to input)
+        val hashCode = created.hashCode()
+        input[0] = 3
+        (value.invoke(created) as IntArray)[1] = 3
+        assertEquals(listOf(1, 2), (value.invoke(created) as IntArray).toList())
+        assertEquals(hashCode, created.hashCode())
+        assertEquals(Mirror.newAnnotation(A, "value" to intArrayOf(1, 2)), created)
+    }
+
+    @Test
+    fun newAnnotation_ofPublicType_shouldSurviveSerialization() {
+        val created = Mirror.newAnnotation<AnnotationWithParameter>("foo" to 42)
+        val bytes = ByteArrayOutputStream()
+        ObjectOutputStream(bytes).use { it.writeObject(created) }
+        val deserialized = ObjectInputStream(ByteArrayInputStream(bytes.toByteArray())).use { it.readObject() }
+        assertNotSame(created, deserialized)
+        assertEquals(created, deserialized)
+        assertFalse(Proxy.isProxyClass(deserialized.javaClass))
+        assertEquals(42, (deserialized as AnnotationWithParameter).foo)
+    }
+
+    @Test
+    fun newAnnotation_ofPublicTypeWithPackagePrivateElementType_shouldFallBackToProxy() {
+        val E by sources.add("E", "enum E { FIRST, SECOND }")
+        val A by sources.add("A", "@rt(TYPE) public @interface A { E value(); }").typed<Annotation>()
+        val X by sources.add("X", "@A(E.SECOND) class X {}")
+        sources.compile()
+        val compiled = X.getAnnotation(A)
+        val created = Mirror.newAnnotation(A, "value" to E.enumConstants[1])
+        assertTrue(Proxy.isProxyClass(created.javaClass))
+        assertEquals(created, compiled)
+        assertEquals(compiled.hashCode(), created.hashCode())
+        // a second instance shouldn't be affected by the first attempt
+        assertEquals(created, Mirror.newAnnotation(A, "value" to E.enumConstants[1]))
+    }
+
+    @Test
+    fun newAnnotation_ofPackagePrivateType_shouldEqualCompiledAnnotation() {
+        val A by sources.add("A", "@rt(TYPE) @interface A { long value(); }").typed<Annotation>()
+        val X by sources.add("X", "@A(1) class X {}")
+        sources.compile()
+        val compiled = X.getAnnotation(A)
+        val created = Mirror.newAnnotation(A, "value" to 1L)
+        assertEquals(compiled, created)
+        assertEquals(created, compiled)
+        assertEquals(compiled.hashCode(), created.hashCode())
+    }
+
+    @Test
+    fun newAnnotation_ofPackagePrivateType_shouldCompareArraysByContent() {
+        val A by sources.add("A", "@rt(TYPE) @interface A { int[] value(); }").typed<Annotation>()
+        val X by sources.add("X", "@A({1, 2}) class X {}")
+        sources.compile()
+        val compiled = X.getAnnotation(A)
+        val created = Mirror.newAnnotation(A, "value" to intArrayOf(1, 2))
+        assertEquals(Mirror.newAnnotation(A, "value" to intArrayOf(1, 2)), created)
+        assertNotEquals(Mirror.newAnnotation(A, "value" to intArrayOf(1, 3)), created)
+        assertEquals(created, compiled)
+        assertNotEquals(Mirror.newAnnotation(A, "value" to intArrayOf(2, 1)), compiled)
+    }
+
     @Test
     fun createArrayType_withClass_shouldReturnTypedArray() {
         val X by sources.add("X", "class X {}")
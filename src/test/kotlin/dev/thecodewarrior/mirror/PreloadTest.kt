@@ -0,0 +1,98 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.testsupport.MTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.assertTimeoutPreemptively
+import java.time.Duration
+
+internal class PreloadTest: MTest() {
+    @Test
+    fun `preloading should report each class and its supertypes once`() {
+        val I by sources.add("I", "interface I {}")
+        val Base by sources.add("Base", "class Base implements I {}")
+        val A by sources.add("A", "class A extends Base implements I {}")
+        val B by sources.add("B", "class B extends Base {}")
+        sources.compile()
+        val report = Mirror.preload(listOf(A, B))
+        assertEquals(setOf(A, B, Base, I, Any::class.java), report.loaded)
+        assertTrue(report.failures.isEmpty())
+    }
+
+    @Test
+    fun `preloading without supertypes should only report the passed classes`() {
+        val Base by sources.add("Base", "class Base {}")
+        val A by sources.add("A", "class A extends Base {}")
+        sources.compile()
+        val report = Mirror.preload(listOf(A), PreloadOptions().withSupertypes(false))
+        assertEquals(setOf(A), report.loaded)
+    }
+
+    @Test
+    fun `preloading an array should preload its component class`() {
+        val X by sources.add("X", "class X {}")
+        sources.compile()
+        val report = Mirror.preload(listOf(java.lang.reflect.Array.newInstance(X, 0).javaClass, Void.TYPE))
+        assertTrue(X in report.loaded)
+        assertFalse(Void.TYPE in report.loaded)
+    }
+
+    @Test
+    fun `preloading should resolve the same mirrors as reflecting`() {
+        val X by sources.add("X", """
+            import java.util.List;
+            class X<T> {
+                List<T> field;
+                T method(List<? extends T> arg) { return null; }
+            }
+        """)
+        sources.compile()
+        val context = Mirror.newContext()
+        context.preload(listOf(X), PreloadOptions(parallelism = 4))
+        val mirror = context.reflectClass(X)
+        assertEquals(context.reflect(X._f("field")), mirror.getField("field"))
+        assertEquals(context.reflect(X._m("method", _c<List<*>>())), mirror.getMethod(X._m("method", _c<List<*>>())))
+    }
+
+    @Test
+    fun `preloading mutually referencing classes in parallel should not deadlock`() {
+        val Outer by sources.add("Outer", """
+            class Outer {
+                Inner inner;
+                Sub sub;
+                class Inner {
+                    Outer outer;
+                    Inner2 sibling;
+                    Sub sub;
+                    Sub method(Outer outer, Inner2 sibling) { return null; }
+                }
+                class Inner2 extends Inner {
+                    Inner back;
+                }
+                static class Nested extends Outer {
+                    Outer.Inner field;
+                }
+            }
+        """)
+        val Sub by sources.add("Sub", "class Sub extends Outer { Outer.Inner inner; Sub self; Outer.Nested nested; }")
+        sources.compile()
+        val classes = listOf(Outer, Outer._class("Inner"), Outer._class("Inner2"), Outer._class("Nested"), Sub)
+        assertTimeoutPreemptively(Duration.ofSeconds(30)) {
+            repeat(20) {
+                val report = Mirror.newContext().preload(classes, PreloadOptions(parallelism = 8))
+                assertTrue(report.failures.isEmpty())
+                assertTrue(report.loaded.containsAll(classes))
+            }
+        }
+    }
+
+    @Test
+    fun `preload options with a non-positive parallelism should throw`() {
+        assertThrows<IllegalArgumentException> {
+            PreloadOptions(parallelism = 0)
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package dev.thecodewarrior.mirror
+
+import dev.thecodewarrior.mirror.testsupport.MTest
+import dev.thecodewarrior.mirror.testsupport.TestSources
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.lang.ref.WeakReference
+
+internal class SpecializationCacheSizeTest: MTest() {
+    private val arguments = listOf(
+        String::class.java, Integer::class.java, java.lang.Long::class.java, java.lang.Short::class.java,
+        java.lang.Byte::class.java, java.lang.Double::class.java, java.lang.Float::class.java, Character::class.java
+    )
+
+    @Test
+    fun `the default specialization cache size should be unbounded`() {
+        assertEquals(Int.MAX_VALUE, Mirror.specializationCacheSize)
+    }
+
+    @Test
+    fun `setting a non-positive specialization cache size should throw`() {
+        assertThrows<IllegalArgumentException> {
+            Mirror.specializationCacheSize = 0
+        }
+    }
+
+    @Test
+    fun `a bounded cache should return the same specialization while it's referenced`() {
+        Mirror.specializationCacheSize = 2
+        val list = Mirror.reflectClass<List<*>>()
+        val specialized = list.withTypeArguments(Mirror.reflect<Thread>())
+        arguments.forEach { list.withTypeArguments(Mirror.reflect(it)) }
+        System.gc()
+        assertSame(specialized, list.withTypeArguments(Mirror.reflect<Thread>()))
+    }
+
+    @Test
+    fun `a bounded cache should release the least recently used specializations`() {
+        Mirror.specializationCacheSize = 2
+        val references = specializeInBoundedCache()
+        for(i in 0 until 20) {
+            System.gc()
+            if(references.count { it.get() != null } <= 2)
+                break
+            Thread.sleep(50)
+        }
+        assertTrue(references.count { it.get() != null } <= 2)
+    }
+
+    @Test
+    fun `a bounded weak cache should allow reflected classes to be unloaded`() {
+        Mirror.cacheStrategy = CacheStrategy.WEAK
+        Mirror.specializationCacheSize = 100
+        val loader = specializeInNewLoader()
+        for(i in 0 until 20) {
+            System.gc()
+            if(loader.get() == null)
+                break
+            Thread.sleep(50)
+        }
+        assertNull(loader.get())
+    }
+
+    /**
+     * Creates specializations without keeping any strong references to them
+     */
+    private fun specializeInBoundedCache(): List<WeakReference<Any>> {
+        val list = Mirror.reflectClass<List<*>>()
+        return arguments.map { WeakReference<Any>(list.withTypeArguments(Mirror.reflect(it))) }
+    }
+
+    /**
+     * Specializes a class in a new class loader, and specializes a system class with it. The cache is large enough to
+     * retain every specialization. This is a separate method so none of the references to the class loader or the
+     * class outlive it.
+     */
+    private fun specializeInNewLoader(): WeakReference<ClassLoader> {
+        val sources = TestSources()
+        val X by sources.add("X", "class X<T> { List<T> field; }")
+        sources.compile()
+
+        val mirror = Mirror.reflectClass(X)
+        mirror.withTypeArguments(Mirror.reflect<String>()).fields.forEach { it.type }
+        Mirror.reflectClass<List<*>>().withTypeArguments(mirror).methods.forEach { it.returnType }
+
+        return WeakReference(sources.classLoader!!)
+    }
+}
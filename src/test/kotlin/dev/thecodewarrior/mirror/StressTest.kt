@@ -1,12 +1,7 @@
 package dev.thecodewarrior.mirror
 
-import dev.thecodewarrior.mirror.impl.MirrorCache
-import dev.thecodewarrior.mirror.member.ExecutableMirror
-import dev.thecodewarrior.mirror.member.FieldMirror
-import dev.thecodewarrior.mirror.member.ParameterMirror
 import dev.thecodewarrior.mirror.testsupport.MTest
 import dev.thecodewarrior.mirror.type.ClassMirror
-import dev.thecodewarrior.mirror.type.TypeMirror
 import java.io.File
 
 internal object StressTest: MTest() { // extending MTest for its helpers, not for the JUnit functionality
@@ -41,38 +36,34 @@ internal object StressTest: MTest() { // extending MTest for its helpers, not fo
         println("Finished in ${minutes}m ${seconds}s ${millis}ms")
         println("Directly loaded ${classes.size} classes (average of ${delta.toDouble() / classes.size}ms per class)")
 
-        val mirrorCache = Mirror._get<MirrorCache>("cache")
-        cacheStats<TypeMirror>(mirrorCache.types, "type", "types")
-        cacheStats<ExecutableMirror>(mirrorCache.executables, "executable", "executables")
-        cacheStats<FieldMirror>(mirrorCache.fields, "field", "fields")
-        cacheStats<ParameterMirror>(mirrorCache.parameters, "parameter", "parameters") {
+        val stats = Mirror.cacheStats()
+        cacheStats(stats.types, "type", "types")
+        cacheStats(stats.executables, "executable", "executables")
+        cacheStats(stats.fields, "field", "fields")
+        cacheStats(stats.parameters, "parameter", "parameters") {
             "${it.declaringExecutable} > ${it.index}"
         }
+        cacheStats(stats.annotationStrings, "annotation string", "annotation strings")
     }
 
-    fun <T> cacheStats(cache: Any, kind: String, kinds: String, stringify: (T) -> String = { "$it" }) {
-        val rawCache = cache._get<Map<*, T>>("rawCache")
-        val specializedCache = cache._get<Map<Pair<T, *>, *>>("specializedCache")
-
-        val specializedCount = mutableMapOf<T, Int>()
-        specializedCache.forEach { (key, _), _ ->
-            specializedCount[key] = specializedCount.getOrDefault(key, 0) + 1
-        }
-        val sorted = specializedCount.entries.sortedByDescending { it.value }
-
+    fun <T> cacheStats(stats: CacheStats<T>, kind: String, kinds: String, stringify: (T) -> String = { "$it" }) {
         println()
         println("Cached $kinds:")
-        println("- raw $kinds: ${rawCache.size}")
-        println("- total specialized $kinds: ${specializedCount.size}")
-        println("- total $kind specializations: ${specializedCache.size}")
+        println("- hits: ${stats.hits}, misses: ${stats.misses} (${"%.2f".format(stats.hitRate * 100)}% hit rate)")
+        println("- created $kinds: ${stats.creations} in ${stats.buildNanos / 1_000_000}ms")
+        println("- raw $kinds: ${stats.rawSize}")
+        println("- total specialized $kinds: ${stats.mostSpecialized.size}")
+        println("- total $kind specializations: ${stats.specializedSize}")
+        if(stats.mostSpecialized.isEmpty())
+            return
         println("- most specialized $kinds:")
-        sorted.take(5).forEach { (value, count) ->
-            println(" - $count * ${stringify(value)}")
+        stats.mostSpecialized.take(5).forEach {
+            println(" - ${it.count} * ${stringify(it.raw)}")
         }
 
         File("$kind-specializations.csv").printWriter().use { w ->
-            sorted.forEach { (value, count) ->
-                w.println("$count, ${stringify(value)}")
+            stats.mostSpecialized.forEach {
+                w.println("${it.count}, ${stringify(it.raw)}")
             }
         }
     }
@@ -14,6 +14,7 @@ internal class ClassMirrorHelperTest: MTest() {
     val Generic by sources.add("Generic", "class Generic<T> {}")
     val IGeneric by sources.add("IGeneric", "interface IGeneric<T> {}")
     val GenericSub by sources.add("GenericSub", "class GenericSub<T> extends Generic<X> implements IGeneric<T> {}")
+    val GenericSubSub by sources.add("GenericSubSub", "class GenericSubSub extends GenericSub<X> {}")
     val types = sources.types {
         +"Generic<X>"
         +"IGeneric<X>"
@@ -46,4 +47,12 @@ internal class ClassMirrorHelperTest: MTest() {
     fun findSuperclass_withUnrelatedType_shouldThrow() {
         assertNull(Mirror.reflectClass(types["Generic<X>"]).findSuperclass(List::class.java))
     }
+
+    @Test
+    fun findSuperclass_onIndirectSubclass_shouldReturnSpecializedInterface() {
+        assertEquals(
+            Mirror.reflectClass(types["IGeneric<X>"]),
+            Mirror.reflectClass(GenericSubSub).findSuperclass(IGeneric)
+        )
+    }
 }
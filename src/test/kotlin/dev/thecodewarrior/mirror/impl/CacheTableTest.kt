@@ -0,0 +1,40 @@
+package dev.thecodewarrior.mirror.impl
+
+import dev.thecodewarrior.mirror.CacheStrategy
+import dev.thecodewarrior.mirror.MirrorConfig
+import dev.thecodewarrior.mirror.impl.type.TypeSpecialization
+import dev.thecodewarrior.mirror.testsupport.MTest
+import dev.thecodewarrior.mirror.type.TypeMirror
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+
+internal class CacheTableTest: MTest() {
+    @Test
+    fun `a probe should find the entry for an equal key in a strong table`() {
+        assertProbeFindsEntry(CacheStrategy.STRONG)
+    }
+
+    @Test
+    fun `a probe should find the entry for an equal key in a weak table`() {
+        assertProbeFindsEntry(CacheStrategy.WEAK)
+    }
+
+    private fun assertProbeFindsEntry(strategy: CacheStrategy) {
+        val X by sources.add("X", "class X {}")
+        sources.compile()
+        val cache = MirrorCache(MirrorConfig(cacheStrategy = strategy))
+        val raw = cache.types.reflect(List::class.java)
+        // X's class loader is further from the bootstrap loader than List's, so X owns the key
+        val argument = cache.types.reflect(X)
+        val table = CacheTable.create<TypeSpecialization, TypeMirror>(cache) { key, visitor ->
+            CacheKeys.visitSpecialization(raw, key, visitor)
+        }
+        val value = cache.types.reflect(String::class.java)
+        val base = TypeSpecialization.Class.DEFAULT
+        table.putIfAbsent(base.copy(arguments = listOf(argument)), value)
+
+        assertSame(value, table.find(TypeSpecialization.ArgumentsProbe(raw, base, arrayOf(argument))))
+        assertNull(table.find(TypeSpecialization.ArgumentsProbe(raw, base, arrayOf(value))))
+    }
+}
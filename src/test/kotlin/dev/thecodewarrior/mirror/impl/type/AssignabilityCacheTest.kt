@@ -0,0 +1,53 @@
+package dev.thecodewarrior.mirror.impl.type
+
+import dev.thecodewarrior.mirror.testsupport.MTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertNotEquals
+import org.junit.jupiter.api.Test
+
+internal class AssignabilityCacheTest: MTest() {
+    // ids this high are never handed out to mirrors during the tests, so these entries can't be confused with theirs
+    private val base = (1 shl 30) - 100_000
+
+    @Test
+    fun `a stored result should be found`() {
+        val trueKey = AssignabilityCache.key(base, base + 1, 0)
+        val falseKey = AssignabilityCache.key(base + 1, base, 0)
+        AssignabilityCache.store(trueKey, true)
+        AssignabilityCache.store(falseKey, false)
+        assertEquals(AssignabilityCache.HIT_TRUE, AssignabilityCache.find(trueKey))
+        assertEquals(AssignabilityCache.HIT_FALSE, AssignabilityCache.find(falseKey))
+    }
+
+    @Test
+    fun `ids that don't fit in the key should not be cached`() {
+        assertEquals(AssignabilityCache.NO_KEY, AssignabilityCache.key(1 shl 30, 0, 0))
+        assertEquals(AssignabilityCache.NO_KEY, AssignabilityCache.key(0, -1, 0))
+        assertNotEquals(AssignabilityCache.NO_KEY, AssignabilityCache.key((1 shl 30) - 1, (1 shl 30) - 1, 0))
+    }
+
+    @Test
+    fun `a stored result should not be found in the next epoch`() {
+        val key = AssignabilityCache.key(base + 2, base + 3, 0)
+        val nextEpochKey = AssignabilityCache.key(base + 2, base + 3, 1)
+        AssignabilityCache.store(key, true)
+        assertNotEquals(key, nextEpochKey)
+        assertEquals(AssignabilityCache.MISS, AssignabilityCache.find(nextEpochKey))
+        assertEquals(AssignabilityCache.HIT_TRUE, AssignabilityCache.find(key))
+    }
+
+    @Test
+    fun `overflowing the cache should evict entries without ever returning a wrong result`() {
+        val keys = (0 until 50_000).map { AssignabilityCache.key(base + it % 1000, base + it / 1000, 0) }
+        keys.forEachIndexed { i, key -> AssignabilityCache.store(key, i % 3 == 0) }
+        var hits = 0
+        keys.forEachIndexed { i, key ->
+            when(AssignabilityCache.find(key)) {
+                AssignabilityCache.HIT_TRUE -> { assertEquals(true, i % 3 == 0); hits++ }
+                AssignabilityCache.HIT_FALSE -> { assertEquals(false, i % 3 == 0); hits++ }
+            }
+        }
+        assertNotEquals(0, hits)
+        assertNotEquals(keys.size, hits)
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Assertions.assertArrayEquals
 import org.junit.jupiter.api.Assertions.assertEquals
 import org.junit.jupiter.api.Assertions.assertFalse
 import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertSame
 import org.junit.jupiter.api.Assertions.assertTrue
 import org.junit.jupiter.api.Nested
 import org.junit.jupiter.api.Test
@@ -248,6 +249,28 @@ internal class MethodMirrorTest : MTest() {
         )
     }
 
+    @Test
+    fun `'modifiers' for methods with the same modifiers should be the same instance`() {
+        val X by sources.add("X", """
+            public class X {
+                public void a() {}
+                public void b() {}
+            }
+        """)
+        sources.compile()
+        assertSame(Mirror.reflect(X._m("a")).modifiers, Mirror.reflect(X._m("b")).modifiers)
+    }
+
+    @Test
+    fun `'modifiers' for a bridge method should not include volatile`() {
+        val X by sources.add("X", "class X {}")
+        val Generic by sources.add("Generic", "abstract class Generic<T> { abstract T method(); }")
+        val Sub by sources.add("Sub", "class Sub extends Generic<X> { X method() { return null; } }")
+        sources.compile()
+        val bridge = Mirror.reflect(Sub.declaredMethods.single { it.isBridge })
+        assertFalse(Modifier.VOLATILE in bridge.modifiers)
+    }
+
     @Test
     fun `modifier helpers for methods should be correct`() {
         val X by sources.add("X", """
@@ -0,0 +1,99 @@
+package dev.thecodewarrior.mirror.methodhandles
+
+import dev.thecodewarrior.mirror.InvocationStrategy
+import dev.thecodewarrior.mirror.Mirror
+import dev.thecodewarrior.mirror.testsupport.MTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.lang.IllegalArgumentException
+
+internal class FixedArityCalls: MTest() {
+    @Test
+    fun `call0 on an instance method should correctly invoke it`() {
+        val X by sources.add("X", "class X { int field = 10; void method() { this.field = 20; } }")
+        sources.compile()
+        val instance = X._new<Any>()
+        Mirror.reflect(X._m("method")).call0<Unit>(instance)
+        assertEquals(20, instance._get<Any>("field"))
+    }
+
+    @Test
+    fun `call2 on an instance method should correctly pass the arguments and return the result`() {
+        val X by sources.add("X", "class X { private int method(int a, String b) { return a + b.length(); } }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertEquals(23, Mirror.reflect(X._m("method")).call2(instance, 20, "foo"))
+    }
+
+    @Test
+    fun `call2 on a static method should correctly pass the arguments and return the result`() {
+        val X by sources.add("X", "class X { static String method(String a, String b) { return a + b; } }")
+        sources.compile()
+        assertEquals("ab", Mirror.reflect(X._m("method")).call2(null, "a", "b"))
+    }
+
+    @Test
+    fun `call8 on a static method should correctly pass all the arguments`() {
+        val X by sources.add("X", """
+            class X {
+                static String method(String a, String b, String c, String d, String e, String f, String g, String h) {
+                    return a + b + c + d + e + f + g + h;
+                }
+            }
+        """.trimIndent())
+        sources.compile()
+        assertEquals("abcdefgh", Mirror.reflect(X._m("method")).call8(null, "a", "b", "c", "d", "e", "f", "g", "h"))
+    }
+
+    @Test
+    fun `call8 on an instance method should correctly pass all the arguments`() {
+        val X by sources.add("X", """
+            class X {
+                String method(String a, String b, String c, String d, String e, String f, String g, String h) {
+                    return a + b + c + d + e + f + g + h;
+                }
+            }
+        """.trimIndent())
+        sources.compile()
+        val instance = X._new<Any>()
+        assertEquals("abcdefgh", Mirror.reflect(X._m("method")).call8(instance, "a", "b", "c", "d", "e", "f", "g", "h"))
+    }
+
+    @Test
+    fun `calling with the wrong number of arguments should throw`() {
+        val X by sources.add("X", "class X { void method(int a, int b) { } }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertThrows<IllegalArgumentException> {
+            Mirror.reflect(X._m("method")).call1<Unit>(instance, 0)
+        }
+    }
+
+    @Test
+    fun `call1 on a constructor should correctly return an instance`() {
+        val X by sources.add("X", "class X { int field; private X(int param) { field = param; } }")
+        sources.compile()
+        val instance = Mirror.reflect(X._constructor()).call1<Any>(20)
+        assertEquals(X, instance.javaClass)
+        assertEquals(20, instance._get<Any>("field"))
+    }
+
+    @Test
+    fun `calling a constructor with the wrong number of arguments should throw`() {
+        val X by sources.add("X", "class X { X(int param) { } }")
+        sources.compile()
+        assertThrows<IllegalArgumentException> {
+            Mirror.reflect(X._constructor()).call0<Any>()
+        }
+    }
+
+    @Test
+    fun `call2 with the generated strategy should correctly pass the arguments and return the result`() {
+        Mirror.invocationStrategy = InvocationStrategy.GENERATED
+        val X by sources.add("X", "class X { private int method(int a, String b) { return a + b.length(); } }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertEquals(23, Mirror.reflect(X._m("method")).call2(instance, 20, "foo"))
+    }
+}
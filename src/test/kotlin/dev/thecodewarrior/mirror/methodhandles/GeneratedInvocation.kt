@@ -0,0 +1,64 @@
+package dev.thecodewarrior.mirror.methodhandles
+
+import dev.thecodewarrior.mirror.InvocationStrategy
+import dev.thecodewarrior.mirror.Mirror
+import dev.thecodewarrior.mirror.testsupport.MTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.lang.IllegalArgumentException
+
+internal class GeneratedInvocation: MTest() {
+    override fun initializeForTest() {
+        super.initializeForTest()
+        Mirror.invocationStrategy = InvocationStrategy.GENERATED
+    }
+
+    @Test
+    fun `calling a void method should correctly invoke it`() {
+        val X by sources.add("X", "class X { int field = 10; void method() { this.field = 20; } }")
+        sources.compile()
+        val instance = X._new<Any>()
+        Mirror.reflect(X._m("method")).call<Unit>(instance)
+        assertEquals(20, instance._get<Any>("field"))
+    }
+
+    @Test
+    fun `calling a private method with arguments should correctly pass them and return the result`() {
+        val X by sources.add("X", "class X { private int method(int a, String b) { return a + b.length(); } }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertEquals(23, Mirror.reflect(X._m("method")).call(instance, 20, "foo"))
+    }
+
+    @Test
+    fun `calling a static method should correctly return the result`() {
+        val X by sources.add("X", "class X { static String method(String a, String b) { return a + b; } }")
+        sources.compile()
+        assertEquals("ab", Mirror.reflect(X._m("method")).call(null, "a", "b"))
+    }
+
+    @Test
+    fun `calling a constructor should correctly return an instance`() {
+        val X by sources.add("X", "class X { int field; private X(int param) { field = param; } }")
+        sources.compile()
+        val instance = Mirror.reflect(X._constructor()).call<Any>(20)
+        assertEquals(X, instance.javaClass)
+        assertEquals(20, instance._get<Any>("field"))
+    }
+
+    @Test
+    fun `calling a method with too few arguments should throw`() {
+        val X by sources.add("X", "class X { void method(int a, int b) { } }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertThrows<IllegalArgumentException> {
+            Mirror.reflect(X._m("method")).call<Unit>(instance, 0)
+        }
+    }
+
+    @Test
+    fun `calling a JDK method should fall back to method handles`() {
+        assertEquals(3, Mirror.reflect(String::class.java.getMethod("length")).call<Int>("abc"))
+    }
+}
@@ -0,0 +1,75 @@
+package dev.thecodewarrior.mirror.methodhandles
+
+import dev.thecodewarrior.mirror.Mirror
+import dev.thecodewarrior.mirror.testsupport.MTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.lang.IllegalArgumentException
+
+internal class PrimitiveFields: MTest() {
+    @Test
+    fun `getting an int field as an int should return its value`() {
+        val X by sources.add("X", "class X { private int field = 10; }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertEquals(10, Mirror.reflect(X._f("field")).getInt(instance))
+    }
+
+    @Test
+    fun `getting a short field as a double should widen its value`() {
+        val X by sources.add("X", "class X { short field = 10; }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertEquals(10.0, Mirror.reflect(X._f("field")).getDouble(instance))
+    }
+
+    @Test
+    fun `getting an int field as a byte should throw`() {
+        val X by sources.add("X", "class X { int field = 10; }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertThrows<IllegalArgumentException> {
+            Mirror.reflect(X._f("field")).getByte(instance)
+        }
+    }
+
+    @Test
+    fun `getting an object field as an int should throw`() {
+        val X by sources.add("X", "class X { Integer field = 10; }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertThrows<IllegalArgumentException> {
+            Mirror.reflect(X._f("field")).getInt(instance)
+        }
+    }
+
+    @Test
+    fun `setting a long field from an int should widen the value`() {
+        val X by sources.add("X", "class X { long field = 10; }")
+        sources.compile()
+        val instance = X._new<Any>()
+        Mirror.reflect(X._f("field")).setInt(instance, 20)
+        assertEquals(20L, instance._get("field"))
+    }
+
+    @Test
+    fun `setting an int field from a long should throw`() {
+        val X by sources.add("X", "class X { int field = 10; }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertThrows<IllegalArgumentException> {
+            Mirror.reflect(X._f("field")).setLong(instance, 20)
+        }
+    }
+
+    @Test
+    fun `getting and setting a static field with a null receiver should work`() {
+        val X by sources.add("X", "class X { static boolean field = false; }")
+        sources.compile()
+        val field = Mirror.reflect(X._f("field"))
+        field.setBoolean(null, true)
+        assertEquals(true, field.getBoolean(null))
+        assertEquals(true, X._get("field"))
+    }
+}
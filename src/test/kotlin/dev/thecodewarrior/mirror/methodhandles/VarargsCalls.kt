@@ -0,0 +1,90 @@
+package dev.thecodewarrior.mirror.methodhandles
+
+import dev.thecodewarrior.mirror.InvocationStrategy
+import dev.thecodewarrior.mirror.Mirror
+import dev.thecodewarrior.mirror.testsupport.MTest
+import org.junit.jupiter.api.Assertions.assertArrayEquals
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertSame
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.lang.IllegalArgumentException
+
+/**
+ * With the method handle strategy, [call][dev.thecodewarrior.mirror.member.MethodMirror.call] collects the last
+ * argument of a varargs method or constructor into an array, while the fixed-arity `callN` methods pass it as-is, like
+ * [Method.invoke][java.lang.reflect.Method.invoke]. The generated strategy always passes it as-is.
+ */
+internal class VarargsCalls: MTest() {
+    @Test
+    fun `call on a varargs method should collect a single element into an array`() {
+        val X by sources.add("X", "class X { static Object method(String... values) { return values; } }")
+        sources.compile()
+        assertArrayEquals(arrayOf("a"), Mirror.reflect(X._m("method")).call<Array<Any>>(null, "a"))
+    }
+
+    @Test
+    fun `call on a varargs method with an array argument should throw`() {
+        val X by sources.add("X", "class X { static Object method(String... values) { return values; } }")
+        sources.compile()
+        assertThrows<ClassCastException> {
+            Mirror.reflect(X._m("method")).call<Any>(null, arrayOf("a", "b"))
+        }
+    }
+
+    @Test
+    fun `call1 on a varargs method should pass the array argument as-is`() {
+        val X by sources.add("X", "class X { static Object method(String... values) { return values; } }")
+        sources.compile()
+        val values = arrayOf("a", "b")
+        assertSame(values, Mirror.reflect(X._m("method")).call1<Any>(null, values))
+    }
+
+    @Test
+    fun `call2 on a varargs instance method should pass the array after the fixed arguments`() {
+        val X by sources.add("X", "class X { int method(int a, String... values) { return a + values.length; } }")
+        sources.compile()
+        val instance = X._new<Any>()
+        assertEquals(12, Mirror.reflect(X._m("method")).call2<Int>(instance, 10, arrayOf("a", "b")))
+        assertEquals(11, Mirror.reflect(X._m("method")).call<Int>(instance, 10, "a"))
+    }
+
+    @Test
+    fun `call on a varargs method with the elements as separate arguments should throw`() {
+        val X by sources.add("X", "class X { static Object method(String... values) { return values; } }")
+        sources.compile()
+        assertThrows<IllegalArgumentException> {
+            Mirror.reflect(X._m("method")).call<Any>(null, "a", "b")
+        }
+    }
+
+    @Test
+    fun `call on a varargs constructor should collect the element and call1 should pass the array as-is`() {
+        val X by sources.add("X", "class X { Object field; X(String... values) { field = values; } }")
+        sources.compile()
+        val values = arrayOf("a", "b")
+        assertArrayEquals(arrayOf("a"), Mirror.reflect(X._constructor()).call<Any>("a")._get<Array<Any>>("field"))
+        assertSame(values, Mirror.reflect(X._constructor()).call1<Any>(values)._get<Any>("field"))
+    }
+
+    @Test
+    fun `call on a varargs constructor with the elements as separate arguments should throw`() {
+        val X by sources.add("X", "class X { X(String... values) { } }")
+        sources.compile()
+        assertThrows<IllegalArgumentException> {
+            Mirror.reflect(X._constructor()).call<Any>("a", "b")
+        }
+    }
+
+    @Test
+    fun `call and call1 with the generated strategy should pass the array argument as-is`() {
+        Mirror.invocationStrategy = InvocationStrategy.GENERATED
+        val X by sources.add("X", "class X { Object field; X(String... values) { field = values; } static Object method(String... values) { return values; } }")
+        sources.compile()
+        val values = arrayOf("a", "b")
+        assertSame(values, Mirror.reflect(X._m("method")).call<Any>(null, values))
+        assertSame(values, Mirror.reflect(X._m("method")).call1<Any>(null, values))
+        assertSame(values, Mirror.reflect(X._constructor()).call<Any>(values)._get<Any>("field"))
+        assertSame(values, Mirror.reflect(X._constructor()).call1<Any>(values)._get<Any>("field"))
+    }
+}
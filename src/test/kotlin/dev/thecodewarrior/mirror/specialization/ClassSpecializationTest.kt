@@ -3,6 +3,7 @@ package dev.thecodewarrior.mirror.specialization
 import dev.thecodewarrior.mirror.InvalidSpecializationException
 import dev.thecodewarrior.mirror.Mirror
 import dev.thecodewarrior.mirror.testsupport.GenericObject1
+import dev.thecodewarrior.mirror.testsupport.KotlinTypeAnnotation1
 import dev.thecodewarrior.mirror.testsupport.MirrorTestBase
 import dev.thecodewarrior.mirror.testsupport.Object1
 import dev.thecodewarrior.mirror.testsupport.Object2
@@ -62,4 +63,31 @@ internal class ClassSpecializationTest: MirrorTestBase() {
         val specialized2 = specialized1.withTypeArguments(specializeWith2)
         assertSame(specialized1.raw, specialized2.raw)
     }
-}
\ No newline at end of file
+
+    @Test
+    fun specialize_repeatedly_shouldReturnSameMirror() {
+        val genericType = Mirror.reflectClass(GenericObject1::class.java)
+        val specializeWith = Mirror.reflectClass<Object1>()
+        assertSame(genericType.withTypeArguments(specializeWith), genericType.withTypeArguments(specializeWith))
+    }
+
+    @Test
+    fun specialize_matchingReflectedType_shouldReturnSameMirror() {
+        val genericType = Mirror.reflectClass(GenericObject1::class.java)
+        assertSame(
+            Mirror.reflectClass<GenericObject1<Object1>>().withTypeAnnotations(emptyList()),
+            genericType.withTypeArguments(Mirror.reflectClass<Object1>())
+        )
+    }
+
+    @Test
+    fun specialize_annotatedType_shouldKeepAnnotations() {
+        val genericType = Mirror.reflectClass(GenericObject1::class.java)
+        val annotation = Mirror.newAnnotation<KotlinTypeAnnotation1>()
+        val annotated = genericType.withTypeAnnotations(listOf(annotation))
+        val specialized = annotated.withTypeArguments(Mirror.reflectClass<Object1>())
+        assertSameList(listOf(annotation), specialized.typeAnnotations.toList())
+        assertSame(specialized, annotated.withTypeArguments(Mirror.reflectClass<Object1>()))
+        assertNotEquals(specialized, genericType.withTypeArguments(Mirror.reflectClass<Object1>()))
+    }
+}
@@ -244,19 +244,16 @@ abstract class MTest {
     }
 
     open fun initializeForTest() {
-        cacheField.set(Mirror, MirrorCache())
-        typesField.set(Mirror, createTypesMethod.invoke(Mirror))
+        stateField.set(Mirror, stateConstructor.newInstance(MirrorCache()))
     }
 
     private companion object {
-        val cacheField = Mirror::class.java.getDeclaredField("cache")
-        val typesField = Mirror::class.java.getDeclaredField("_types")
-        val createTypesMethod = Mirror::class.java.getDeclaredMethod("createTypes")
+        val stateField = Mirror::class.java.getDeclaredField("state")
+        val stateConstructor = stateField.type.getDeclaredConstructor(MirrorCache::class.java)
 
         init {
-            cacheField.isAccessible = true
-            typesField.isAccessible = true
-            createTypesMethod.isAccessible = true
+            stateField.isAccessible = true
+            stateConstructor.isAccessible = true
         }
     }
 }
\ No newline at end of file
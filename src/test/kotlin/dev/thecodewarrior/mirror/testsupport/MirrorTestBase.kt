@@ -23,8 +23,7 @@ internal open class MirrorTestBase(val holder: AnnotatedTypeHolder = EmptyTypeHo
     }
 
     open fun initializeForTest() {
-        cacheField.set(Mirror, MirrorCache())
-        typesField.set(Mirror, createTypesMethod.invoke(Mirror))
+        stateField.set(Mirror, stateConstructor.newInstance(MirrorCache()))
     }
 
     /** Get a field from the holder */
@@ -80,14 +79,12 @@ internal open class MirrorTestBase(val holder: AnnotatedTypeHolder = EmptyTypeHo
     protected val KFunction<*>.c: Constructor<*> get() = this.javaConstructor!!
 
     private companion object {
-        val cacheField = Mirror::class.java.getDeclaredField("cache")
-        val typesField = Mirror::class.java.getDeclaredField("_types")
-        val createTypesMethod = Mirror::class.java.getDeclaredMethod("createTypes")
+        val stateField = Mirror::class.java.getDeclaredField("state")
+        val stateConstructor = stateField.type.getDeclaredConstructor(MirrorCache::class.java)
 
         init {
-            cacheField.isAccessible = true
-            typesField.isAccessible = true
-            createTypesMethod.isAccessible = true
+            stateField.isAccessible = true
+            stateConstructor.isAccessible = true
         }
     }
 }
\ No newline at end of file
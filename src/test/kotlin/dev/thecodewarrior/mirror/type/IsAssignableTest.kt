@@ -686,4 +686,37 @@ internal class IsAssignableTest: MTest() {
             )
         )
     }
-}
\ No newline at end of file
+
+    @Test
+    fun `interfaces should be assignable from classes that inherit them through their superclass`() {
+        val I by sources.add("I", "interface I {}")
+        val J by sources.add("J", "interface J extends I {}")
+        val Base by sources.add("Base", "class Base implements J {}")
+        val X by sources.add("X", "class X extends Base {}")
+        val Y by sources.add("Y", "class Y {}")
+        sources.compile()
+        assertTrue(Mirror.reflect(I).isAssignableFrom(Mirror.reflect(X)))
+        assertTrue(Mirror.reflect(J).isAssignableFrom(Mirror.reflect(X)))
+        assertTrue(Mirror.reflect(Base).isAssignableFrom(Mirror.reflect(X)))
+        assertFalse(Mirror.reflect(X).isAssignableFrom(Mirror.reflect(Base)))
+        assertFalse(Mirror.reflect(I).isAssignableFrom(Mirror.reflect(Y)))
+        assertFalse(Mirror.reflect(J).isAssignableFrom(Mirror.reflect(I)))
+    }
+
+    @Test
+    fun `generic interfaces should compare the arguments of the inherited specialization`() {
+        val X by sources.add("X", "class X {}")
+        val Y by sources.add("Y", "class Y {}")
+        val I by sources.add("I", "interface I<T> {}")
+        val Base by sources.add("Base", "class Base<T> implements I<T> {}")
+        val Sub by sources.add("Sub", "class Sub extends Base<X> {}")
+        val types = sources.types {
+            +"I<X>"
+            +"I<Y>"
+        }
+        sources.compile()
+        assertTrue(Mirror.reflect(types["I<X>"]).isAssignableFrom(Mirror.reflect(Sub)))
+        assertFalse(Mirror.reflect(types["I<Y>"]).isAssignableFrom(Mirror.reflect(Sub)))
+        assertTrue(Mirror.reflect(I).isAssignableFrom(Mirror.reflect(Sub)))
+    }
+}
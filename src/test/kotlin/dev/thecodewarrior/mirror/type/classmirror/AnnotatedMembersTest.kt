@@ -0,0 +1,86 @@
+@file:Suppress("ClassName", "PropertyName")
+
+package dev.thecodewarrior.mirror.type.classmirror
+
+import dev.thecodewarrior.mirror.Mirror
+import dev.thecodewarrior.mirror.testsupport.MTest
+import dev.thecodewarrior.mirror.testsupport.assertSameList
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Test
+
+@Suppress("LocalVariableName")
+internal class AnnotatedMembersTest: MTest() {
+    val A by sources.add("A", "@rt(METHOD, FIELD, CONSTRUCTOR, PARAMETER) @interface A {}").typed<Annotation>()
+    val B by sources.add("B", "@rt(METHOD, FIELD, CONSTRUCTOR, PARAMETER) @interface B {}").typed<Annotation>()
+    val Base by sources.add("Base", """
+        class Base<T> {
+            @A T baseField;
+            @A void baseMethod(@A T param) {}
+        }
+    """)
+    val X by sources.add("X", """
+        class X extends Base<String> {
+            @A int field;
+            @A @B int bothField;
+            int plainField;
+            @A X() {}
+            X(@A int param) {}
+            @A void method(int plain, @A String param) {}
+            @B void other() {}
+        }
+    """)
+
+    @Test
+    fun `'annotatedMembers' should return the declared methods, fields, and constructors with the annotation`() {
+        val mirror = Mirror.reflectClass(X)
+        assertSameList(
+            listOf(
+                mirror.getMethod(X._m("method", Int::class.javaPrimitiveType!!, String::class.java)),
+                mirror.getField(X._f("field")),
+                mirror.getField(X._f("bothField")),
+                mirror.getConstructor(X._constructor())
+            ),
+            mirror.annotatedMembers(A, false)
+        )
+    }
+
+    @Test
+    fun `'annotatedMembers' including inherited members should include superclass methods and fields`() {
+        val mirror = Mirror.reflectClass(X)
+        val members = mirror.annotatedMembers(A, true)
+        assertEquals(6, members.size)
+        assertSameList(
+            listOf(mirror.superclass!!.getField(Base._f("baseField"))),
+            mirror.annotatedFields(A, true).filter { it.java.declaringClass == Base }
+        )
+        assertSameList(
+            listOf(mirror.superclass!!.getMethod(Base._m("baseMethod", Any::class.java))),
+            mirror.annotatedMethods(A, true).filter { it.java.declaringClass == Base }
+        )
+    }
+
+    @Test
+    fun `'annotatedFields' should only return fields with the annotation`() {
+        val mirror = Mirror.reflectClass(X)
+        assertSameList(listOf(mirror.getField(X._f("bothField"))), mirror.annotatedFields(B, false))
+    }
+
+    @Test
+    fun `'annotatedParameters' should return the method parameters, then the constructor parameters`() {
+        val mirror = Mirror.reflectClass(X)
+        val method = mirror.getMethod(X._m("method", Int::class.javaPrimitiveType!!, String::class.java))
+        val constructor = mirror.getConstructor(X._constructor(Int::class.javaPrimitiveType!!))
+        assertSameList(
+            listOf(method.parameters[1], constructor.parameters[0]),
+            mirror.annotatedParameters(A, false)
+        )
+        assertEquals(3, mirror.annotatedParameters(A, true).size)
+    }
+
+    @Test
+    fun `annotated member lookups for an annotation that isn't present should return empty lists`() {
+        val mirror = Mirror.reflectClass(Base)
+        assertEquals(emptyList<Any>(), mirror.annotatedMembers(B, true))
+        assertEquals(emptyList<Any>(), mirror.annotatedParameters(B, false))
+    }
+}
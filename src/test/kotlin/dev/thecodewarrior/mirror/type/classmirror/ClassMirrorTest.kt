@@ -180,4 +180,36 @@ internal class ClassMirrorTest: MTest() {
     fun kClass_ofSpecializedClass_shouldReturnKClass() {
         assertEquals(GenericObject1::class, Mirror.reflectClass<GenericObject1<Object1>>().kClass)
     }
+
+    @Test
+    fun memberLookups_ofSpecializedClass_shouldReturnSpecializedMirrors() {
+        val X by sources.add("X", """
+            class X<T> {
+                T field1;
+                String field2;
+                X(T value) {}
+                X(String value, int other) {}
+                class Inner {}
+                static class Nested {}
+            }
+        """)
+        sources.compile()
+        val type = Mirror.reflectClass(X).withTypeArguments(Mirror.reflect<String>())
+        assertSame(type.declaredFields.single { it.name == "field1" }, type.getField(X._f("field1")))
+        assertSame(type.getField(X._f("field1")), type.findDeclaredField("field1"))
+        assertEquals(Mirror.reflect<String>(), type.getField(X._f("field1")).type)
+        assertNull(type.findDeclaredField("field3"))
+
+        val constructor = type.getConstructor(X._constructor(Any::class.java))
+        assertSame(constructor, type.findDeclaredConstructor(Mirror.reflect<String>()))
+        assertSame(type.getConstructor(X._constructor(_c<String>(), _int)),
+            type.findDeclaredConstructor(Mirror.reflect<String>(), Mirror.types.int))
+        assertNull(type.findDeclaredConstructor(Mirror.types.int))
+
+        val inner = type.getMemberClass(X._class("Inner"))
+        assertSame(inner, type.findDeclaredMemberClass("Inner"))
+        assertEquals(type, inner.enclosingClass)
+        assertEquals(Mirror.reflect(X._class("Nested")), type.findDeclaredMemberClass("Nested"))
+        assertNull(type.findDeclaredMemberClass("Missing"))
+    }
 }
@@ -10,6 +10,7 @@ import dev.thecodewarrior.mirror.testsupport.Interface1
 import dev.thecodewarrior.mirror.testsupport.KotlinInternalClass
 import dev.thecodewarrior.mirror.testsupport.MirrorTestBase
 import dev.thecodewarrior.mirror.testsupport.Object1
+import dev.thecodewarrior.mirror.testsupport.Object1Sub
 import dev.thecodewarrior.mirror.testsupport.SealedClass
 import dev.thecodewarrior.mirror.testsupport.simpletypes.JObject1
 import dev.thecodewarrior.mirror.type.ClassMirror
@@ -131,4 +132,29 @@ internal class SimpleHelpersTest: MirrorTestBase(SimpleHelpersHolder()) {
         Assertions.assertNull(Mirror.reflectClass(EnumClass1.ANONYMOUS.javaClass).enumConstants)
     }
 
-}
\ No newline at end of file
+    @Test
+    fun flagsAndModifiers_ofSpecializedClass_shouldBeSameInstanceAsRaw() {
+        val raw = Mirror.reflectClass(List::class.java)
+        val specialized = raw.withTypeArguments(Mirror.reflect<String>())
+        Assertions.assertSame(raw.flags, specialized.flags)
+        Assertions.assertSame(raw.modifiers, specialized.modifiers)
+    }
+
+    @Test
+    fun modifiers_ofClassesWithSameModifiers_shouldBeSameInstance() {
+        Assertions.assertSame(Mirror.reflectClass<Object1>().modifiers, Mirror.reflectClass<Object1Sub>().modifiers)
+    }
+
+    @Test
+    fun names_ofSpecializedClass_shouldMatchRaw() {
+        val raw = Mirror.reflectClass(List::class.java)
+        val specialized = raw.withTypeArguments(Mirror.reflect<String>())
+        assertAll(
+            { assertEquals(raw.simpleName, specialized.simpleName) },
+            { assertEquals(raw.name, specialized.name) },
+            { assertEquals(raw.jvmName, specialized.jvmName) },
+            { assertEquals(raw.canonicalName, specialized.canonicalName) },
+            { assertEquals(raw.kClass, specialized.kClass) }
+        )
+    }
+}
@@ -0,0 +1,83 @@
+package dev.thecodewarrior.mirror.util
+
+import dev.thecodewarrior.mirror.Mirror
+import dev.thecodewarrior.mirror.testsupport.MTest
+import org.junit.jupiter.api.Assertions.assertEquals
+import org.junit.jupiter.api.Assertions.assertFalse
+import org.junit.jupiter.api.Assertions.assertNotNull
+import org.junit.jupiter.api.Assertions.assertNull
+import org.junit.jupiter.api.Assertions.assertTrue
+import org.junit.jupiter.api.Test
+
+internal class AnnotationListTest: MTest() {
+    val R by sources.add("R", "@rt(TYPE, TYPE_USE) @java.lang.annotation.Repeatable(Rs.class) @interface R { int value(); }")
+        .typed<Annotation>()
+    val Rs by sources.add("Rs", "@rt(TYPE, TYPE_USE) @interface Rs { R[] value(); }").typed<Annotation>()
+    val M by sources.add("M", "@rt(TYPE, TYPE_USE) @interface M {}").typed<Annotation>()
+    val Single by sources.add("Single", "@R(1) @M class Single {}")
+    val Repeated by sources.add("Repeated", "@R(1) @R(2) class Repeated {}")
+    val I by sources.add("I", "@rt(TYPE) @java.lang.annotation.Inherited @java.lang.annotation.Repeatable(Is.class) @interface I { int value(); }")
+        .typed<Annotation>()
+    val Is by sources.add("Is", "@rt(TYPE) @java.lang.annotation.Inherited @interface Is { I[] value(); }").typed<Annotation>()
+    val InheritedBase by sources.add("InheritedBase", "@I(1) @I(2) class InheritedBase {}")
+    val InheritedSub by sources.add("InheritedSub", "@R(3) class InheritedSub extends InheritedBase {}")
+
+    val types = sources.types {
+        +"@R(1) @R(2) @M Single"
+    }
+
+    private fun values(annotations: Array<out Annotation>): List<Any> {
+        return annotations.map { it.annotationClass.java.getMethod("value").invoke(it) }
+    }
+
+    @Test
+    fun `'get' and 'isPresent' of an element's annotations should find present annotations`() {
+        val annotations = Mirror.reflectClass(Single).annotations
+        assertTrue(annotations.isPresent(M))
+        assertTrue(annotations.isPresent(R))
+        assertFalse(annotations.isPresent(Rs))
+        assertEquals(Single.getAnnotation(R), annotations.get(R))
+        assertNull(annotations.get(Rs))
+    }
+
+    @Test
+    fun `'getAllByType' of an element's annotations should look through repeatable containers`() {
+        val annotations = Mirror.reflectClass(Repeated).annotations
+        assertNull(annotations.get(R))
+        assertNotNull(annotations.get(Rs))
+        assertEquals(listOf(1, 2), values(annotations.getAllByType(R)))
+        assertEquals(listOf<Any>(), values(annotations.getAllByType(M)))
+    }
+
+    @Test
+    fun `'getAllByType' of a type's annotations should look through repeatable containers`() {
+        val annotations = Mirror.reflect(types["@R(1) @R(2) @M Single"]).typeAnnotations
+        assertTrue(annotations.isPresent(M))
+        assertTrue(annotations.isPresent(Rs))
+        assertFalse(annotations.isPresent(R))
+        assertEquals(listOf(1, 2), values(annotations.getAllByType(R)))
+    }
+
+    @Test
+    fun `modifying the array returned by 'getAllByType' should not affect later calls`() {
+        val annotations = Mirror.reflectClass(Repeated).annotations
+        val first = annotations.getAllByType(R)
+        first.fill(first[1])
+        assertEquals(listOf(1, 2), values(annotations.getAllByType(R)))
+    }
+
+    @Test
+    fun `'getAllByType' of a class's annotations should look through inherited repeatable containers`() {
+        val annotations = Mirror.reflectClass(InheritedSub).annotations
+        assertEquals(listOf(1, 2), values(annotations.getAllByType(I)))
+        assertEquals(listOf(3), values(annotations.getAllByType(R)))
+    }
+
+    @Test
+    fun `'getAllByType' for a type that isn't present should return an empty array of that type`() {
+        val annotations = Mirror.reflectClass(Repeated).annotations
+        val result = annotations.getAllByType(M)
+        assertEquals(0, result.size)
+        assertEquals(M, result.javaClass.componentType)
+    }
+}